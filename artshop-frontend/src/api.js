@@ -1,8 +1,23 @@
 import axios from 'axios';
 
 const API_URL = 'http://localhost:8100/api';
+const PAGE_SIZE = 200;
 
-export const getAllArtists = () => axios.get(`${API_URL}/artist/all`);
+// the /all endpoints return one page ({ items, limit, nextCursor }) at a time. The list views load
+// page by page; only the pickers of the art form need every item, so they follow nextCursor to the end
+const fetchAllPages = async (url) => {
+    const items = [];
+    let cursor;
+    do {
+        const response = await axios.get(url, { params: { cursor, limit: PAGE_SIZE } });
+        items.push(...response.data.items);
+        cursor = response.data.nextCursor;
+    } while (cursor);
+    return items;
+};
+
+export const getArtistsPage = (cursor, limit) => axios.get(`${API_URL}/artist/all`, { params: { cursor, limit } });
+export const getAllArtists = () => fetchAllPages(`${API_URL}/artist/all`);
 export const getArtistById = (id) => axios.get(`${API_URL}/artist/${id}`);
 export const getArtistsByArtTitle = (title) => axios.get(`${API_URL}/artist/by-art`, { params: { artTitle: title } });
 export const searchArtists = (firstName, lastName) => axios.get(`${API_URL}/artist/name`, { params: { firstName, lastName } });
@@ -12,7 +27,7 @@ export const patchArtist = (id, artist) => axios.patch(`${API_URL}/artist/${id}`
 export const deleteArtist = (id) => axios.delete(`${API_URL}/artist/${id}`);
 export const addBulkArtists = (artists) => axios.post(`${API_URL}/artist/bulk`, artists);
 
-export const getAllArts = () => axios.get(`${API_URL}/art/all`);
+export const getArtsPage = (cursor, limit) => axios.get(`${API_URL}/art/all`, { params: { cursor, limit } });
 export const getArtById = (id) => axios.get(`${API_URL}/art/${id}`);
 export const getArtByTitle = (title) => axios.get(`${API_URL}/art/title`, { params: { title } });
 export const getArtsByArtistName = (artistName) => axios.get(`${API_URL}/art/by-artist`, { params: { artistName } });
@@ -24,7 +39,8 @@ export const patchArt = (id, art) => axios.patch(`${API_URL}/art/${id}`, art);
 export const deleteArt = (id) => axios.delete(`${API_URL}/art/${id}`);
 export const addBulkArts = (arts) => axios.post(`${API_URL}/art/bulk`, arts);
 
-export const getAllClassifications = () => axios.get(`${API_URL}/classification/all`);
+export const getClassificationsPage = (cursor, limit) => axios.get(`${API_URL}/classification/all`, { params: { cursor, limit } });
+export const getAllClassifications = () => fetchAllPages(`${API_URL}/classification/all`);
 export const getClassificationById = (id) => axios.get(`${API_URL}/classification/${id}`);
 export const getClassificationsByArtTitle = (artTitle) => axios.get(`${API_URL}/classification/by-art`, { params: { artTitle } });
 export const getClassificationsByName = (name) => axios.get(`${API_URL}/classification/name`, { params: { name } });
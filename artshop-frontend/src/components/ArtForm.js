@@ -39,9 +39,9 @@ function ArtForm() {
 
     const fetchData = async () => {
         try {
-            const [artistsRes, classificationsRes] = await Promise.all([getAllArtists(), getAllClassifications()]);
-            setArtists(artistsRes.data);
-            setClassifications(classificationsRes.data);
+            const [allArtists, allClassifications] = await Promise.all([getAllArtists(), getAllClassifications()]);
+            setArtists(allArtists);
+            setClassifications(allClassifications);
         } catch (error) {
             const errorMessage = error.response?.data?.message || 'Неизвестная ошибка при загрузке данных';
             setSnackbarMessage(errorMessage);
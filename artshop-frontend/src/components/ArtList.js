@@ -1,10 +1,11 @@
 import React, { useState, useEffect } from 'react';
 import { Table, TableBody, TableCell, TableContainer, TableHead, TableRow, Paper, Button, TextField, Box, Snackbar, Dialog, DialogActions, DialogContent, DialogContentText, DialogTitle } from '@mui/material';
 import { Link } from 'react-router-dom';
-import { getAllArts, getArtByTitle, getArtsByClassificationName, deleteArt } from '../api';
+import { getArtsPage, getArtByTitle, getArtsByClassificationName, deleteArt } from '../api';
 
 function ArtList() {
     const [arts, setArts] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [title, setTitle] = useState('');
     const [classificationName, setClassificationName] = useState('');
     const [openDeleteDialog, setOpenDeleteDialog] = useState(false);
@@ -16,10 +17,12 @@ function ArtList() {
         fetchArts();
     }, []);
 
-    const fetchArts = async () => {
+    // without a cursor the list starts over; with one the next page is appended
+    const fetchArts = async (cursor) => {
         try {
-            const response = await getAllArts();
-            setArts(response.data);
+            const response = await getArtsPage(cursor);
+            setArts(cursor ? [...arts, ...response.data.items] : response.data.items);
+            setNextCursor(response.data.nextCursor);
         } catch (error) {
             const errorMessage = error.response?.data?.message || 'Неизвестная ошибка при загрузке произведений';
             setSnackbarMessage(errorMessage);
@@ -31,6 +34,7 @@ function ArtList() {
         try {
             const response = await getArtByTitle(title);
             setArts(response.data ? [response.data] : []);
+            setNextCursor(null);
         } catch (error) {
             const errorMessage = error.response?.data?.message || 'Неизвестная ошибка при поиске по названию';
             setSnackbarMessage(errorMessage);
@@ -42,6 +46,7 @@ function ArtList() {
         try {
             const response = await getArtsByClassificationName(classificationName);
             setArts(response.data);
+            setNextCursor(null);
         } catch (error) {
             const errorMessage = error.response?.data?.message || 'Неизвестная ошибка при поиске по имени классификации';
             setSnackbarMessage(errorMessage);
@@ -128,6 +133,11 @@ function ArtList() {
                     </TableBody>
                 </Table>
             </TableContainer>
+            {nextCursor && (
+                <Box mt={2}>
+                    <Button variant="outlined" onClick={() => fetchArts(nextCursor)}>Показать ещё</Button>
+                </Box>
+            )}
             <Snackbar
                 open={snackbarOpen}
                 autoHideDuration={6000}
@@ -5,9 +5,11 @@ import {
 } from '@mui/material';
 import { Link } from 'react-router-dom';
 import axios from 'axios';
+import { getArtistsPage } from '../api';
 
 const ArtistList = () => {
     const [artists, setArtists] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [searchFirstName, setSearchFirstName] = useState('');
     const [searchLastName, setSearchLastName] = useState('');
 
@@ -15,10 +17,11 @@ const ArtistList = () => {
         fetchArtists();
     }, []);
 
-    const fetchArtists = async () => {
+    const fetchArtists = async (cursor) => {
         try {
-            const response = await axios.get('http://localhost:8100/api/artist/all');
-            setArtists(response.data);
+            const response = await getArtistsPage(cursor);
+            setArtists(cursor ? [...artists, ...response.data.items] : response.data.items);
+            setNextCursor(response.data.nextCursor);
         } catch (error) {
             console.error('Error fetching artists:', error);
         }
@@ -32,6 +35,7 @@ const ArtistList = () => {
 
             const response = await axios.get(url);
             setArtists(response.data);
+            setNextCursor(null);
         } catch (error) {
             console.error('Error searching artists:', error);
         }
@@ -140,6 +144,11 @@ const ArtistList = () => {
                     </TableBody>
                 </Table>
             </TableContainer>
+            {nextCursor && (
+                <Box sx={{ mt: 2 }}>
+                    <Button variant="outlined" onClick={() => fetchArtists(nextCursor)}>Показать ещё</Button>
+                </Box>
+            )}
         </div>
     );
 };
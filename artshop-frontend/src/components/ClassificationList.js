@@ -5,19 +5,22 @@ import {
 } from '@mui/material';
 import { Link } from 'react-router-dom';
 import axios from 'axios';
+import { getClassificationsPage } from '../api';
 
 const ClassificationList = () => {
     const [classifications, setClassifications] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [searchName, setSearchName] = useState('');
 
     useEffect(() => {
         fetchClassifications();
     }, []);
 
-    const fetchClassifications = async () => {
+    const fetchClassifications = async (cursor) => {
         try {
-            const response = await axios.get('http://localhost:8100/api/classification/all');
-            setClassifications(response.data);
+            const response = await getClassificationsPage(cursor);
+            setClassifications(cursor ? [...classifications, ...response.data.items] : response.data.items);
+            setNextCursor(response.data.nextCursor);
         } catch (error) {
             console.error('Error fetching classifications:', error);
         }
@@ -27,6 +30,7 @@ const ClassificationList = () => {
         try {
             const response = await axios.get(`http://localhost:8100/api/classification/name?name=${searchName}`);
             setClassifications(response.data);
+            setNextCursor(null);
         } catch (error) {
             console.error('Error searching classifications:', error);
         }
@@ -127,6 +131,11 @@ const ClassificationList = () => {
                     </TableBody>
                 </Table>
             </TableContainer>
+            {nextCursor && (
+                <Box sx={{ mt: 2 }}>
+                    <Button variant="outlined" onClick={() => fetchClassifications(nextCursor)}>Показать ещё</Button>
+                </Box>
+            )}
         </div>
     );
 };
@@ -2,8 +2,10 @@ package com.example.artshop;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ArtShopApplication {
     public static void main(String[] args) {
         SpringApplication.run(ArtShopApplication.class, args);
@@ -0,0 +1,29 @@
+package com.example.artshop.config;
+
+import com.example.artshop.constants.ApplicationConstants;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "artshop.bulk")
+public class BulkProperties {
+    private int maxSize = ApplicationConstants.MAX_BULK_OPERATION_SIZE;
+    // rows written between flush/clear of the persistence context; keep it a multiple of the JDBC batch size
+    private int flushInterval = 500;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.artshop.config;
+
+import com.example.artshop.service.cache.CacheSettings;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "artshop.cache")
+public class CacheProperties {
+    private CacheSettings art = new CacheSettings();
+    private CacheSettings artist = new CacheSettings();
+    private CacheSettings classification = new CacheSettings();
+    private CacheSettings query = new CacheSettings();
+    private CacheSettings response = new CacheSettings();
+    private boolean responseEnabled;
+    private WarmUp warmUp = new WarmUp();
+    private Snapshot snapshot = new Snapshot();
+    private Existence existence = new Existence();
+    private MemoryPressure memoryPressure = new MemoryPressure();
+    private Stale stale = new Stale();
+
+    public CacheSettings getArt() {
+        return art;
+    }
+
+    public void setArt(CacheSettings art) {
+        this.art = art;
+    }
+
+    public CacheSettings getArtist() {
+        return artist;
+    }
+
+    public void setArtist(CacheSettings artist) {
+        this.artist = artist;
+    }
+
+    public CacheSettings getClassification() {
+        return classification;
+    }
+
+    public void setClassification(CacheSettings classification) {
+        this.classification = classification;
+    }
+
+    public CacheSettings getQuery() {
+        return query;
+    }
+
+    public void setQuery(CacheSettings query) {
+        this.query = query;
+    }
+
+    public CacheSettings getResponse() {
+        return response;
+    }
+
+    public void setResponse(CacheSettings response) {
+        this.response = response;
+    }
+
+    public boolean isResponseEnabled() {
+        return responseEnabled;
+    }
+
+    public void setResponseEnabled(boolean responseEnabled) {
+        this.responseEnabled = responseEnabled;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(WarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Existence getExistence() {
+        return existence;
+    }
+
+    public void setExistence(Existence existence) {
+        this.existence = existence;
+    }
+
+    public MemoryPressure getMemoryPressure() {
+        return memoryPressure;
+    }
+
+    public void setMemoryPressure(MemoryPressure memoryPressure) {
+        this.memoryPressure = memoryPressure;
+    }
+
+    public Stale getStale() {
+        return stale;
+    }
+
+    public void setStale(Stale stale) {
+        this.stale = stale;
+    }
+
+    public static class Stale {
+        private boolean enabled;
+        private Duration maxStale = Duration.ofHours(1);
+        private Duration latencyBudget = Duration.ofMillis(200);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int refreshThreads = 4;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxStale() {
+            return maxStale;
+        }
+
+        public void setMaxStale(Duration maxStale) {
+            this.maxStale = maxStale;
+        }
+
+        public Duration getLatencyBudget() {
+            return latencyBudget;
+        }
+
+        public void setLatencyBudget(Duration latencyBudget) {
+            this.latencyBudget = latencyBudget;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getRefreshThreads() {
+            return refreshThreads;
+        }
+
+        public void setRefreshThreads(int refreshThreads) {
+            this.refreshThreads = refreshThreads;
+        }
+    }
+
+    public static class MemoryPressure {
+        private boolean enabled;
+        private double highWatermark = 0.85;
+        private double lowWatermark = 0.6;
+        private double minScale = 0.1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getHighWatermark() {
+            return highWatermark;
+        }
+
+        public void setHighWatermark(double highWatermark) {
+            this.highWatermark = highWatermark;
+        }
+
+        public double getLowWatermark() {
+            return lowWatermark;
+        }
+
+        public void setLowWatermark(double lowWatermark) {
+            this.lowWatermark = lowWatermark;
+        }
+
+        public double getMinScale() {
+            return minScale;
+        }
+
+        public void setMinScale(double minScale) {
+            this.minScale = minScale;
+        }
+    }
+
+    public static class Existence {
+        private boolean enabled;
+        private long expectedInsertions = 10000;
+        private double falsePositiveRate = 0.01;
+        private Duration rebuildInterval = Duration.ofMinutes(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+    }
+
+    public static class Snapshot {
+        private boolean enabled;
+        private String directory = "./data/cache";
+        private int revalidationThreads = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getRevalidationThreads() {
+            return revalidationThreads;
+        }
+
+        public void setRevalidationThreads(int revalidationThreads) {
+            this.revalidationThreads = revalidationThreads;
+        }
+    }
+
+    public static class WarmUp {
+        private boolean enabled;
+        private int limit = 100;
+        private int batchSize = 50;
+        private int parallelism = 4;
+        private Duration timeout = Duration.ofMinutes(2);
+        private List<Integer> artIds = new ArrayList<>();
+        private List<Integer> artistIds = new ArrayList<>();
+        private List<Integer> classificationIds = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public List<Integer> getArtIds() {
+            return artIds;
+        }
+
+        public void setArtIds(List<Integer> artIds) {
+            this.artIds = artIds;
+        }
+
+        public List<Integer> getArtistIds() {
+            return artistIds;
+        }
+
+        public void setArtistIds(List<Integer> artistIds) {
+            this.artistIds = artistIds;
+        }
+
+        public List<Integer> getClassificationIds() {
+            return classificationIds;
+        }
+
+        public void setClassificationIds(List<Integer> classificationIds) {
+            this.classificationIds = classificationIds;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.artshop.constants;
 
 public class ApplicationConstants {
     public static final int MAX_BULK_OPERATION_SIZE = 10;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
 
     private ApplicationConstants() {
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,11 @@ package com.example.artshop.controller;
 
 import com.example.artshop.dto.ArtDTO;
 import com.example.artshop.dto.ArtPatchDTO;
+import com.example.artshop.dto.PageDTO;
 import com.example.artshop.service.ArtService;
 import com.example.artshop.service.ArtServiceInterface;
+import com.example.artshop.service.ResponseCacheService;
+import com.example.artshop.service.cache.CacheStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -13,9 +16,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,37 +32,68 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/art")
 @Tag(name = "Art Management", description = "Operations related to artworks")
 public class ArtController {
+    private static final String NDJSON = "application/x-ndjson";
+    // the whole catalogue is streamed as one async request; others keep the 30s default
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
     private final ArtServiceInterface artService;
+    private final ResponseCacheService responseCacheService;
 
-    public ArtController(ArtService artService) {
+    public ArtController(ArtService artService, ResponseCacheService responseCacheService) {
         this.artService = artService;
+        this.responseCacheService = responseCacheService;
     }
 
-    @Operation(summary = "Get all artworks", description = "Returns a list of all artworks")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ArtDTO.class))))
+    @Operation(summary = "Get all artworks",
+            description = "Returns one page of artworks in id order; pass nextCursor back to get the next page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page",
+                    content = @Content(schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
     @GetMapping("/all")
-    public ResponseEntity<List<ArtDTO>> getAllArts() {
-        List<ArtDTO> arts = artService.getAllArts();
-        return ResponseEntity.ok(arts);
+    public ResponseEntity<PageDTO<ArtDTO>> getAllArts(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1 to 200 (default 50)")
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return responseCacheService.page("art", cursor, limit, request,
+                () -> artService.getArtsPage(cursor, limit));
+    }
+
+    @Operation(summary = "Export all artworks",
+            description = "Streams every artwork in id order as newline-delimited JSON, one artwork per line")
+    @ApiResponse(responseCode = "200", description = "Export streamed",
+            content = @Content(mediaType = NDJSON, schema = @Schema(implementation = ArtDTO.class)))
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportArts(WebRequest request) {
+        // the handler is given the async request the body will be streamed on
+        if (request instanceof AsyncWebRequest asyncRequest) {
+            asyncRequest.setTimeout(EXPORT_TIMEOUT.toMillis());
+        }
+        StreamingResponseBody body = artService::exportArts;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @Operation(summary = "Add multiple artworks",
-            description = "Creates multiple artworks in one request (max 10 items)")
+            description = "Creates multiple artworks in one request (up to artshop.bulk.max-size items)")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Artworks created successfully",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = ArtDTO.class)))),
-            @ApiResponse(responseCode = "400", description = "Invalid input (empty list or more than 10 items)")
+            @ApiResponse(responseCode = "400", description = "Invalid input (empty list or more than artshop.bulk.max-size items)")
     })
     @PostMapping("/bulk")
     public ResponseEntity<List<ArtDTO>> addBulkArts(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
-                    description = "List of exactly 3 ArtDTO objects",
+                    description = "List of ArtDTO objects (up to artshop.bulk.max-size items)",
                     required = true,
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = ArtDTO.class))))
             @RequestBody List<ArtDTO> artDTOs) {
@@ -86,11 +122,11 @@ public class ArtController {
             @ApiResponse(responseCode = "404", description = "Artwork not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ArtDTO> getArtById(
+    public ResponseEntity<?> getArtById(
             @Parameter(description = "ID of the artwork to be retrieved", required = true)
-            @PathVariable int id) {
+            @PathVariable int id, WebRequest request) {
         ArtDTO art = artService.getArtById(id);
-        return ResponseEntity.ok(art);
+        return responseCacheService.art(art, request);
     }
 
     @Operation(summary = "Get artworks by classification name",
@@ -173,9 +209,9 @@ public class ArtController {
 
     @Operation(summary = "Get cache info", description = "Returns artwork cache statistics")
     @ApiResponse(responseCode = "200", description = "Cache info retrieved",
-            content = @Content(schema = @Schema(implementation = String.class)))
+            content = @Content(schema = @Schema(implementation = CacheStatistics.class)))
     @GetMapping("/cache-info")
-    public ResponseEntity<String> getArtCacheInfo() {
+    public ResponseEntity<CacheStatistics> getArtCacheInfo() {
         return ResponseEntity.ok(artService.getCacheInfo());
     }
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.example.artshop.controller;
 
 import com.example.artshop.dto.ArtistDTO;
 import com.example.artshop.dto.ArtistPatchDTO;
+import com.example.artshop.dto.PageDTO;
 import com.example.artshop.service.ArtistService;
 import com.example.artshop.service.ArtistServiceInterface;
+import com.example.artshop.service.ResponseCacheService;
+import com.example.artshop.service.cache.CacheStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -26,23 +29,36 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/artist")
 @Tag(name = "Artist Management", description = "Operations related to artists")
 public class ArtistController {
     private final ArtistServiceInterface artistService;
+    private final ResponseCacheService responseCacheService;
 
-    public ArtistController(ArtistService artistService) {
+    public ArtistController(ArtistService artistService, ResponseCacheService responseCacheService) {
         this.artistService = artistService;
+        this.responseCacheService = responseCacheService;
     }
 
-    @Operation(summary = "Get all artists", description = "Returns list of all artists")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ArtistDTO.class))))
+    @Operation(summary = "Get all artists",
+            description = "Returns one page of artists in id order; pass nextCursor back to get the next page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page",
+                    content = @Content(schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
     @GetMapping("/all")
-    public ResponseEntity<List<ArtistDTO>> getAllArtists() {
-        return ResponseEntity.ok(artistService.getAllArtists());
+    public ResponseEntity<PageDTO<ArtistDTO>> getAllArtists(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1 to 200 (default 50)")
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return responseCacheService.page("artist", cursor, limit, request,
+                () -> artistService.getArtistsPage(cursor, limit));
     }
 
     @Operation(summary = "Get artist by ID", description = "Returns single artist by ID")
@@ -52,11 +68,11 @@ public class ArtistController {
             @ApiResponse(responseCode = "404", description = "Artist not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ArtistDTO> getArtistById(
+    public ResponseEntity<?> getArtistById(
             @Parameter(description = "ID of artist to be retrieved", required = true)
-            @PathVariable Integer id) {
+            @PathVariable Integer id, WebRequest request) {
         Optional<ArtistDTO> artist = artistService.getArtistById(id);
-        return artist.map(ResponseEntity::ok)
+        return artist.<ResponseEntity<?>>map(dto -> responseCacheService.artist(dto, request))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -75,16 +91,16 @@ public class ArtistController {
     }
 
     @Operation(summary = "Add multiple artists",
-            description = "Creates multiple artists in one request (max 10 items)")
+            description = "Creates multiple artists in one request (up to artshop.bulk.max-size items)")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Artists created successfully",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = ArtistDTO.class)))),
-            @ApiResponse(responseCode = "400", description = "Invalid input (empty list or more than 10 items)")
+            @ApiResponse(responseCode = "400", description = "Invalid input (empty list or more than artshop.bulk.max-size items)")
     })
     @PostMapping("/bulk")
     public ResponseEntity<List<ArtistDTO>> addBulkArtists(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
-                    description = "List of ArtistDTO objects (max 10 items)",
+                    description = "List of ArtistDTO objects (up to artshop.bulk.max-size items)",
                     required = true,
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = ArtistDTO.class))))
             @RequestBody List<ArtistDTO> artistDTOs) {
@@ -148,9 +164,9 @@ public class ArtistController {
 
     @Operation(summary = "Get cache info", description = "Returns artist cache statistics")
     @ApiResponse(responseCode = "200", description = "Cache info retrieved",
-            content = @Content(schema = @Schema(implementation = String.class)))
+            content = @Content(schema = @Schema(implementation = CacheStatistics.class)))
     @GetMapping("/cache-info")
-    public ResponseEntity<String> getArtistCacheInfo() {
+    public ResponseEntity<CacheStatistics> getArtistCacheInfo() {
         return ResponseEntity.ok(artistService.getCacheInfo());
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.example.artshop.controller;
+
+import com.example.artshop.dto.CacheKeyPageDTO;
+import com.example.artshop.dto.CacheSettingsDTO;
+import com.example.artshop.service.CacheAdminService;
+import com.example.artshop.service.SecondLevelCacheService;
+import com.example.artshop.service.cache.CacheStatistics;
+import com.example.artshop.service.cache.HotKey;
+import com.example.artshop.service.cache.RegionStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@Tag(name = "Cache Administration", description = "Inspection and maintenance of the caches")
+public class CacheAdminController {
+    private final CacheAdminService cacheAdminService;
+    private final SecondLevelCacheService secondLevelCacheService;
+
+    public CacheAdminController(CacheAdminService cacheAdminService,
+                                SecondLevelCacheService secondLevelCacheService) {
+        this.cacheAdminService = cacheAdminService;
+        this.secondLevelCacheService = secondLevelCacheService;
+    }
+
+    @Operation(summary = "List caches", description = "Returns size, capacity and statistics of every cache")
+    @ApiResponse(responseCode = "200", description = "Caches listed",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CacheStatistics.class))))
+    @GetMapping
+    public ResponseEntity<List<CacheStatistics>> getCaches() {
+        return ResponseEntity.ok(cacheAdminService.getCaches());
+    }
+
+    @Operation(summary = "Get Hibernate cache regions",
+            description = "Returns statistics of the second-level entity, collection and query cache regions")
+    @ApiResponse(responseCode = "200", description = "Region statistics retrieved",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = RegionStatistics.class))))
+    @GetMapping("/regions")
+    public ResponseEntity<List<RegionStatistics>> getRegionStatistics() {
+        return ResponseEntity.ok(secondLevelCacheService.getRegionStatistics());
+    }
+
+    @Operation(summary = "Clear Hibernate cache regions",
+            description = "Evicts every second-level entity, collection and query cache region")
+    @ApiResponse(responseCode = "204", description = "Regions cleared")
+    @DeleteMapping("/regions")
+    public ResponseEntity<Void> evictRegions() {
+        secondLevelCacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get cache", description = "Returns size, capacity and statistics of one cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache found",
+                    content = @Content(schema = @Schema(implementation = CacheStatistics.class))),
+            @ApiResponse(responseCode = "404", description = "Cache not found")
+    })
+    @GetMapping("/{name}")
+    public ResponseEntity<CacheStatistics> getCache(
+            @Parameter(description = "Cache name, e.g. Art or ArtistSearch", required = true)
+            @PathVariable String name) {
+        return ResponseEntity.ok(cacheAdminService.getCache(name));
+    }
+
+    @Operation(summary = "Get hot keys",
+            description = "Returns the keys pinned against eviction for their read frequency, hottest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hot keys retrieved",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = HotKey.class)))),
+            @ApiResponse(responseCode = "400", description = "Cache does not track hot keys")
+    })
+    @GetMapping("/{name}/hot")
+    public ResponseEntity<List<HotKey>> getHotKeys(@PathVariable String name) {
+        return ResponseEntity.ok(cacheAdminService.getHotKeys(name));
+    }
+
+    @Operation(summary = "Get cache settings", description = "Returns the live capacity and expiry of a cache")
+    @ApiResponse(responseCode = "200", description = "Settings retrieved",
+            content = @Content(schema = @Schema(implementation = CacheSettingsDTO.class)))
+    @GetMapping("/{name}/settings")
+    public ResponseEntity<CacheSettingsDTO> getSettings(@PathVariable String name) {
+        return ResponseEntity.ok(cacheAdminService.getSettings(name));
+    }
+
+    @Operation(summary = "Change cache settings",
+            description = "Changes capacity and expiry without a restart; omitted fields are kept")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settings changed",
+                    content = @Content(schema = @Schema(implementation = CacheSettingsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid settings"),
+            @ApiResponse(responseCode = "404", description = "Cache not found")
+    })
+    @PatchMapping("/{name}/settings")
+    public ResponseEntity<CacheSettingsDTO> updateSettings(@PathVariable String name,
+                                                           @RequestBody CacheSettingsDTO settings) {
+        return ResponseEntity.ok(cacheAdminService.updateSettings(name, settings));
+    }
+
+    @Operation(summary = "List cache keys",
+            description = "Pages through the keys of a cache; values are never rendered")
+    @ApiResponse(responseCode = "200", description = "Keys retrieved",
+            content = @Content(schema = @Schema(implementation = CacheKeyPageDTO.class)))
+    @GetMapping("/{name}/keys")
+    public ResponseEntity<CacheKeyPageDTO> getKeys(@PathVariable String name,
+                                                   @RequestParam(defaultValue = "0") int offset,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(cacheAdminService.getKeys(name, offset, limit));
+    }
+
+    @Operation(summary = "Evict a key", description = "Evicts one entry and the cached responses built from it")
+    @ApiResponse(responseCode = "204", description = "Key evicted")
+    @DeleteMapping("/{name}/keys/{key}")
+    public ResponseEntity<Void> evict(@PathVariable String name, @PathVariable String key) {
+        cacheAdminService.evict(name, key);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Evict keys by pattern",
+            description = "Evicts every key matching a pattern where * matches any characters and ? one")
+    @ApiResponse(responseCode = "200", description = "Number of evicted keys",
+            content = @Content(schema = @Schema(implementation = Integer.class)))
+    @DeleteMapping("/{name}/keys")
+    public ResponseEntity<Integer> evictMatching(@PathVariable String name, @RequestParam String pattern) {
+        return ResponseEntity.ok(cacheAdminService.evictMatching(name, pattern));
+    }
+
+    @Operation(summary = "Clear cache", description = "Removes every entry of a cache")
+    @ApiResponse(responseCode = "204", description = "Cache cleared")
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> clear(@PathVariable String name) {
+        cacheAdminService.clear(name);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Warm cache",
+            description = "Loads the given ids into the Art, Artist or Classification cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of entries loaded",
+                    content = @Content(schema = @Schema(implementation = Integer.class))),
+            @ApiResponse(responseCode = "400", description = "Cache cannot be warmed by id")
+    })
+    @PostMapping("/{name}/warm")
+    public ResponseEntity<Integer> warm(@PathVariable String name, @RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(cacheAdminService.warm(name, ids));
+    }
+}
@@ -2,8 +2,11 @@ package com.example.artshop.controller;
 
 import com.example.artshop.dto.ClassificationDTO;
 import com.example.artshop.dto.ClassificationPatchDTO;
+import com.example.artshop.dto.PageDTO;
 import com.example.artshop.model.Classification;
 import com.example.artshop.service.ClassificationService;
+import com.example.artshop.service.ResponseCacheService;
+import com.example.artshop.service.cache.CacheStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -26,20 +29,38 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/classification")
 @Tag(name = "Classification Management", description = "Operations related to artwork classifications")
 public class ClassificationController {
 
-    private ClassificationService classificationService;
+    private final ClassificationService classificationService;
+    private final ResponseCacheService responseCacheService;
 
-    @Operation(summary = "Get all classifications", description = "Returns list of all classifications")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ClassificationDTO.class))))
+    public ClassificationController(ClassificationService classificationService,
+                                    ResponseCacheService responseCacheService) {
+        this.classificationService = classificationService;
+        this.responseCacheService = responseCacheService;
+    }
+
+    @Operation(summary = "Get all classifications",
+            description = "Returns one page of classifications in id order; pass nextCursor back to get the next page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page",
+                    content = @Content(schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
     @GetMapping("/all")
-    public List<ClassificationDTO> getAllClassifications() {
-        return classificationService.getAllClassifications();
+    public ResponseEntity<PageDTO<ClassificationDTO>> getAllClassifications(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1 to 200 (default 50)")
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return responseCacheService.page("classification", cursor, limit, request,
+                () -> classificationService.getClassificationsPage(cursor, limit));
     }
 
     @Operation(summary = "Get classification by ID", description = "Returns single classification by ID")
@@ -49,28 +70,28 @@ public class ClassificationController {
             @ApiResponse(responseCode = "404", description = "Classification not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ClassificationDTO> getClassificationById(
+    public ResponseEntity<?> getClassificationById(
             @Parameter(description = "ID of classification to be retrieved", required = true)
-            @PathVariable int id) {
+            @PathVariable int id, WebRequest request) {
         ClassificationDTO classification = classificationService.getClassificationById(id);
         if (classification != null) {
-            return ResponseEntity.ok(classification);
+            return responseCacheService.classification(classification, request);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @Operation(summary = "Add multiple classifications",
-            description = "Creates multiple classifications in one request (max 10 items)")
+            description = "Creates multiple classifications in one request (up to artshop.bulk.max-size items)")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Classifications created successfully",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = Classification.class)))),
-            @ApiResponse(responseCode = "400", description = "Invalid input (empty list or more than 10 items)")
+            @ApiResponse(responseCode = "400", description = "Invalid input (empty list or more than artshop.bulk.max-size items)")
     })
     @PostMapping("/bulk")
     public ResponseEntity<List<Classification>> addBulkClassifications(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
-                    description = "List of ClassificationDTO objects (max 10 items)",
+                    description = "List of ClassificationDTO objects (up to artshop.bulk.max-size items)",
                     required = true,
                     content = @Content(array = @ArraySchema(
                             schema = @Schema(implementation = ClassificationDTO.class))))
@@ -140,9 +161,9 @@ public class ClassificationController {
 
     @Operation(summary = "Get cache info", description = "Returns classification cache statistics")
     @ApiResponse(responseCode = "200", description = "Cache info retrieved",
-            content = @Content(schema = @Schema(implementation = String.class)))
+            content = @Content(schema = @Schema(implementation = CacheStatistics.class)))
     @GetMapping("/cache-info")
-    public ResponseEntity<String> getClassificationCacheInfo() {
+    public ResponseEntity<CacheStatistics> getClassificationCacheInfo() {
         return ResponseEntity.ok(classificationService.getCacheInfo());
     }
 }
\ No newline at end of file
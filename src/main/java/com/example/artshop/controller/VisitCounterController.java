@@ -6,7 +6,6 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import java.util.Map;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,7 +16,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/visits")
 public class VisitCounterController {
 
-    private VisitCounterService visitCounterService;
+    private final VisitCounterService visitCounterService;
+
+    public VisitCounterController(VisitCounterService visitCounterService) {
+        this.visitCounterService = visitCounterService;
+    }
 
     @Operation(summary = "Get total visits",
             description = "Returns total number of GET requests to all endpoints")
@@ -1,5 +1,6 @@
 package com.example.artshop.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
@@ -25,11 +26,18 @@ public class ArtDTO {
     @Valid
     private ClassificationDTO classification;
 
+    @JsonIgnore
+    private Long version;
+
+    // set once the DTO is cached; the cached instance is shared by every reader
+    private boolean frozen;
+
     public Integer getId() {
         return id;
     }
 
     public void setId(Integer id) {
+        checkMutable();
         this.id = id;
     }
 
@@ -38,6 +46,7 @@ public class ArtDTO {
     }
 
     public void setTitle(String title) {
+        checkMutable();
         this.title = title;
     }
 
@@ -46,6 +55,7 @@ public class ArtDTO {
     }
 
     public void setYear(Integer year) {
+        checkMutable();
         this.year = year;
     }
 
@@ -54,6 +64,7 @@ public class ArtDTO {
     }
 
     public void setArtists(List<ArtistDTO> artists) {
+        checkMutable();
         this.artists = artists;
     }
 
@@ -62,6 +73,37 @@ public class ArtDTO {
     }
 
     public void setClassification(ClassificationDTO classification) {
+        checkMutable();
         this.classification = classification;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        checkMutable();
+        this.version = version;
+    }
+
+    // Makes this DTO, its lists and the DTOs nested in it read-only. Idempotent.
+    public ArtDTO freeze() {
+        if (frozen) {
+            return this;
+        }
+        if (classification != null) {
+            classification.freeze();
+        }
+        if (artists != null) {
+            artists = artists.stream().map(ArtistDTO::freeze).toList();
+        }
+        frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("ArtDTO " + id + " is cached and read-only; copy it to change it");
+        }
+    }
+}
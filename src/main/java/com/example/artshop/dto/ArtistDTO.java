@@ -1,5 +1,6 @@
 package com.example.artshop.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Size;
 
@@ -26,11 +27,20 @@ public class ArtistDTO {
     @Schema(description = "Count of artworks by this artist")
     private Integer artworkCount;
 
+    @JsonIgnore
+    private List<Integer> artworkIds;
+
+    @JsonIgnore
+    private Long version;
+
+    private boolean frozen;
+
     public List<String> getArtworkTitles() {
         return artworkTitles;
     }
 
     public void setArtworkTitles(List<String> artworkTitles) {
+        checkMutable();
         this.artworkTitles = artworkTitles;
     }
 
@@ -39,6 +49,7 @@ public class ArtistDTO {
     }
 
     public void setArtworkCount(Integer artworkCount) {
+        checkMutable();
         this.artworkCount = artworkCount;
     }
     public Integer getId() {
@@ -46,6 +57,7 @@ public class ArtistDTO {
     }
 
     public void setId(Integer id) {
+        checkMutable();
         this.id = id;
     }
 
@@ -54,6 +66,7 @@ public class ArtistDTO {
     }
 
     public void setFirstName(String firstName) {
+        checkMutable();
         this.firstName = firstName;
     }
 
@@ -62,6 +75,7 @@ public class ArtistDTO {
     }
 
     public void setMiddleName(String middleName) {
+        checkMutable();
         this.middleName = middleName;
     }
 
@@ -70,6 +84,45 @@ public class ArtistDTO {
     }
 
     public void setLastName(String lastName) {
+        checkMutable();
         this.lastName = lastName;
     }
-}
\ No newline at end of file
+
+    public List<Integer> getArtworkIds() {
+        return artworkIds;
+    }
+
+    public void setArtworkIds(List<Integer> artworkIds) {
+        checkMutable();
+        this.artworkIds = artworkIds;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        checkMutable();
+        this.version = version;
+    }
+
+    public ArtistDTO freeze() {
+        if (frozen) {
+            return this;
+        }
+        if (artworkTitles != null) {
+            artworkTitles = List.copyOf(artworkTitles);
+        }
+        if (artworkIds != null) {
+            artworkIds = List.copyOf(artworkIds);
+        }
+        frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("ArtistDTO " + id + " is cached and read-only; copy it to change it");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.artshop.dto;
+
+import java.util.List;
+
+public class CacheKeyPageDTO {
+    private final String cache;
+    private final int total;
+    private final int offset;
+    private final List<String> keys;
+
+    public CacheKeyPageDTO(String cache, int total, int offset, List<String> keys) {
+        this.cache = cache;
+        this.total = total;
+        this.offset = offset;
+        this.keys = keys;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.artshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Duration;
+
+// Live limits of one cache. In an update, fields left null keep their current value and a zero
+// duration turns that expiry off.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CacheSettingsDTO {
+    private Integer maxEntries;
+    private Duration expireAfterWrite;
+    private Duration expireAfterAccess;
+
+    public CacheSettingsDTO() {
+    }
+
+    public CacheSettingsDTO(Integer maxEntries, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this.maxEntries = maxEntries;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public boolean hasUpdates() {
+        return maxEntries != null || expireAfterWrite != null || expireAfterAccess != null;
+    }
+}
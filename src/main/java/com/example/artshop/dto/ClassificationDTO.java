@@ -1,5 +1,6 @@
 package com.example.artshop.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
 
@@ -15,11 +16,20 @@ public class ClassificationDTO {
     private List<String> artworkTitles;
     private Integer artworkCount;
 
+    @JsonIgnore
+    private List<Integer> artworkIds;
+
+    @JsonIgnore
+    private Long version;
+
+    private boolean frozen;
+
     public Integer getId() {
         return id;
     }
 
     public void setId(Integer id) {
+        checkMutable();
         this.id = id;
     }
 
@@ -28,6 +38,7 @@ public class ClassificationDTO {
     }
 
     public void setName(String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -36,6 +47,7 @@ public class ClassificationDTO {
     }
 
     public void setDescription(String description) {
+        checkMutable();
         this.description = description;
     }
 
@@ -44,6 +56,7 @@ public class ClassificationDTO {
     }
 
     public void setArtworkTitles(List<String> artworkTitles) {
+        checkMutable();
         this.artworkTitles = artworkTitles;
     }
 
@@ -52,6 +65,45 @@ public class ClassificationDTO {
     }
 
     public void setArtworkCount(Integer artworkCount) {
+        checkMutable();
         this.artworkCount = artworkCount;
     }
-}
\ No newline at end of file
+
+    public List<Integer> getArtworkIds() {
+        return artworkIds;
+    }
+
+    public void setArtworkIds(List<Integer> artworkIds) {
+        checkMutable();
+        this.artworkIds = artworkIds;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        checkMutable();
+        this.version = version;
+    }
+
+    public ClassificationDTO freeze() {
+        if (frozen) {
+            return this;
+        }
+        if (artworkTitles != null) {
+            artworkTitles = List.copyOf(artworkTitles);
+        }
+        if (artworkIds != null) {
+            artworkIds = List.copyOf(artworkIds);
+        }
+        frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("ClassificationDTO " + id + " is cached and read-only; copy it to change it");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.artshop.dto;
+
+import java.util.List;
+
+public class PageDTO<T> {
+    private final List<T> items;
+    private final int limit;
+    private final String nextCursor;
+
+    public PageDTO(List<T> items, int limit, String nextCursor) {
+        this.items = items;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // null on the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -3,14 +3,17 @@ package com.example.artshop.interceptor;
 import com.example.artshop.service.VisitCounterService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 @Component
 public class VisitCounterInterceptor implements HandlerInterceptor {
 
-    private VisitCounterService visitCounterService;
+    private final VisitCounterService visitCounterService;
+
+    public VisitCounterInterceptor(VisitCounterService visitCounterService) {
+        this.visitCounterService = visitCounterService;
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request,
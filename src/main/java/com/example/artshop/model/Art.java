@@ -4,12 +4,17 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "art")
 @Table(name = "art")
 public class Art {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "art_seq")
+    @SequenceGenerator(name = "art_seq", sequenceName = "art_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "title", nullable = false, length = 255)
@@ -18,6 +23,7 @@ public class Art {
     @Column(name = "year")
     private Integer year;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "art.artists")
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "art_artist",
@@ -30,6 +36,10 @@ public class Art {
     @JoinColumn(name = "classification_id")
     private Classification classification;
 
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public Art() {}
 
     public Art(String title, Integer year) {
@@ -77,6 +87,14 @@ public class Art {
         this.classification = classification;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Art{" +
@@ -4,12 +4,17 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "artist")
 @Table(name = "artist")
 public class Artist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artist_seq")
+    @SequenceGenerator(name = "artist_seq", sequenceName = "artist_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "first_name", length = 60)
@@ -21,15 +26,17 @@ public class Artist {
     @Column(name = "last_name", length = 60)
     private String lastName;
 
-    @ManyToMany
-    @JoinTable(
-            name = "art_artist",
-            joinColumns = @JoinColumn(name = "artist_id"),
-            inverseJoinColumns = @JoinColumn(name = "art_id")
-    )
+    // Art owns the art_artist rows; as the inverse side this collection's cache entries are evicted
+    // whenever an art's artists change
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "artist.arts")
+    @ManyToMany(mappedBy = "artists")
     @JsonManagedReference
     private Set<Art> arts = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public Artist() {}
 
     public Artist(String firstName, String middleName, String lastName) {
@@ -78,6 +85,14 @@ public class Artist {
         this.arts = arts;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Artist{" +
@@ -4,12 +4,17 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "classification")
 @Table(name = "classification")
 public class Classification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "classification_seq")
+    @SequenceGenerator(name = "classification_seq", sequenceName = "classification_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "name", nullable = false, length = 100)
@@ -18,10 +23,15 @@ public class Classification {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "classification.arts")
     @OneToMany(mappedBy = "classification")
     @JsonBackReference
     private Set<Art> arts = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public Classification() {}
 
     public Classification(String name, String description) {
@@ -61,6 +71,14 @@ public class Classification {
         this.arts = arts;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Classification{" +
@@ -1,42 +1,94 @@
 package com.example.artshop.repository;
 
 import com.example.artshop.model.Art;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ArtRepository extends JpaRepository<Art, Integer> {
+    String ART_ROWS = "SELECT new com.example.artshop.repository.ArtRow(a.id, a.title, a.year, a.version, "
+            + "c.id, c.name, c.description, c.version, ar.id, ar.firstName, ar.middleName, ar.lastName, ar.version) "
+            + "FROM Art a LEFT JOIN a.classification c LEFT JOIN a.artists ar ";
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Art> findByTitleContainingIgnoreCase(String title);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Art> findByYear(Integer year);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Art> findByTitleContainingIgnoreCaseAndYear(String title, Integer year);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @EntityGraph(attributePaths = {"artists"})
     Optional<Art> findWithArtistsById(Integer id);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Art a JOIN a.artists ar WHERE LOWER(ar.lastName) LIKE LOWER(concat('%', :artistName, '%'))")
     List<Art> findByArtistsLastNameContainingIgnoreCase(@Param("artistName") String artistName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Art a JOIN a.classification c WHERE c.id = :classificationId")
     List<Art> findByClassificationId(@Param("classificationId") Integer classificationId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Art a JOIN a.classification c WHERE LOWER(c.name) " +
             "LIKE LOWER(concat('%', :classificationName, '%'))")
     List<Art> findByClassificationNameContainingIgnoreCase(@Param("classificationName") String classificationName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT a FROM Art a LEFT JOIN FETCH a.artists LEFT JOIN FETCH a.classification WHERE a.id = :id")
     Optional<Art> findWithArtistsAndClassificationById(@Param("id") Integer id);
 
+    @Query("SELECT a.id FROM Art a")
+    List<Integer> findAllIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ART_ROWS + "WHERE a.id IN (SELECT x.id FROM Art x JOIN x.artists y "
+            + "WHERE LOWER(y.lastName) LIKE LOWER(concat('%', :artistName, '%'))) ORDER BY a.id, ar.id")
+    List<ArtRow> findRowsByArtistLastName(@Param("artistName") String artistName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ART_ROWS + "WHERE c.id = :classificationId ORDER BY a.id, ar.id")
+    List<ArtRow> findRowsByClassificationId(@Param("classificationId") Integer classificationId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ART_ROWS + "WHERE LOWER(c.name) LIKE LOWER(concat('%', :classificationName, '%')) ORDER BY a.id, ar.id")
+    List<ArtRow> findRowsByClassificationName(@Param("classificationName") String classificationName);
+
+    @Query(ART_ROWS + "WHERE a.id IN :ids ORDER BY a.id, ar.id")
+    List<ArtRow> findRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT a.id FROM Art a WHERE a.id > :after ORDER BY a.id")
+    List<Integer> findIdsAfter(@Param("after") int after, Limit limit);
+
+    @Query("SELECT a.title FROM Art a")
+    List<String> findAllTitles();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Art a WHERE a.title = :title")
     Optional<Art> findByTitle(@Param("title") String title);
 
-    @Query("SELECT DISTINCT a FROM Art a LEFT JOIN FETCH a.artists LEFT JOIN FETCH a.classification")
-    List<Art> findAllWithArtistsAndClassification();
+    @Query("SELECT DISTINCT a FROM Art a LEFT JOIN FETCH a.artists LEFT JOIN FETCH a.classification WHERE a.id IN :ids")
+    List<Art> findAllWithArtistsAndClassificationByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // read through a database cursor, bypassing the second-level cache and dirty-checking snapshots
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT a FROM Art a LEFT JOIN FETCH a.artists LEFT JOIN FETCH a.classification ORDER BY a.id")
+    Stream<Art> streamAllWithArtistsAndClassification();
 }
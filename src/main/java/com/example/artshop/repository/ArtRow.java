@@ -0,0 +1,10 @@
+package com.example.artshop.repository;
+
+// One row per artwork and artist, with the classification repeated on each. The classification and
+// artist columns are null when the artwork has none.
+public record ArtRow(Integer id, String title, Integer year, Long version,
+                     Integer classificationId, String classificationName, String classificationDescription,
+                     Long classificationVersion,
+                     Integer artistId, String artistFirstName, String artistMiddleName, String artistLastName,
+                     Long artistVersion) {
+}
@@ -1,44 +1,80 @@
 package com.example.artshop.repository;
 
 import com.example.artshop.model.Artist;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, Integer> {
+    String ARTIST_ROWS = "SELECT new com.example.artshop.repository.ArtistRow(a.id, a.firstName, a.middleName, "
+            + "a.lastName, a.version, art.id, art.title, art.version) FROM Artist a LEFT JOIN a.arts art ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Artist> findByFirstNameAndLastName(String firstName, String lastName);
 
+    List<Artist> findByLastNameIn(Collection<String> lastNames);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Artist> findByFirstNameContaining(String firstName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Artist> findByLastNameContaining(String lastName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Artist> findByFirstNameContainingAndLastNameContaining(String firstName, String lastName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Artist a WHERE LOWER(a.firstName) LIKE LOWER(concat('%', :query, '%'))" +
             " OR LOWER(a.lastName) LIKE LOWER(concat('%', :query, '%'))")
     List<Artist> searchByName(@Param("query") String query);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Artist> findByFirstNameContainingIgnoreCase(String firstName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Artist> findByLastNameContainingIgnoreCase(String lastName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Artist> findByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase(String firstName, String lastName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT a FROM Artist a JOIN a.arts WHERE a.id = :id")
     Optional<Artist> findWithArtsById(@Param("id") Integer id);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT a FROM Artist a JOIN a.arts art WHERE LOWER(art.title)" +
             " LIKE LOWER(concat('%', :artTitle, '%'))")
     List<Artist> findByArtTitleContaining(@Param("artTitle") String artTitle);
 
-    @Query("SELECT DISTINCT a FROM Artist a LEFT JOIN a.arts")
-    List<Artist> findAllWithArts();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ARTIST_ROWS + "WHERE LOWER(COALESCE(a.firstName, '')) LIKE LOWER(concat('%', :firstName, '%'))"
+            + " AND LOWER(COALESCE(a.lastName, '')) LIKE LOWER(concat('%', :lastName, '%')) ORDER BY a.id, art.id")
+    List<ArtistRow> findRowsByName(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ARTIST_ROWS + "WHERE a.id IN (SELECT x.id FROM Artist x JOIN x.arts y "
+            + "WHERE LOWER(y.title) LIKE LOWER(concat('%', :artTitle, '%'))) ORDER BY a.id, art.id")
+    List<ArtistRow> findRowsByArtTitle(@Param("artTitle") String artTitle);
+
+    @Query(ARTIST_ROWS + "WHERE a.id IN :ids ORDER BY a.id, art.id")
+    List<ArtistRow> findRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT a.id FROM Artist a WHERE a.id > :after ORDER BY a.id")
+    List<Integer> findIdsAfter(@Param("after") int after, Limit limit);
 
     @EntityGraph(attributePaths = "arts")
     List<Artist> findAll();
+
+    @Query("SELECT DISTINCT a FROM Artist a LEFT JOIN FETCH a.arts WHERE a.id IN :ids")
+    List<Artist> findAllWithArtsByIdIn(@Param("ids") Collection<Integer> ids);
 }
\ No newline at end of file
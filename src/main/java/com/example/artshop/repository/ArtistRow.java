@@ -0,0 +1,6 @@
+package com.example.artshop.repository;
+
+// One row per artist and artwork; the artwork columns are null for an artist without any.
+public record ArtistRow(Integer id, String firstName, String middleName, String lastName, Long version,
+                        Integer artId, String artTitle, Long artVersion) {
+}
@@ -1,8 +1,10 @@
 package com.example.artshop.repository;
 
 import com.example.artshop.model.Classification;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,8 +13,13 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ClassificationRepository extends JpaRepository<Classification, Integer> {
+    String CLASSIFICATION_ROWS = "SELECT new com.example.artshop.repository.ClassificationRow(c.id, c.name, "
+            + "c.description, c.version, a.id, a.title, a.version) FROM Classification c LEFT JOIN c.arts a ";
+
     Classification findByName(String name);
 
+    List<Classification> findByNameIn(Collection<String> names);
+
     Classification findById(int id);
 
     Classification save(Classification classification);
@@ -24,13 +31,28 @@ public interface ClassificationRepository extends JpaRepository<Classification,
     @Query("SELECT c FROM Classification c WHERE LOWER(c.name) LIKE LOWER(concat('%', :name, '%'))")
     List<Classification> findByNameContainingIgnoreCase(@Param("name") String name);
 
-    @Query("SELECT DISTINCT c FROM Classification c LEFT JOIN c.arts")
-    List<Classification> findAllWithArts();
-
     @Query("SELECT c FROM Classification c LEFT JOIN c.arts WHERE c.id = :id")
     Optional<Classification> findWithArtsById(@Param("id") Integer id);
 
     @EntityGraph(attributePaths = "arts")
     List<Classification> findAll();
 
-}
\ No newline at end of file
+    @Query("SELECT DISTINCT c FROM Classification c LEFT JOIN FETCH c.arts WHERE c.id IN :ids")
+    List<Classification> findAllWithArtsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT c.id FROM Classification c")
+    List<Integer> findAllIds();
+
+    @Query(CLASSIFICATION_ROWS + "WHERE LOWER(c.name) LIKE LOWER(concat('%', :name, '%')) ORDER BY c.id, a.id")
+    List<ClassificationRow> findRowsByName(@Param("name") String name);
+
+    @Query(CLASSIFICATION_ROWS + "WHERE c.id IN (SELECT x.id FROM Classification x JOIN x.arts y "
+            + "WHERE LOWER(y.title) LIKE LOWER(concat('%', :artTitle, '%'))) ORDER BY c.id, a.id")
+    List<ClassificationRow> findRowsByArtTitle(@Param("artTitle") String artTitle);
+
+    @Query(CLASSIFICATION_ROWS + "WHERE c.id IN :ids ORDER BY c.id, a.id")
+    List<ClassificationRow> findRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT c.id FROM Classification c WHERE c.id > :after ORDER BY c.id")
+    List<Integer> findIdsAfter(@Param("after") int after, Limit limit);
+}
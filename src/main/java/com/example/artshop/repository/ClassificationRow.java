@@ -0,0 +1,6 @@
+package com.example.artshop.repository;
+
+// One row per classification and artwork; the artwork columns are null for an empty classification.
+public record ClassificationRow(Integer id, String name, String description, Long version,
+                                Integer artId, String artTitle, Long artVersion) {
+}
@@ -1,10 +1,11 @@
 package com.example.artshop.service;
 
-import com.example.artshop.constants.ApplicationConstants;
+import com.example.artshop.config.BulkProperties;
 import com.example.artshop.dto.ArtDTO;
 import com.example.artshop.dto.ArtPatchDTO;
 import com.example.artshop.dto.ArtistDTO;
 import com.example.artshop.dto.ClassificationDTO;
+import com.example.artshop.dto.PageDTO;
 import com.example.artshop.exception.NotFoundException;
 import com.example.artshop.exception.ValidationException;
 import com.example.artshop.model.Art;
@@ -13,14 +14,29 @@ import com.example.artshop.model.Classification;
 import com.example.artshop.repository.ArtRepository;
 import com.example.artshop.repository.ArtistRepository;
 import com.example.artshop.repository.ClassificationRepository;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.QueryCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,7 +49,11 @@ public class ArtService implements ArtServiceInterface {
     private final ArtistRepository artistRepository;
     private final ClassificationRepository classificationRepository;
     private final CacheService cacheService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final BulkProperties bulkProperties;
     private static final Logger LOGGER = LoggerFactory.getLogger(ArtService.class);
+    private static final int EXPORT_CHUNK_SIZE = 250;
     public static final String ART_NOT_FOUND = "Art with id %d not found";
     public static final String ART_NOT_FOUNDSTRING = "Art with title %s not found";
     public static final String ART_NOT_FOUNDARTIST = "Artist not found with id: ";
@@ -42,11 +62,17 @@ public class ArtService implements ArtServiceInterface {
     public ArtService(ArtRepository artRepository,
                       ArtistRepository artistRepository,
                       ClassificationRepository classificationRepository,
-                      CacheService cacheService) {
+                      CacheService cacheService,
+                      EntityManager entityManager,
+                      ObjectMapper objectMapper,
+                      BulkProperties bulkProperties) {
         this.artRepository = artRepository;
         this.artistRepository = artistRepository;
         this.classificationRepository = classificationRepository;
         this.cacheService = cacheService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.bulkProperties = bulkProperties;
     }
 
     @Transactional
@@ -54,23 +80,166 @@ public class ArtService implements ArtServiceInterface {
         if (artDTOs == null || artDTOs.isEmpty()) {
             throw new ValidationException("Art list cannot be null or empty");
         }
-        if (artDTOs.size() > ApplicationConstants.MAX_BULK_OPERATION_SIZE) {
+        if (artDTOs.size() > bulkProperties.getMaxSize()) {
             throw new ValidationException("Cannot add more than " +
-                    ApplicationConstants.MAX_BULK_OPERATION_SIZE + " artworks at once");
-        }
-
-        return artDTOs.stream()
-                .peek(dto -> {
-                    if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
-                        throw new ValidationException("Art title is required for all items");
-                    }
-                })
-                .map(this::addSingleArt)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                    bulkProperties.getMaxSize() + " artworks at once");
+        }
+        for (ArtDTO dto : artDTOs) {
+            if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
+                throw new ValidationException("Art title is required for all items");
+            }
+            if (dto.getClassification() != null) {
+                validateClassification(dto.getClassification());
+            }
+            if (dto.getArtists() != null && !dto.getArtists().isEmpty()) {
+                validateArtists(dto.getArtists());
+            }
+        }
+
+        // every chunk resolves its references with a few IN queries and is flushed as JDBC batches;
+        // clearing afterwards keeps the persistence context from growing with the import
+        List<ArtDTO> saved = new ArrayList<>(artDTOs.size());
+        int interval = Math.max(1, bulkProperties.getFlushInterval());
+        for (int from = 0; from < artDTOs.size(); from += interval) {
+            saved.addAll(addArtChunk(artDTOs.subList(from, Math.min(from + interval, artDTOs.size()))));
+            if (from + interval < artDTOs.size()) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return saved;
+    }
+
+    private List<ArtDTO> addArtChunk(List<ArtDTO> chunk) {
+        Map<ClassificationDTO, Classification> classifications = resolveClassifications(chunk);
+        Map<ArtistDTO, Artist> artists = resolveArtists(chunk);
+
+        List<Art> saved = new ArrayList<>(chunk.size());
+        for (ArtDTO artDTO : chunk) {
+            Art art = new Art(artDTO.getTitle(), artDTO.getYear());
+            art.setClassification(classifications.get(artDTO.getClassification()));
+            if (artDTO.getArtists() != null) {
+                artDTO.getArtists().forEach(artistDTO -> art.getArtists().add(artists.get(artistDTO)));
+            }
+            saved.add(artRepository.save(art));
+        }
+        // one invalidation and one refresh per chunk instead of one per row
+        cacheService.invalidateArtQueries(saved);
+        List<ArtDTO> dtos = saved.stream().map(this::convertToDTO).toList();
+        cacheService.refreshArts(dtos);
+        return dtos;
+    }
+
+    // same rules as processClassification: a known id wins, an unknown id creates the classification
+    // without looking at the name, and without an id the name is looked up before creating it; all new
+    // ones of the chunk are saved together
+    private Map<ClassificationDTO, Classification> resolveClassifications(List<ArtDTO> chunk) {
+        List<ClassificationDTO> dtos = chunk.stream()
+                .map(ArtDTO::getClassification)
+                .filter(dto -> dto != null && dto.getName() != null)
+                .toList();
+        Map<ClassificationDTO, Classification> resolved = new IdentityHashMap<>();
+        if (dtos.isEmpty()) {
+            return resolved;
+        }
+
+        Map<Integer, Classification> byId = new HashMap<>();
+        Set<Integer> ids = dtos.stream().map(ClassificationDTO::getId).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!ids.isEmpty()) {
+            classificationRepository.findAllById(ids).forEach(c -> byId.put(c.getId(), c));
+        }
+        Map<String, Classification> byName = new HashMap<>();
+        Set<String> names = dtos.stream().filter(dto -> dto.getId() == null)
+                .map(ClassificationDTO::getName).collect(Collectors.toSet());
+        if (!names.isEmpty()) {
+            classificationRepository.findByNameIn(names).forEach(c -> byName.putIfAbsent(c.getName(), c));
+        }
+
+        List<Classification> created = new ArrayList<>();
+        for (ClassificationDTO dto : dtos) {
+            Classification classification;
+            if (dto.getId() != null) {
+                classification = byId.get(dto.getId());
+                if (classification == null) {
+                    classification = new Classification(dto.getName(), dto.getDescription());
+                    created.add(classification);
+                }
+            } else {
+                classification = byName.computeIfAbsent(dto.getName(), name -> {
+                    Classification newClassification = new Classification(name, dto.getDescription());
+                    created.add(newClassification);
+                    return newClassification;
+                });
+            }
+            resolved.put(dto, classification);
+        }
+        if (!created.isEmpty()) {
+            classificationRepository.saveAll(created);
+            cacheService.invalidateClassificationQueries(created);
+        }
+        return resolved;
     }
 
-    Art addSingleArt(ArtDTO artDTO) {
+    // same rules as processArtist; name pairs are matched in memory against every artist sharing one of
+    // the last names, which keeps the lookup a single IN query
+    private Map<ArtistDTO, Artist> resolveArtists(List<ArtDTO> chunk) {
+        List<ArtistDTO> dtos = chunk.stream()
+                .filter(art -> art.getArtists() != null)
+                .flatMap(art -> art.getArtists().stream())
+                .toList();
+        Map<ArtistDTO, Artist> resolved = new IdentityHashMap<>();
+        if (dtos.isEmpty()) {
+            return resolved;
+        }
+        for (ArtistDTO dto : dtos) {
+            if (dto.getLastName() == null || dto.getLastName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Artist last name is required");
+            }
+        }
+
+        Map<Integer, Artist> byId = new HashMap<>();
+        Set<Integer> ids = dtos.stream().map(ArtistDTO::getId).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!ids.isEmpty()) {
+            artistRepository.findAllById(ids).forEach(artist -> byId.put(artist.getId(), artist));
+        }
+        Map<ArtistName, Artist> byName = new HashMap<>();
+        Set<String> lastNames = dtos.stream().filter(dto -> dto.getId() == null)
+                .map(ArtistDTO::getLastName).collect(Collectors.toSet());
+        if (!lastNames.isEmpty()) {
+            artistRepository.findByLastNameIn(lastNames).forEach(artist ->
+                    byName.putIfAbsent(new ArtistName(artist.getFirstName(), artist.getLastName()), artist));
+        }
+
+        List<Artist> created = new ArrayList<>();
+        for (ArtistDTO dto : dtos) {
+            Artist artist;
+            if (dto.getId() != null) {
+                artist = byId.get(dto.getId());
+                if (artist == null) {
+                    throw new NotFoundException(ART_NOT_FOUNDARTIST + dto.getId());
+                }
+            } else {
+                artist = byName.computeIfAbsent(new ArtistName(dto.getFirstName(), dto.getLastName()), name -> {
+                    Artist newArtist = new Artist(dto.getFirstName(), dto.getMiddleName(), dto.getLastName());
+                    created.add(newArtist);
+                    return newArtist;
+                });
+            }
+            resolved.put(dto, artist);
+        }
+        if (!created.isEmpty()) {
+            artistRepository.saveAll(created);
+            cacheService.invalidateArtistQueries(created);
+        }
+        return resolved;
+    }
+
+    private record ArtistName(String firstName, String lastName) {
+    }
+
+    ArtDTO addSingleArt(ArtDTO artDTO) {
         Art art = new Art();
         art.setTitle(artDTO.getTitle());
         art.setYear(artDTO.getYear());
@@ -87,17 +256,24 @@ public class ArtService implements ArtServiceInterface {
             art.setArtists(artists);
         }
 
+        return saveNewArt(art);
+    }
+
+    private ArtDTO saveNewArt(Art art) {
         Art savedArt = artRepository.save(art);
-        cacheService.getArtCache().put(savedArt.getId(), savedArt);
-        return savedArt;
+        cacheService.invalidateQueries(savedArt);
+        ArtDTO dto = convertToDTO(savedArt);
+        cacheService.refreshArt(dto);
+        return dto;
     }
 
     @Transactional(readOnly = true)
     public List<ArtDTO> getArtsByArtistName(String artistName) {
-        List<Art> arts = artRepository.findByArtistsLastNameContainingIgnoreCase(artistName);
-        arts.forEach(art -> cacheService.getArtCache().put(art.getId(), art));
-        if (arts.isEmpty()) LOGGER.warn("No artworks found for artist: {}", artistName);
-        return arts.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return cacheService.getArtsByArtistNameCache().get(QueryCache.key(artistName), () -> {
+            List<ArtDTO> arts = RowAssembler.arts(artRepository.findRowsByArtistLastName(artistName));
+            if (arts.isEmpty()) LOGGER.warn("No artworks found for artist: {}", artistName);
+            return cacheArts(arts);
+        });
     }
 
     @Transactional
@@ -161,8 +337,10 @@ public class ArtService implements ArtServiceInterface {
         }
 
         Art savedArt = artRepository.save(art);
-        cacheService.getArtCache().put(savedArt.getId(), savedArt);
-        return convertToDTO(savedArt);
+        cacheService.invalidateQueries(savedArt);
+        ArtDTO dto = convertToDTO(savedArt);
+        cacheService.refreshArt(dto);
+        return dto;
     }
 
     void validateClassification(ClassificationDTO classification) {
@@ -261,21 +439,24 @@ public class ArtService implements ArtServiceInterface {
 
         Art art = artRepository.findWithArtistsById(id)
                 .orElseThrow(() -> new EntityNotFoundException(ART_NOT_FOUND + id));
+        cacheService.invalidateQueries(art);
         if (artPatchDTO.getTitle() != null) art.setTitle(artPatchDTO.getTitle());
         if (artPatchDTO.getYear() != null) art.setYear(artPatchDTO.getYear());
         if (artPatchDTO.getClassificationId() != 0) {
             Classification classification = classificationRepository.findById(artPatchDTO.getClassificationId());
             if (classification == null) throw new EntityNotFoundException("Classification not found");
             art.setClassification(classification);
-            cacheService.getClassificationCache().update(classification.getId(), classification);
         }
         if (artPatchDTO.getArtistIds() != null) {
             updateArtists(art, artPatchDTO.getArtistIds());
         }
         Art updatedArt = artRepository.save(art);
-        cacheService.getArtCache().update(id, updatedArt);
-        art.getArtists().forEach(artist -> cacheService.getArtistCache().update(artist.getId(), artist));
-        return convertToDTO(updatedArt);
+        // flush so the DTO carries the @Version bumped by this update
+        artRepository.flush();
+        cacheService.invalidateQueries(updatedArt);
+        ArtDTO dto = convertToDTO(updatedArt);
+        cacheService.refreshArt(dto);
+        return dto;
     }
 
     void updateArtists(Art art, Set<Integer> newArtistIds) {
@@ -289,36 +470,50 @@ public class ArtService implements ArtServiceInterface {
         }
     }
 
+    // Writes every artwork as one line of JSON, in id order, from a single database cursor. The
+    // persistence context is cleared every EXPORT_CHUNK_SIZE rows so memory stays flat however large
+    // the catalogue is; exported arts are not put in the entity cache for the same reason.
     @Transactional(readOnly = true)
-    public List<ArtDTO> getAllArts() {
-        List<Art> arts = artRepository.findAllWithArtistsAndClassification();
-        LOGGER.debug("Arts loaded: {}", arts.size());
-        arts.forEach(art -> {
-            LOGGER.debug("Art {} has {} artists", art.getId(), (art.getArtists() != null ? art.getArtists().size() : "null"));
-            if (art.getArtists() != null) {
-                art.getArtists().forEach(artist -> LOGGER.debug("Artist: {}", artist.getLastName()));
+    public long exportArts(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ArtDTO.class);
+        long written = 0;
+        try (Stream<Art> arts = artRepository.streamAllWithArtistsAndClassification()) {
+            Iterator<Art> iterator = arts.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(convertToDTO(iterator.next())));
+                out.write('\n');
+                if (++written % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
             }
-        });
-        arts.forEach(art -> cacheService.getArtCache().put(art.getId(), art));
-        return arts.stream().map(this::convertToDTO).collect(Collectors.toList());
+        }
+        out.flush();
+        LOGGER.info("Exported {} artworks", written);
+        return written;
+    }
+
+    @Transactional(readOnly = true)
+    public PageDTO<ArtDTO> getArtsPage(String cursor, Integer limit) {
+        return KeysetPages.page(cursor, limit, artRepository::findIdsAfter, cacheService.getArtCache(),
+                ids -> cacheArts(RowAssembler.arts(artRepository.findRowsByIdIn(ids))),
+                ArtDTO::getId);
     }
 
     @Transactional(readOnly = true)
     public ArtDTO getArtById(int id) {
-        Art art = cacheService.getArtCache().get(id)
-                .orElseGet(() -> {
-                    Art foundArt = artRepository.findWithArtistsAndClassificationById(id)
-                            .orElseThrow(() -> new NotFoundException(String.format(ART_NOT_FOUND, id)));
-                    cacheService.getArtCache().put(id, foundArt);
-                    return foundArt;
-                });
-        return convertToDTO(art);
+        return cacheService.getArtCache()
+                .getOrLoad(id, key -> cacheService.isArtAbsent(key)
+                        ? Optional.empty()
+                        : artRepository.findWithArtistsAndClassificationById(key).map(this::convertToDTO))
+                .orElseThrow(() -> new NotFoundException(String.format(ART_NOT_FOUND, id)));
     }
 
     @Transactional
     public ArtDTO updateArt(int id, ArtDTO artDTO) {
         Art art = artRepository.findWithArtistsById(id)
                 .orElseThrow(() -> new NotFoundException(ART_NOT_FOUND + id));
+        cacheService.invalidateQueries(art);
 
         art.setTitle(artDTO.getTitle());
         art.setYear(artDTO.getYear());
@@ -360,62 +555,88 @@ public class ArtService implements ArtServiceInterface {
         }
 
         Art updatedArt = artRepository.save(art);
-        cacheService.getArtCache().update(id, updatedArt);
-        return convertToDTO(updatedArt);
+        artRepository.flush();
+        cacheService.invalidateQueries(updatedArt);
+        ArtDTO dto = convertToDTO(updatedArt);
+        cacheService.refreshArt(dto);
+        return dto;
     }
 
     @Transactional(readOnly = true)
     public List<ArtDTO> getArtsByClassificationId(Integer classificationId) {
-        List<Art> arts = artRepository.findByClassificationId(classificationId);
-        arts.forEach(a -> cacheService.getArtCache().put(a.getId(), a));
+        List<ArtDTO> arts = RowAssembler.arts(artRepository.findRowsByClassificationId(classificationId));
         if (arts.isEmpty()) {
             LOGGER.debug("No artworks found for classification ID: {}", classificationId);
         }
-        return arts.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return cacheArts(arts);
     }
 
     @Transactional(readOnly = true)
     public List<ArtDTO> getArtsByClassificationName(String classificationName) {
-        List<Art> arts = artRepository.findByClassificationNameContainingIgnoreCase(classificationName);
-        arts.forEach(a -> cacheService.getArtCache().put(a.getId(), a));
-        if (arts.isEmpty()) {
-            LOGGER.debug("No artworks found for classification name containing: {}", classificationName);
-        }
-        return arts.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return cacheService.getArtsByClassificationNameCache().get(QueryCache.key(classificationName), () -> {
+            List<ArtDTO> arts = RowAssembler.arts(artRepository.findRowsByClassificationName(classificationName));
+            if (arts.isEmpty()) {
+                LOGGER.debug("No artworks found for classification name containing: {}", classificationName);
+            }
+            return cacheArts(arts);
+        });
     }
 
     @Transactional
     public void deleteArtById(int id) {
         Art art = artRepository.findWithArtistsById(id)
                 .orElseThrow(() -> new NotFoundException(ART_NOT_FOUND + id));
+        cacheService.invalidateQueries(art);
         for (Artist artist : art.getArtists()) {
             artist.getArts().remove(art);
-            cacheService.getArtistCache().update(artist.getId(), artist);
         }
         art.getArtists().clear();
         artRepository.delete(art);
-        cacheService.getArtCache().evict(id);
+        cacheService.invalidateArt(id);
+    }
+
+    @Transactional(readOnly = true)
+    public int warmUpCache(Collection<Integer> ids) {
+        List<Art> arts = artRepository.findAllWithArtistsAndClassificationByIdIn(ids);
+        arts.forEach(this::cacheArt);
+        return arts.size();
     }
 
     public ArtDTO getArtByTitle(String title) {
+        if (cacheService.isArtTitleAbsent(title)) {
+            throw new NotFoundException(ART_NOT_FOUNDSTRING + title);
+        }
         Art art = artRepository.findByTitle(title)
                 .orElseThrow(() -> new NotFoundException(ART_NOT_FOUNDSTRING + title));
         return convertToDTO(art);
     }
 
-    public String getCacheInfo() {
-        return cacheService.getArtCache().getCacheInfo();
+    public CacheStatistics getCacheInfo() {
+        return cacheService.getArtCache().getStats();
     }
 
-    public EntityCache<Art> getArtCache() {
+    public EntityCache<ArtDTO> getArtCache() {
         return cacheService.getArtCache();
     }
 
-    private ArtDTO convertToDTO(Art art) {
+    private List<ArtDTO> cacheArts(List<ArtDTO> arts) {
+        arts.forEach(dto -> cacheService.getArtCache().put(dto.getId(), dto));
+        return arts;
+    }
+
+    private ArtDTO cacheArt(Art art) {
+        ArtDTO dto = convertToDTO(art);
+        cacheService.getArtCache().put(art.getId(), dto);
+        return dto;
+    }
+
+    ArtDTO convertToDTO(Art art) {
         ArtDTO dto = new ArtDTO();
         dto.setId(art.getId());
         dto.setTitle(art.getTitle());
         dto.setYear(art.getYear());
+        dto.setVersion(EntityVersions.of(art) + EntityVersions.ofArtists(art.getArtists())
+                + (art.getClassification() != null ? EntityVersions.of(art.getClassification()) : 0));
 
         if (art.getClassification() != null) {
             ClassificationDTO classificationDTO = new ClassificationDTO();
@@ -435,7 +656,7 @@ public class ArtService implements ArtServiceInterface {
                         artistDTO.setLastName(artist.getLastName());
                         return artistDTO;
                     })
-                    .collect(Collectors.toList());
+                    .toList();
             dto.setArtists(artistDTOs);
         }
 
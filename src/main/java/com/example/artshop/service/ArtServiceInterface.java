@@ -2,8 +2,12 @@ package com.example.artshop.service;
 
 import com.example.artshop.dto.ArtDTO;
 import com.example.artshop.dto.ArtPatchDTO;
-import com.example.artshop.model.Art;
+import com.example.artshop.dto.PageDTO;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
 
 public interface ArtServiceInterface {
@@ -13,7 +17,9 @@ public interface ArtServiceInterface {
 
     ArtDTO patchArt(int id, ArtPatchDTO artPatchDTO);
 
-    List<ArtDTO> getAllArts();
+    PageDTO<ArtDTO> getArtsPage(String cursor, Integer limit);
+
+    long exportArts(OutputStream out) throws IOException;
 
     ArtDTO getArtById(int id);
 
@@ -27,9 +33,11 @@ public interface ArtServiceInterface {
 
     ArtDTO getArtByTitle(String title);
 
-    String getCacheInfo();
+    CacheStatistics getCacheInfo();
 
-    EntityCache<Art> getArtCache();
+    EntityCache<ArtDTO> getArtCache();
 
     List<ArtDTO> addBulkArts(List<ArtDTO> artDTOs);
+
+    int warmUpCache(Collection<Integer> ids);
 }
\ No newline at end of file
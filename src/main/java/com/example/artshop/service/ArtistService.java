@@ -1,19 +1,24 @@
 package com.example.artshop.service;
 
-import com.example.artshop.constants.ApplicationConstants;
+import com.example.artshop.config.BulkProperties;
 import com.example.artshop.dto.ArtistDTO;
 import com.example.artshop.dto.ArtistPatchDTO;
+import com.example.artshop.dto.PageDTO;
 import com.example.artshop.exception.NotFoundException;
 import com.example.artshop.exception.ValidationException;
 import com.example.artshop.model.Art;
 import com.example.artshop.model.Artist;
 import com.example.artshop.repository.ArtistRepository;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.QueryCache;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,13 +29,18 @@ import org.springframework.stereotype.Service;
 public class ArtistService implements ArtistServiceInterface {
     private final ArtistRepository artistRepository;
     private final CacheService cacheService;
+    private final EntityManager entityManager;
+    private final BulkProperties bulkProperties;
     private static final Logger LOGGER = LoggerFactory.getLogger(ArtistService.class);
     public static final String ARTIST_NOT_FOUND = "Artist not found with id: ";
 
     @Autowired
-    public ArtistService(ArtistRepository artistRepository, CacheService cacheService) {
+    public ArtistService(ArtistRepository artistRepository, CacheService cacheService,
+                         EntityManager entityManager, BulkProperties bulkProperties) {
         this.artistRepository = artistRepository;
         this.cacheService = cacheService;
+        this.entityManager = entityManager;
+        this.bulkProperties = bulkProperties;
     }
 
     @Transactional
@@ -38,31 +48,46 @@ public class ArtistService implements ArtistServiceInterface {
         if (artistDTOs == null || artistDTOs.isEmpty()) {
             throw new ValidationException("Artist list cannot be null or empty");
         }
-        if (artistDTOs.size() > ApplicationConstants.MAX_BULK_OPERATION_SIZE) {
+        if (artistDTOs.size() > bulkProperties.getMaxSize()) {
             throw new ValidationException("Cannot add more than " +
-                    ApplicationConstants.MAX_BULK_OPERATION_SIZE + " artists at once");
+                    bulkProperties.getMaxSize() + " artists at once");
         }
-        return artistDTOs.stream()
-                .peek(dto -> {
-                    if ((dto.getFirstName() == null || dto.getFirstName().trim().isEmpty()) &&
-                            (dto.getLastName() == null || dto.getLastName().trim().isEmpty())) {
-                        throw new ValidationException("Artist must have at least first name or last name");
-                    }
-                })
-                .map(this::createArtist)
-                .collect(Collectors.toList());
+        artistDTOs.forEach(this::validateArtist);
+
+        // query caches are invalidated once per chunk, before the chunk leaves the persistence context
+        List<ArtistDTO> saved = new ArrayList<>(artistDTOs.size());
+        int interval = Math.max(1, bulkProperties.getFlushInterval());
+        for (int from = 0; from < artistDTOs.size(); from += interval) {
+            List<Artist> chunk = new ArrayList<>();
+            for (ArtistDTO dto : artistDTOs.subList(from, Math.min(from + interval, artistDTOs.size()))) {
+                chunk.add(artistRepository.save(newArtist(dto)));
+            }
+            cacheService.invalidateArtistQueries(chunk);
+            chunk.forEach(artist -> saved.add(cacheArtist(artist)));
+            if (from + interval < artistDTOs.size()) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return saved;
     }
 
     @Transactional
     public List<ArtistDTO> getArtistsByArtTitle(String artTitle) {
-        List<Artist> artists = artistRepository.findByArtTitleContaining(artTitle);
-        artists.forEach(artist -> cacheService.getArtistCache().put(artist.getId(), artist));
+        List<ArtistDTO> artists = RowAssembler.artists(artistRepository.findRowsByArtTitle(artTitle));
         if (artists.isEmpty()) LOGGER.warn("No artists found for artwork title: {}", artTitle);
-        return artists.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return cacheArtists(artists);
     }
 
     @Transactional
     public ArtistDTO createArtist(ArtistDTO artistDTO) {
+        validateArtist(artistDTO);
+        Artist savedArtist = artistRepository.save(newArtist(artistDTO));
+        cacheService.invalidateQueries(savedArtist);
+        return cacheArtist(savedArtist);
+    }
+
+    private void validateArtist(ArtistDTO artistDTO) {
         if (artistDTO == null) {
             throw new ValidationException("Artist data cannot be null");
         }
@@ -79,33 +104,27 @@ public class ArtistService implements ArtistServiceInterface {
         if (artistDTO.getLastName() != null && artistDTO.getLastName().length() > 60) {
             throw new ValidationException("Last name must be 60 characters or less");
         }
+    }
 
+    private static Artist newArtist(ArtistDTO artistDTO) {
         Artist artist = new Artist();
         artist.setFirstName(artistDTO.getFirstName());
         artist.setMiddleName(artistDTO.getMiddleName());
         artist.setLastName(artistDTO.getLastName());
-        Artist savedArtist = artistRepository.save(artist);
-        cacheService.getArtistCache().put(savedArtist.getId(), savedArtist);
-        return convertToDTO(savedArtist);
+        return artist;
     }
 
     @Transactional
-    public List<ArtistDTO> getAllArtists() {
-        List<Artist> artists = artistRepository.findAllWithArts();
-        LOGGER.debug("Artists loaded: {}", artists.size());
-        artists.forEach(artist -> cacheService.getArtistCache().put(artist.getId(), artist));
-        return artists.stream().map(this::convertToDTO).collect(Collectors.toList());
+    public PageDTO<ArtistDTO> getArtistsPage(String cursor, Integer limit) {
+        return KeysetPages.page(cursor, limit, artistRepository::findIdsAfter, cacheService.getArtistCache(),
+                ids -> cacheArtists(RowAssembler.artists(artistRepository.findRowsByIdIn(ids))),
+                ArtistDTO::getId);
     }
 
     @Transactional
     public Optional<ArtistDTO> getArtistById(Integer id) {
-        return cacheService.getArtistCache().get(id)
-                .map(this::convertToDTO)
-                .or(() -> {
-                    Optional<Artist> artist = artistRepository.findWithArtsById(id);
-                    artist.ifPresent(a -> cacheService.getArtistCache().put(a.getId(), a));
-                    return artist.map(this::convertToDTO);
-                });
+        return cacheService.getArtistCache()
+                .getOrLoad(id, key -> artistRepository.findWithArtsById(key).map(this::convertToDTO));
     }
 
     @Transactional
@@ -116,38 +135,34 @@ public class ArtistService implements ArtistServiceInterface {
         artist.setMiddleName(artistDTO.getMiddleName());
         artist.setLastName(artistDTO.getLastName());
         Artist updatedArtist = artistRepository.save(artist);
-        cacheService.getArtistCache().update(id, updatedArtist);
-        artist.getArts().forEach(art -> cacheService.getArtCache().update(art.getId(), art));
-        return convertToDTO(updatedArtist);
+        // flush so the DTO carries the @Version bumped by this update
+        artistRepository.flush();
+        cacheService.invalidateQueries(updatedArtist);
+        ArtistDTO dto = convertToDTO(updatedArtist);
+        cacheService.refreshArtist(dto);
+        return dto;
     }
 
     @Transactional
     public void deleteArtist(Integer id) {
         Artist artist = artistRepository.findWithArtsById(id)
                 .orElseThrow(() -> new NotFoundException(ARTIST_NOT_FOUND + id));
-        artist.getArts().forEach(art -> {
-            art.getArtists().remove(artist);
-            cacheService.getArtCache().update(art.getId(), art);
-        });
+        cacheService.invalidateQueries(artist);
+        artist.getArts().forEach(art -> art.getArtists().remove(artist));
         artistRepository.delete(artist);
-        cacheService.getArtistCache().evict(id);
+        cacheService.invalidateArtist(id);
     }
 
     @Transactional
     public List<ArtistDTO> searchArtists(String firstName, String lastName) {
-        List<Artist> artists;
-        if (firstName != null && lastName != null) {
-            artists = artistRepository
-                    .findByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase(firstName, lastName);
-        } else if (firstName != null) {
-            artists = artistRepository.findByFirstNameContainingIgnoreCase(firstName);
-        } else if (lastName != null) {
-            artists = artistRepository.findByLastNameContainingIgnoreCase(lastName);
-        } else {
-            artists = Collections.emptyList();
+        if (firstName == null && lastName == null) {
+            return Collections.emptyList();
         }
-        artists.forEach(artist -> cacheService.getArtistCache().put(artist.getId(), artist));
-        return artists.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return cacheService.getArtistSearchCache().get(QueryCache.key(firstName, lastName), () -> {
+            // a missing name matches everything, including artists without that name
+            return cacheArtists(RowAssembler.artists(artistRepository.findRowsByName(
+                    firstName != null ? firstName : "", lastName != null ? lastName : "")));
+        });
     }
 
     @Transactional
@@ -159,31 +174,53 @@ public class ArtistService implements ArtistServiceInterface {
         if (artistPatchDTO.getMiddleName() != null) artist.setMiddleName(artistPatchDTO.getMiddleName());
         if (artistPatchDTO.getLastName() != null) artist.setLastName(artistPatchDTO.getLastName());
         Artist patchedArtist = artistRepository.save(artist);
-        cacheService.getArtistCache().update(id, patchedArtist);
-        artist.getArts().forEach(art -> cacheService.getArtCache().update(art.getId(), art));
-        return convertToDTO(patchedArtist);
+        artistRepository.flush();
+        cacheService.invalidateQueries(patchedArtist);
+        ArtistDTO dto = convertToDTO(patchedArtist);
+        cacheService.refreshArtist(dto);
+        return dto;
     }
 
-    public String getCacheInfo() {
-        return cacheService.getArtistCache().getCacheInfo();
+    @Transactional
+    public int warmUpCache(Collection<Integer> ids) {
+        List<Artist> artists = artistRepository.findAllWithArtsByIdIn(ids);
+        artists.forEach(this::cacheArtist);
+        return artists.size();
+    }
+
+    public CacheStatistics getCacheInfo() {
+        return cacheService.getArtistCache().getStats();
     }
 
-    public EntityCache<Artist> getArtistCache() {
+    public EntityCache<ArtistDTO> getArtistCache() {
         return cacheService.getArtistCache();
     }
 
+    private List<ArtistDTO> cacheArtists(List<ArtistDTO> artists) {
+        artists.forEach(dto -> cacheService.getArtistCache().put(dto.getId(), dto));
+        return artists;
+    }
+
+    private ArtistDTO cacheArtist(Artist artist) {
+        ArtistDTO dto = convertToDTO(artist);
+        cacheService.getArtistCache().put(artist.getId(), dto);
+        return dto;
+    }
+
     private ArtistDTO convertToDTO(Artist artist) {
         ArtistDTO dto = new ArtistDTO();
         dto.setId(artist.getId());
         dto.setFirstName(artist.getFirstName());
         dto.setMiddleName(artist.getMiddleName());
         dto.setLastName(artist.getLastName());
+        dto.setVersion(EntityVersions.of(artist) + EntityVersions.ofArts(artist.getArts()));
 
         if (artist.getArts() != null && !artist.getArts().isEmpty()) {
             List<String> titles = artist.getArts().stream()
                     .map(Art::getTitle)
-                    .collect(Collectors.toList());
+                    .toList();
             dto.setArtworkTitles(titles);
+            dto.setArtworkIds(artist.getArts().stream().map(Art::getId).toList());
             dto.setArtworkCount(titles.size());
         } else {
             dto.setArtworkCount(0);
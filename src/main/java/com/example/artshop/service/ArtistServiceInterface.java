@@ -2,8 +2,10 @@ package com.example.artshop.service;
 
 import com.example.artshop.dto.ArtistDTO;
 import com.example.artshop.dto.ArtistPatchDTO;
-import com.example.artshop.model.Artist;
+import com.example.artshop.dto.PageDTO;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +14,7 @@ public interface ArtistServiceInterface {
 
     ArtistDTO createArtist(ArtistDTO artistDTO);
 
-    List<ArtistDTO> getAllArtists();
+    PageDTO<ArtistDTO> getArtistsPage(String cursor, Integer limit);
 
     Optional<ArtistDTO> getArtistById(Integer id);
 
@@ -24,9 +26,11 @@ public interface ArtistServiceInterface {
 
     ArtistDTO patchArtist(Integer id, ArtistPatchDTO artistPatchDTO);
 
-    String getCacheInfo();
+    CacheStatistics getCacheInfo();
 
-    EntityCache<Artist> getArtistCache();
+    EntityCache<ArtistDTO> getArtistCache();
 
     List<ArtistDTO> addBulkArtists(List<ArtistDTO> artistDTOs);
+
+    int warmUpCache(Collection<Integer> ids);
 }
\ No newline at end of file
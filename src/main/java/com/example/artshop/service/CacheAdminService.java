@@ -0,0 +1,279 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.CacheKeyPageDTO;
+import com.example.artshop.dto.CacheSettingsDTO;
+import com.example.artshop.exception.NotFoundException;
+import com.example.artshop.exception.ValidationException;
+import com.example.artshop.service.cache.CacheStatistics;
+import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.HotKey;
+import com.example.artshop.service.cache.QueryCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+// Runtime operations on the caches of CacheService. Caches are addressed by name, case-insensitively.
+// Keys are entity ids for entity caches and the query terms joined by '|' for query caches.
+@Service
+public class CacheAdminService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheAdminService.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String CACHE_NOT_FOUND = "Cache not found: ";
+    private static final String KEY_SEPARATOR = "|";
+
+    private final CacheService cacheService;
+    private final ArtService artService;
+    private final ArtistService artistService;
+    private final ClassificationService classificationService;
+    private final int warmUpBatchSize;
+
+    public CacheAdminService(CacheService cacheService, ArtService artService, ArtistService artistService,
+                             ClassificationService classificationService, CacheProperties cacheProperties) {
+        this.cacheService = cacheService;
+        this.artService = artService;
+        this.artistService = artistService;
+        this.classificationService = classificationService;
+        this.warmUpBatchSize = Math.max(1, cacheProperties.getWarmUp().getBatchSize());
+    }
+
+    public List<CacheStatistics> getCaches() {
+        return Stream.concat(cacheService.getEntityCaches().stream().map(EntityCache::getStats),
+                cacheService.getQueryCaches().stream().map(QueryCache::getStats)).toList();
+    }
+
+    public CacheStatistics getCache(String name) {
+        EntityCache<?> entityCache = findEntityCache(name);
+        return entityCache != null ? entityCache.getStats() : queryCache(name).getStats();
+    }
+
+    public List<HotKey> getHotKeys(String name) {
+        EntityCache<?> entityCache = findEntityCache(name);
+        if (entityCache == null) {
+            queryCache(name);
+            throw new ValidationException("Hot keys are only tracked by entity caches");
+        }
+        return entityCache.hotKeys();
+    }
+
+    public CacheSettingsDTO getSettings(String name) {
+        EntityCache<?> entityCache = findEntityCache(name);
+        if (entityCache != null) {
+            return new CacheSettingsDTO(entityCache.getConfiguredCapacity(), entityCache.getExpireAfterWrite(),
+                    entityCache.getExpireAfterAccess());
+        }
+        QueryCache<?> queryCache = queryCache(name);
+        return new CacheSettingsDTO(queryCache.getCapacity(), queryCache.getExpireAfterWrite(), null);
+    }
+
+    public CacheSettingsDTO updateSettings(String name, CacheSettingsDTO settings) {
+        if (settings == null || !settings.hasUpdates()) {
+            throw new ValidationException("No cache settings to update");
+        }
+        if (settings.getMaxEntries() != null && settings.getMaxEntries() <= 0) {
+            throw new ValidationException("Cache capacity must be positive");
+        }
+        if (isNegative(settings.getExpireAfterWrite()) || isNegative(settings.getExpireAfterAccess())) {
+            throw new ValidationException("Cache expiry cannot be negative");
+        }
+        EntityCache<?> entityCache = findEntityCache(name);
+        if (entityCache != null) {
+            if (settings.getMaxEntries() != null) {
+                entityCache.setCapacity(settings.getMaxEntries());
+            }
+            if (settings.getExpireAfterWrite() != null || settings.getExpireAfterAccess() != null) {
+                entityCache.setExpiry(
+                        orElse(settings.getExpireAfterWrite(), entityCache.getExpireAfterWrite()),
+                        orElse(settings.getExpireAfterAccess(), entityCache.getExpireAfterAccess()));
+            }
+        } else {
+            QueryCache<?> queryCache = queryCache(name);
+            if (settings.getExpireAfterAccess() != null) {
+                throw new ValidationException("Query caches only expire after write");
+            }
+            if (settings.getMaxEntries() != null) {
+                queryCache.setCapacity(settings.getMaxEntries());
+            }
+            if (settings.getExpireAfterWrite() != null) {
+                queryCache.setExpireAfterWrite(settings.getExpireAfterWrite());
+            }
+        }
+        CacheSettingsDTO updated = getSettings(name);
+        LOGGER.info("Cache {} settings changed: maxEntries={}, expireAfterWrite={}, expireAfterAccess={}", name,
+                updated.getMaxEntries(), updated.getExpireAfterWrite(), updated.getExpireAfterAccess());
+        return updated;
+    }
+
+    public CacheKeyPageDTO getKeys(String name, int offset, int limit) {
+        if (offset < 0 || limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Offset must not be negative and limit must be between 1 and "
+                    + MAX_PAGE_SIZE);
+        }
+        List<String> keys = keysOf(name);
+        int from = Math.min(offset, keys.size());
+        int to = Math.min(keys.size(), from + limit);
+        return new CacheKeyPageDTO(name, keys.size(), offset, List.copyOf(keys.subList(from, to)));
+    }
+
+    public void evict(String name, String key) {
+        EntityCache<?> entityCache = findEntityCache(name);
+        if (entityCache != null) {
+            cacheService.invalidate(entityCache, parseId(key));
+        } else {
+            queryCache(name).invalidateMatching(terms -> String.join(KEY_SEPARATOR, terms).equals(key));
+        }
+        LOGGER.info("Cache {} key {} evicted by administrator", name, key);
+    }
+
+    // '*' matches any run of characters and '?' a single one, e.g. "12*" or "van*"
+    public int evictMatching(String name, String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            throw new ValidationException("Eviction pattern must not be empty");
+        }
+        Pattern regex = globToRegex(pattern);
+        EntityCache<?> entityCache = findEntityCache(name);
+        int evicted;
+        if (entityCache != null) {
+            List<Integer> ids = entityCache.keys().stream()
+                    .filter(id -> regex.matcher(String.valueOf(id)).matches())
+                    .toList();
+            ids.forEach(id -> cacheService.invalidate(entityCache, id));
+            evicted = ids.size();
+        } else {
+            QueryCache<?> queryCache = queryCache(name);
+            evicted = (int) queryCache.keys().stream()
+                    .filter(terms -> regex.matcher(String.join(KEY_SEPARATOR, terms)).matches())
+                    .count();
+            queryCache.invalidateMatching(terms -> regex.matcher(String.join(KEY_SEPARATOR, terms)).matches());
+        }
+        LOGGER.info("Cache {} evicted {} keys matching {}", name, evicted, pattern);
+        return evicted;
+    }
+
+    public void clear(String name) {
+        EntityCache<?> entityCache = findEntityCache(name);
+        if (entityCache != null) {
+            entityCache.clear();
+        } else {
+            queryCache(name).clear();
+        }
+    }
+
+    // loads the ids that are not cached yet; returns how many were found in the database
+    public int warm(String name, List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("No ids to warm");
+        }
+        EntityCache<?> cache = findEntityCache(name);
+        ToIntFunction<List<Integer>> loader = loaderFor(cache);
+        if (loader == null) {
+            if (cache == null && findQueryCache(name) == null) {
+                throw new NotFoundException(CACHE_NOT_FOUND + name);
+            }
+            throw new ValidationException("Cache " + name + " cannot be warmed by id");
+        }
+        Set<Integer> missing = new LinkedHashSet<>();
+        for (Integer id : ids) {
+            if (id != null && !cache.contains(id)) {
+                missing.add(id);
+            }
+        }
+        List<Integer> toLoad = new ArrayList<>(missing);
+        int loaded = 0;
+        for (int from = 0; from < toLoad.size(); from += warmUpBatchSize) {
+            loaded += loader.applyAsInt(toLoad.subList(from, Math.min(from + warmUpBatchSize, toLoad.size())));
+        }
+        LOGGER.info("Cache {} warmed with {} of {} requested ids", name, loaded, ids.size());
+        return loaded;
+    }
+
+    private ToIntFunction<List<Integer>> loaderFor(EntityCache<?> cache) {
+        if (cache == null) {
+            return null;
+        }
+        if (cache == cacheService.getArtCache()) {
+            return artService::warmUpCache;
+        }
+        if (cache == cacheService.getArtistCache()) {
+            return artistService::warmUpCache;
+        }
+        if (cache == cacheService.getClassificationCache()) {
+            return classificationService::warmUpCache;
+        }
+        return null;
+    }
+
+    private List<String> keysOf(String name) {
+        EntityCache<?> entityCache = findEntityCache(name);
+        if (entityCache != null) {
+            return entityCache.keys().stream().map(String::valueOf).toList();
+        }
+        return queryCache(name).keys().stream().map(terms -> String.join(KEY_SEPARATOR, terms)).toList();
+    }
+
+    private EntityCache<?> findEntityCache(String name) {
+        return cacheService.getEntityCaches().stream()
+                .filter(cache -> cache.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private QueryCache<?> findQueryCache(String name) {
+        return cacheService.getQueryCaches().stream()
+                .filter(cache -> cache.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private QueryCache<?> queryCache(String name) {
+        QueryCache<?> cache = findQueryCache(name);
+        if (cache == null) {
+            throw new NotFoundException(CACHE_NOT_FOUND + name);
+        }
+        return cache;
+    }
+
+    private static int parseId(String key) {
+        try {
+            return Integer.parseInt(key.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Entity cache keys are integer ids, got: " + key);
+        }
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static boolean isNegative(Duration duration) {
+        return duration != null && duration.isNegative();
+    }
+
+    private static Duration orElse(Duration value, Duration fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.artshop.service;
+
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.ClassificationDTO;
+import com.example.artshop.service.cache.CacheCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CacheCodecs {
+    public static final CacheCodec<ArtistDTO> ARTIST = new CacheCodec<>() {
+        @Override
+        public void write(DataOutput out, ArtistDTO artist) throws IOException {
+            writeInteger(out, artist.getId());
+            writeString(out, artist.getFirstName());
+            writeString(out, artist.getMiddleName());
+            writeString(out, artist.getLastName());
+            writeStrings(out, artist.getArtworkTitles());
+            writeInteger(out, artist.getArtworkCount());
+            writeIntegers(out, artist.getArtworkIds());
+            writeLong(out, artist.getVersion());
+        }
+
+        @Override
+        public ArtistDTO read(DataInput in) throws IOException {
+            ArtistDTO artist = new ArtistDTO();
+            artist.setId(readInteger(in));
+            artist.setFirstName(readString(in));
+            artist.setMiddleName(readString(in));
+            artist.setLastName(readString(in));
+            artist.setArtworkTitles(readStrings(in));
+            artist.setArtworkCount(readInteger(in));
+            artist.setArtworkIds(readIntegers(in));
+            artist.setVersion(readLong(in));
+            return artist;
+        }
+    };
+
+    public static final CacheCodec<ClassificationDTO> CLASSIFICATION = new CacheCodec<>() {
+        @Override
+        public void write(DataOutput out, ClassificationDTO classification) throws IOException {
+            writeInteger(out, classification.getId());
+            writeString(out, classification.getName());
+            writeString(out, classification.getDescription());
+            writeStrings(out, classification.getArtworkTitles());
+            writeInteger(out, classification.getArtworkCount());
+            writeIntegers(out, classification.getArtworkIds());
+            writeLong(out, classification.getVersion());
+        }
+
+        @Override
+        public ClassificationDTO read(DataInput in) throws IOException {
+            ClassificationDTO classification = new ClassificationDTO();
+            classification.setId(readInteger(in));
+            classification.setName(readString(in));
+            classification.setDescription(readString(in));
+            classification.setArtworkTitles(readStrings(in));
+            classification.setArtworkCount(readInteger(in));
+            classification.setArtworkIds(readIntegers(in));
+            classification.setVersion(readLong(in));
+            return classification;
+        }
+    };
+
+    public static final CacheCodec<ArtDTO> ART = new CacheCodec<>() {
+        @Override
+        public void write(DataOutput out, ArtDTO art) throws IOException {
+            writeInteger(out, art.getId());
+            writeString(out, art.getTitle());
+            writeInteger(out, art.getYear());
+            writeLong(out, art.getVersion());
+            List<ArtistDTO> artists = art.getArtists();
+            out.writeInt(artists == null ? -1 : artists.size());
+            if (artists != null) {
+                for (ArtistDTO artist : artists) {
+                    ARTIST.write(out, artist);
+                }
+            }
+            out.writeBoolean(art.getClassification() != null);
+            if (art.getClassification() != null) {
+                CLASSIFICATION.write(out, art.getClassification());
+            }
+        }
+
+        @Override
+        public ArtDTO read(DataInput in) throws IOException {
+            ArtDTO art = new ArtDTO();
+            art.setId(readInteger(in));
+            art.setTitle(readString(in));
+            art.setYear(readInteger(in));
+            art.setVersion(readLong(in));
+            int artistCount = in.readInt();
+            if (artistCount >= 0) {
+                List<ArtistDTO> artists = new ArrayList<>(artistCount);
+                for (int i = 0; i < artistCount; i++) {
+                    artists.add(ARTIST.read(in));
+                }
+                art.setArtists(artists);
+            }
+            if (in.readBoolean()) {
+                art.setClassification(CLASSIFICATION.read(in));
+            }
+            return art;
+        }
+    };
+
+    private CacheCodecs() {
+    }
+
+    private static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeIntegers(DataOutput out, List<Integer> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (Integer value : values) {
+                writeInteger(out, value);
+            }
+        }
+    }
+
+    private static List<Integer> readIntegers(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readInteger(in));
+        }
+        return values;
+    }
+}
@@ -1,28 +1,610 @@
 package com.example.artshop.service;
 
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.ClassificationDTO;
+import com.example.artshop.interceptor.StaleResponseAdvice;
 import com.example.artshop.model.Art;
 import com.example.artshop.model.Artist;
 import com.example.artshop.model.Classification;
+import com.example.artshop.service.cache.CacheCodec;
+import com.example.artshop.service.cache.CacheListener;
+import com.example.artshop.service.cache.CacheSettings;
+import com.example.artshop.service.cache.CacheSnapshot;
+import com.example.artshop.service.cache.CircuitBreaker;
+import com.example.artshop.service.cache.ChangeCounter;
+import com.example.artshop.service.cache.DependencyGraph;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.ExistenceFilter;
+import com.example.artshop.service.cache.MemoryPressureMonitor;
+import com.example.artshop.service.cache.OffHeapStore;
+import com.example.artshop.service.cache.QueryCache;
+import com.example.artshop.service.cache.RenderedResponse;
+import com.example.artshop.service.cache.StalePolicy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class CacheService {
-    private final EntityCache<Artist> artistCache = new EntityCache<>("Artist");
+    private static final int OBJECT_OVERHEAD = 64;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheService.class);
 
-    private final EntityCache<Art> artCache = new EntityCache<>("Art");
+    private final EntityCache<ArtistDTO> artistCache;
 
-    private final EntityCache<Classification> classificationCache = new EntityCache<>("Classification");
+    private final EntityCache<ArtDTO> artCache;
 
-    public EntityCache<Artist> getArtistCache() {
+    private final EntityCache<ClassificationDTO> classificationCache;
+
+    private final QueryCache<ArtDTO> artsByArtistNameCache;
+
+    private final QueryCache<ArtDTO> artsByClassificationNameCache;
+
+    private final QueryCache<ArtistDTO> artistSearchCache;
+
+    private final QueryCache<ClassificationDTO> classificationsByNameCache;
+
+    private final EntityCache<RenderedResponse> artResponseCache;
+
+    private final EntityCache<RenderedResponse> artistResponseCache;
+
+    private final EntityCache<RenderedResponse> classificationResponseCache;
+
+    private final DependencyGraph dependencies = new DependencyGraph();
+
+    private final ChangeCounter catalogueChanges = new ChangeCounter();
+
+    private final ExistenceFilter artIds;
+
+    private final ExistenceFilter artTitles;
+
+    private final ExistenceFilter classificationIds;
+
+    private final MemoryPressureMonitor memoryPressureMonitor;
+
+    private final CircuitBreaker databaseBreaker;
+
+    private final ExecutorService refreshExecutor;
+
+    private final ExecutorService revalidationExecutor;
+
+    private final CacheProperties cacheProperties;
+
+    public CacheService() {
+        this(new CacheProperties());
+    }
+
+    public CacheService(CacheProperties cacheProperties) {
+        this(cacheProperties, null);
+    }
+
+    @Autowired
+    public CacheService(CacheProperties cacheProperties, PlatformTransactionManager transactionManager) {
+        this.cacheProperties = cacheProperties;
+        this.artistCache = new EntityCache<>("Artist", cacheProperties.getArtist(), CacheService::weighArtist);
+        this.artCache = new EntityCache<>("Art", cacheProperties.getArt(), CacheService::weighArt);
+        this.classificationCache = new EntityCache<>("Classification",
+                cacheProperties.getClassification(), CacheService::weighClassification);
+        this.artsByArtistNameCache = new QueryCache<>("ArtsByArtistName", cacheProperties.getQuery(), ArtDTO::getId);
+        this.artsByClassificationNameCache = new QueryCache<>("ArtsByClassificationName",
+                cacheProperties.getQuery(), ArtDTO::getId);
+        this.artistSearchCache = new QueryCache<>("ArtistSearch", cacheProperties.getQuery(), ArtistDTO::getId);
+        this.classificationsByNameCache = new QueryCache<>("ClassificationsByName",
+                cacheProperties.getQuery(), ClassificationDTO::getId);
+        this.artResponseCache = new EntityCache<>("ArtResponse", cacheProperties.getResponse(),
+                CacheService::weighResponse);
+        this.artistResponseCache = new EntityCache<>("ArtistResponse", cacheProperties.getResponse(),
+                CacheService::weighResponse);
+        this.classificationResponseCache = new EntityCache<>("ClassificationResponse", cacheProperties.getResponse(),
+                CacheService::weighResponse);
+        CacheProperties.Existence existence = cacheProperties.getExistence();
+        this.artIds = new ExistenceFilter("ArtIds", existence.getExpectedInsertions(),
+                existence.getFalsePositiveRate());
+        this.artTitles = new ExistenceFilter("ArtTitles", existence.getExpectedInsertions(),
+                existence.getFalsePositiveRate());
+        this.classificationIds = new ExistenceFilter("ClassificationIds", existence.getExpectedInsertions(),
+                existence.getFalsePositiveRate());
+        CacheProperties.MemoryPressure memoryPressure = cacheProperties.getMemoryPressure();
+        this.memoryPressureMonitor = new MemoryPressureMonitor(List.of(artCache, artistCache, classificationCache,
+                artResponseCache, artistResponseCache, classificationResponseCache),
+                memoryPressure.getHighWatermark(), memoryPressure.getLowWatermark(), memoryPressure.getMinScale());
+        CacheProperties.Stale stale = cacheProperties.getStale();
+        this.databaseBreaker = new CircuitBreaker("Database", stale.getFailureThreshold(), stale.getOpenDuration());
+        this.refreshExecutor = stale.isEnabled()
+                ? boundedExecutor("cache-refresh-", stale.getRefreshThreads(), new ThreadPoolExecutor.AbortPolicy())
+                : null;
+        if (refreshExecutor != null) {
+            StalePolicy policy = new StalePolicy(stale.getMaxStale(), stale.getLatencyBudget(), databaseBreaker,
+                    refreshExecutor, StaleResponseAdvice::markStale);
+            artCache.setStalePolicy(policy);
+            artistCache.setStalePolicy(policy);
+            classificationCache.setStalePolicy(policy);
+            artsByArtistNameCache.setStalePolicy(policy);
+            artsByClassificationNameCache.setStalePolicy(policy);
+            artistSearchCache.setStalePolicy(policy);
+            classificationsByNameCache.setStalePolicy(policy);
+        }
+        CacheProperties.Snapshot snapshot = cacheProperties.getSnapshot();
+        // a full queue makes the reader revalidate the entry itself rather than skip the check
+        this.revalidationExecutor = snapshot.isEnabled()
+                ? boundedExecutor("cache-revalidate-", snapshot.getRevalidationThreads(),
+                        new ThreadPoolExecutor.CallerRunsPolicy())
+                : null;
+        if (revalidationExecutor != null) {
+            Executor revalidator = readOnlyTransactions(revalidationExecutor, transactionManager);
+            artCache.setRevalidator(revalidator);
+            artistCache.setRevalidator(revalidator);
+            classificationCache.setRevalidator(revalidator);
+        }
+        artCache.setFreezer(ArtDTO::freeze);
+        artistCache.setFreezer(ArtistDTO::freeze);
+        classificationCache.setFreezer(ClassificationDTO::freeze);
+        addSecondTier(artCache, cacheProperties.getArt(), CacheCodecs.ART);
+        addSecondTier(artistCache, cacheProperties.getArtist(), CacheCodecs.ARTIST);
+
+        artCache.setListener(trackDependencies(artCache, artResponseCache, art -> {
+            Set<DependencyGraph.Key> keys = new HashSet<>();
+            if (art.getArtists() != null) {
+                art.getArtists().forEach(artist -> keys.add(new DependencyGraph.Key(artistCache, artist.getId())));
+            }
+            if (art.getClassification() != null) {
+                keys.add(new DependencyGraph.Key(classificationCache, art.getClassification().getId()));
+            }
+            return keys;
+        }));
+        artistCache.setListener(trackDependencies(artistCache, artistResponseCache,
+                artist -> artKeys(artist.getArtworkIds())));
+        classificationCache.setListener(trackDependencies(classificationCache, classificationResponseCache,
+                classification -> artKeys(classification.getArtworkIds())));
+    }
+
+    private static ExecutorService boundedExecutor(String threadName, int threads, RejectedExecutionHandler onFull) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1000), task -> {
+                    Thread thread = new Thread(task, threadName + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, onFull);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // the loaders are repository calls that map lazy associations, so off a request thread they need
+    // a transaction of their own
+    private static Executor readOnlyTransactions(Executor executor, PlatformTransactionManager transactionManager) {
+        if (transactionManager == null) {
+            return executor;
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return task -> executor.execute(() -> readOnly.executeWithoutResult(status -> task.run()));
+    }
+
+    private static <T> void addSecondTier(EntityCache<T> cache, CacheSettings settings, CacheCodec<T> codec) {
+        if (settings.getOffHeapBytes() > 0) {
+            cache.setSecondTier(new OffHeapStore<>(cache.getName(), settings.getOffHeapBytes(), codec));
+        }
+    }
+
+    // a rendered response lives no longer than the cached DTO it was rendered from
+    private <T> CacheListener<T> trackDependencies(EntityCache<T> cache, EntityCache<RenderedResponse> responses,
+                                                   Function<T, Set<DependencyGraph.Key>> edges) {
+        return new CacheListener<>() {
+            @Override
+            public void onStore(Integer id, T value) {
+                dependencies.record(new DependencyGraph.Key(cache, id), edges.apply(value));
+                responses.discard(id);
+            }
+
+            @Override
+            public void onRemove(Integer id) {
+                dependencies.remove(new DependencyGraph.Key(cache, id));
+                responses.discard(id);
+            }
+        };
+    }
+
+    private Set<DependencyGraph.Key> artKeys(List<Integer> artIds) {
+        if (artIds == null) {
+            return Set.of();
+        }
+        return artIds.stream().map(id -> new DependencyGraph.Key(artCache, id)).collect(Collectors.toSet());
+    }
+
+    public EntityCache<ArtistDTO> getArtistCache() {
         return artistCache;
     }
 
-    public EntityCache<Art> getArtCache() {
+    public EntityCache<ArtDTO> getArtCache() {
         return artCache;
     }
 
-    public EntityCache<Classification> getClassificationCache() {
+    public EntityCache<ClassificationDTO> getClassificationCache() {
         return classificationCache;
     }
-}
\ No newline at end of file
+
+    public EntityCache<RenderedResponse> getArtResponseCache() {
+        return artResponseCache;
+    }
+
+    public EntityCache<RenderedResponse> getArtistResponseCache() {
+        return artistResponseCache;
+    }
+
+    public EntityCache<RenderedResponse> getClassificationResponseCache() {
+        return classificationResponseCache;
+    }
+
+    public ExistenceFilter getArtIdFilter() {
+        return artIds;
+    }
+
+    public ExistenceFilter getArtTitleFilter() {
+        return artTitles;
+    }
+
+    public ExistenceFilter getClassificationIdFilter() {
+        return classificationIds;
+    }
+
+    public boolean isArtAbsent(int id) {
+        return !artIds.mightContain(ExistenceFilter.hash(id));
+    }
+
+    public boolean isArtTitleAbsent(String title) {
+        return title != null && !artTitles.mightContain(ExistenceFilter.hash(title));
+    }
+
+    public boolean isClassificationAbsent(int id) {
+        return !classificationIds.mightContain(ExistenceFilter.hash(id));
+    }
+
+    public ChangeCounter getCatalogueChanges() {
+        return catalogueChanges;
+    }
+
+    public QueryCache<ArtDTO> getArtsByArtistNameCache() {
+        return artsByArtistNameCache;
+    }
+
+    public QueryCache<ArtDTO> getArtsByClassificationNameCache() {
+        return artsByClassificationNameCache;
+    }
+
+    public QueryCache<ArtistDTO> getArtistSearchCache() {
+        return artistSearchCache;
+    }
+
+    public QueryCache<ClassificationDTO> getClassificationsByNameCache() {
+        return classificationsByNameCache;
+    }
+
+    public List<EntityCache<?>> getEntityCaches() {
+        return List.of(artCache, artistCache, classificationCache, artResponseCache, artistResponseCache,
+                classificationResponseCache);
+    }
+
+    public List<QueryCache<?>> getQueryCaches() {
+        return List.of(artsByArtistNameCache, artsByClassificationNameCache, artistSearchCache,
+                classificationsByNameCache);
+    }
+
+    public MemoryPressureMonitor getMemoryPressureMonitor() {
+        return memoryPressureMonitor;
+    }
+
+    @PostConstruct
+    public void startMemoryMonitor() {
+        if (cacheProperties.getMemoryPressure().isEnabled()) {
+            memoryPressureMonitor.start();
+        }
+    }
+
+    public CircuitBreaker getDatabaseBreaker() {
+        return databaseBreaker;
+    }
+
+    @PreDestroy
+    public void stopBackgroundWork() {
+        memoryPressureMonitor.stop();
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+        if (revalidationExecutor != null) {
+            revalidationExecutor.shutdownNow();
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshots() {
+        if (!cacheProperties.getSnapshot().isEnabled()) {
+            return;
+        }
+        saveSnapshot(artCache, CacheCodecs.ART);
+        saveSnapshot(artistCache, CacheCodecs.ARTIST);
+        saveSnapshot(classificationCache, CacheCodecs.CLASSIFICATION);
+    }
+
+    public int restoreSnapshots() {
+        if (!cacheProperties.getSnapshot().isEnabled()) {
+            return 0;
+        }
+        return restoreSnapshot(artCache, CacheCodecs.ART, cacheProperties.getArt())
+                + restoreSnapshot(artistCache, CacheCodecs.ARTIST, cacheProperties.getArtist())
+                + restoreSnapshot(classificationCache, CacheCodecs.CLASSIFICATION, cacheProperties.getClassification());
+    }
+
+    private <T> void saveSnapshot(EntityCache<T> cache, CacheCodec<T> codec) {
+        try {
+            CacheSnapshot.write(cache, codec, snapshotFile(cache));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write {} cache snapshot", cache.getName(), e);
+        }
+    }
+
+    private <T> int restoreSnapshot(EntityCache<T> cache, CacheCodec<T> codec, CacheSettings settings) {
+        try {
+            return CacheSnapshot.restore(cache, codec, snapshotFile(cache), settings.getExpireAfterWrite());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not restore {} cache snapshot", cache.getName(), e);
+            return 0;
+        }
+    }
+
+    private Path snapshotFile(EntityCache<?> cache) {
+        return Path.of(cacheProperties.getSnapshot().getDirectory(), cache.getName().toLowerCase(Locale.ROOT) + ".snapshot");
+    }
+
+    public void invalidateArt(Integer id) {
+        dependencies.invalidate(new DependencyGraph.Key(artCache, id));
+    }
+
+    public void invalidateArtist(Integer id) {
+        dependencies.invalidate(new DependencyGraph.Key(artistCache, id));
+    }
+
+    public void invalidateClassification(Integer id) {
+        dependencies.invalidate(new DependencyGraph.Key(classificationCache, id));
+    }
+
+    // evicts the entry together with the cached responses built from it
+    public void invalidate(EntityCache<?> cache, int id) {
+        dependencies.invalidate(new DependencyGraph.Key(cache, id));
+    }
+
+    public void refreshArt(ArtDTO art) {
+        refreshArts(List.of(art));
+    }
+
+    public void refreshArts(Collection<ArtDTO> arts) {
+        // the arts may have joined artists or a classification whose cached entries don't list them yet
+        Set<Integer> artistIds = new HashSet<>();
+        Set<Integer> classificationIds = new HashSet<>();
+        for (ArtDTO art : arts) {
+            invalidateArt(art.getId());
+            if (art.getArtists() != null) {
+                art.getArtists().forEach(artist -> artistIds.add(artist.getId()));
+            }
+            if (art.getClassification() != null) {
+                classificationIds.add(art.getClassification().getId());
+            }
+        }
+        artistIds.forEach(artistCache::evict);
+        classificationIds.forEach(classificationCache::evict);
+        arts.forEach(art -> artCache.put(art.getId(), art));
+    }
+
+    public void refreshArtist(ArtistDTO artist) {
+        invalidateArtist(artist.getId());
+        artistCache.put(artist.getId(), artist);
+    }
+
+    public void refreshClassification(ClassificationDTO classification) {
+        invalidateClassification(classification.getId());
+        classificationCache.put(classification.getId(), classification);
+    }
+
+    public void invalidateQueries(Art art) {
+        invalidateArtQueries(List.of(art));
+    }
+
+    public void invalidateQueries(Artist artist) {
+        invalidateArtistQueries(List.of(artist));
+    }
+
+    public void invalidateQueries(Classification classification) {
+        invalidateClassificationQueries(List.of(classification));
+    }
+
+    // Every catalogue write goes through one of the invalidate*Queries methods, so this is also where
+    // created rows are added to the existence filters. Bulk imports call them once per chunk. The
+    // conditions only hold ids and lowercased names, never entities, since they are kept until commit.
+    public void invalidateArtQueries(Collection<Art> arts) {
+        if (arts.isEmpty()) {
+            return;
+        }
+        catalogueChanges.increment();
+        Set<Integer> changedArtIds = new HashSet<>();
+        Set<Integer> artistIds = new HashSet<>();
+        Set<Integer> changedClassificationIds = new HashSet<>();
+        Set<String> artistLastNames = new HashSet<>();
+        Set<String> classificationNames = new HashSet<>();
+        for (Art art : arts) {
+            changedArtIds.add(art.getId());
+            artIds.add(ExistenceFilter.hash(art.getId()));
+            if (art.getTitle() != null) {
+                artTitles.add(ExistenceFilter.hash(art.getTitle()));
+            }
+            Classification classification = art.getClassification();
+            if (classification != null) {
+                classificationNames.add(lower(classification.getName()));
+                if (classification.getId() != null) {
+                    changedClassificationIds.add(classification.getId());
+                    classificationIds.add(ExistenceFilter.hash(classification.getId()));
+                }
+            }
+            if (art.getArtists() != null) {
+                for (Artist artist : art.getArtists()) {
+                    artistIds.add(artist.getId());
+                    artistLastNames.add(lower(artist.getLastName()));
+                }
+            }
+        }
+
+        artsByArtistNameCache.invalidateIds(changedArtIds);
+        if (!artistLastNames.isEmpty()) {
+            artsByArtistNameCache.invalidateMatching(key -> matchesAny(artistLastNames, key.get(0)));
+        }
+        artsByClassificationNameCache.invalidateIds(changedArtIds);
+        if (!classificationNames.isEmpty()) {
+            artsByClassificationNameCache.invalidateMatching(key -> matchesAny(classificationNames, key.get(0)));
+        }
+        classificationsByNameCache.invalidateIds(changedClassificationIds);
+        artistSearchCache.invalidateIds(artistIds);
+    }
+
+    public void invalidateArtistQueries(Collection<Artist> artists) {
+        if (artists.isEmpty()) {
+            return;
+        }
+        catalogueChanges.increment();
+        Set<Integer> artistIds = new HashSet<>();
+        Set<ArtistName> names = new HashSet<>();
+        Set<Integer> changedArtIds = new HashSet<>();
+        Set<String> lastNamesWithArts = new HashSet<>();
+        for (Artist artist : artists) {
+            artistIds.add(artist.getId());
+            names.add(new ArtistName(lower(artist.getFirstName()), lower(artist.getLastName())));
+            if (artist.getArts() != null && !artist.getArts().isEmpty()) {
+                changedArtIds.addAll(idsOf(artist.getArts(), Art::getId));
+                lastNamesWithArts.add(lower(artist.getLastName()));
+            }
+        }
+
+        artistSearchCache.invalidateIds(artistIds);
+        artistSearchCache.invalidateMatching(key -> names.stream()
+                .anyMatch(name -> matches(name.firstName(), key.get(0)) && matches(name.lastName(), key.get(1))));
+        if (!changedArtIds.isEmpty()) {
+            artsByArtistNameCache.invalidateIds(changedArtIds);
+            artsByArtistNameCache.invalidateMatching(key -> matchesAny(lastNamesWithArts, key.get(0)));
+            // arts found by classification embed their artists' names too
+            artsByClassificationNameCache.invalidateIds(changedArtIds);
+        }
+    }
+
+    public void invalidateClassificationQueries(Collection<Classification> classifications) {
+        if (classifications.isEmpty()) {
+            return;
+        }
+        catalogueChanges.increment();
+        Set<Integer> changedClassificationIds = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        Set<Integer> changedArtIds = new HashSet<>();
+        Set<String> namesWithArts = new HashSet<>();
+        for (Classification classification : classifications) {
+            changedClassificationIds.add(classification.getId());
+            classificationIds.add(ExistenceFilter.hash(classification.getId()));
+            names.add(lower(classification.getName()));
+            if (classification.getArts() != null && !classification.getArts().isEmpty()) {
+                changedArtIds.addAll(idsOf(classification.getArts(), Art::getId));
+                namesWithArts.add(lower(classification.getName()));
+            }
+        }
+
+        classificationsByNameCache.invalidateIds(changedClassificationIds);
+        classificationsByNameCache.invalidateMatching(key -> matchesAny(names, key.get(0)));
+        if (!changedArtIds.isEmpty()) {
+            artsByClassificationNameCache.invalidateIds(changedArtIds);
+            artsByClassificationNameCache.invalidateMatching(key -> matchesAny(namesWithArts, key.get(0)));
+            // arts found by artist embed their classification's name and description too
+            artsByArtistNameCache.invalidateIds(changedArtIds);
+        }
+    }
+
+    private record ArtistName(String firstName, String lastName) {
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    // values are already lowercased, like the query keys
+    private static boolean matches(String value, String term) {
+        return term.isEmpty() || (value != null && value.contains(term));
+    }
+
+    private static boolean matchesAny(Set<String> values, String term) {
+        return values.stream().anyMatch(value -> matches(value, term));
+    }
+
+    private static <E> Set<Integer> idsOf(Collection<E> entities, Function<E, Integer> id) {
+        return entities.stream().map(id).collect(Collectors.toSet());
+    }
+
+    static int weighArt(ArtDTO art) {
+        int weight = OBJECT_OVERHEAD + weighString(art.getTitle());
+        if (art.getClassification() != null) {
+            weight += OBJECT_OVERHEAD + weighString(art.getClassification().getName())
+                    + weighString(art.getClassification().getDescription());
+        }
+        if (art.getArtists() != null) {
+            for (ArtistDTO artist : art.getArtists()) {
+                weight += weighArtist(artist);
+            }
+        }
+        return weight;
+    }
+
+    static int weighArtist(ArtistDTO artist) {
+        return OBJECT_OVERHEAD + weighString(artist.getFirstName())
+                + weighString(artist.getMiddleName()) + weighString(artist.getLastName())
+                + weighStrings(artist.getArtworkTitles());
+    }
+
+    static int weighClassification(ClassificationDTO classification) {
+        return OBJECT_OVERHEAD + weighString(classification.getName())
+                + weighString(classification.getDescription())
+                + weighStrings(classification.getArtworkTitles());
+    }
+
+    static int weighResponse(RenderedResponse response) {
+        return OBJECT_OVERHEAD + response.body().length;
+    }
+
+    private static int weighString(String value) {
+        return value == null ? 0 : 40 + value.length() * 2;
+    }
+
+    private static int weighStrings(List<String> values) {
+        int weight = 0;
+        if (values != null) {
+            for (String value : values) {
+                weight += 8 + weighString(value);
+            }
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.service.cache.EntityCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToIntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+// Runs before Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC, so the instance is only
+// reported ready once the hottest entries are in memory.
+@Service
+public class CacheWarmUpService implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final ArtService artService;
+    private final ArtistService artistService;
+    private final ClassificationService classificationService;
+    private final VisitCounterService visitCounterService;
+    private final CacheService cacheService;
+    private final CacheProperties.WarmUp settings;
+
+    public CacheWarmUpService(ArtService artService, ArtistService artistService,
+                              ClassificationService classificationService,
+                              VisitCounterService visitCounterService, CacheService cacheService,
+                              CacheProperties cacheProperties) {
+        this.artService = artService;
+        this.artistService = artistService;
+        this.classificationService = classificationService;
+        this.visitCounterService = visitCounterService;
+        this.cacheService = cacheService;
+        this.settings = cacheProperties.getWarmUp();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        cacheService.restoreSnapshots();
+        if (settings.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    public int warmUp() {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, settings.getParallelism()));
+        int loaded = 0;
+        try {
+            List<Future<Integer>> batches = new ArrayList<>();
+            submit(executor, batches, idsToLoad("/api/art/", settings.getArtIds(), cacheService.getArtCache()),
+                    artService::warmUpCache);
+            submit(executor, batches, idsToLoad("/api/artist/", settings.getArtistIds(), cacheService.getArtistCache()),
+                    artistService::warmUpCache);
+            submit(executor, batches, idsToLoad("/api/classification/", settings.getClassificationIds(),
+                    cacheService.getClassificationCache()), classificationService::warmUpCache);
+
+            Duration timeout = settings.getTimeout();
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (Future<Integer> batch : batches) {
+                try {
+                    loaded += batch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    LOGGER.warn("Cache warm-up batch failed", e.getCause());
+                } catch (TimeoutException e) {
+                    LOGGER.warn("Cache warm-up did not finish within {}, continuing startup", timeout);
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOGGER.info("Cache warm-up loaded {} entries in {} ms", loaded,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded;
+    }
+
+    // ids already restored from a snapshot are skipped; they get revalidated on first use instead
+    List<Integer> idsToLoad(String pathPrefix, List<Integer> configuredIds, EntityCache<?> cache) {
+        Set<Integer> ids = new LinkedHashSet<>(configuredIds);
+        ids.addAll(visitCounterService.getMostVisitedIds(pathPrefix, settings.getLimit()));
+        return ids.stream().limit(settings.getLimit()).filter(id -> !cache.contains(id)).toList();
+    }
+
+    private void submit(ExecutorService executor, List<Future<Integer>> batches,
+                        List<Integer> ids, ToIntFunction<List<Integer>> loader) {
+        int batchSize = Math.max(1, settings.getBatchSize());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Integer> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            batches.add(executor.submit(() -> loader.applyAsInt(batch)));
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.artshop.service;
 
-import com.example.artshop.constants.ApplicationConstants;
+import com.example.artshop.config.BulkProperties;
 import com.example.artshop.dto.ClassificationDTO;
 import com.example.artshop.dto.ClassificationPatchDTO;
+import com.example.artshop.dto.PageDTO;
 import com.example.artshop.exception.ValidationException;
 import com.example.artshop.model.Art;
 import com.example.artshop.model.Classification;
 import com.example.artshop.repository.ClassificationRepository;
+import com.example.artshop.service.cache.CacheStatistics;
+import com.example.artshop.service.cache.QueryCache;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,26 +25,29 @@ import org.springframework.transaction.annotation.Transactional;
 public class ClassificationService {
     private final ClassificationRepository classificationRepository;
     private final CacheService cacheService;
+    private final EntityManager entityManager;
+    private final BulkProperties bulkProperties;
     private static final Logger LOGGER = LoggerFactory.getLogger(ClassificationService.class);
 
     @Autowired
     public ClassificationService(ClassificationRepository classificationRepository,
-                                 CacheService cacheService) {
+                                 CacheService cacheService,
+                                 EntityManager entityManager,
+                                 BulkProperties bulkProperties) {
         this.classificationRepository = classificationRepository;
         this.cacheService = cacheService;
+        this.entityManager = entityManager;
+        this.bulkProperties = bulkProperties;
     }
 
     @Transactional(readOnly = true)
     public List<ClassificationDTO> getClassificationsByArtTitle(String artTitle) {
-        List<Classification> classifications = classificationRepository.findByArtTitleContaining(artTitle);
-        List<Classification> fullClassifications = classifications.stream()
-                .map(cls -> classificationRepository.findWithArtsById(cls.getId()).orElse(cls))
-                .collect(Collectors.toList());
-
-        if (fullClassifications.isEmpty()) {
+        List<ClassificationDTO> classifications =
+                RowAssembler.classifications(classificationRepository.findRowsByArtTitle(artTitle));
+        if (classifications.isEmpty()) {
             LOGGER.warn("No classifications found for artwork title: {}", artTitle);
         }
-        return fullClassifications.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return classifications;
     }
 
     @Transactional
@@ -47,64 +55,67 @@ public class ClassificationService {
         if (classificationDTOs == null || classificationDTOs.isEmpty()) {
             throw new ValidationException("Classification list cannot be null or empty");
         }
-        if (classificationDTOs.size() > ApplicationConstants.MAX_BULK_OPERATION_SIZE) {
+        if (classificationDTOs.size() > bulkProperties.getMaxSize()) {
             throw new ValidationException("Cannot add more than " +
-                    ApplicationConstants.MAX_BULK_OPERATION_SIZE + " classifications at once");
-        }
-
-        return classificationDTOs.stream()
-                .peek(dto -> {
-                    if (dto.getName() == null || dto.getName().trim().isEmpty()) {
-                        throw new ValidationException("Classification name is required");
-                    }
-                    if (dto.getDescription() == null || dto.getDescription().trim().isEmpty()) {
-                        throw new ValidationException("Classification description is required");
-                    }
-                })
-                .map(dto -> {
-                    Classification classification = new Classification();
-                    classification.setName(dto.getName());
-                    classification.setDescription(dto.getDescription());
-                    return saveClassification(classification);
-                })
-                .collect(Collectors.toList());
+                    bulkProperties.getMaxSize() + " classifications at once");
+        }
+        for (ClassificationDTO dto : classificationDTOs) {
+            if (dto.getName() == null || dto.getName().trim().isEmpty()) {
+                throw new ValidationException("Classification name is required");
+            }
+            if (dto.getDescription() == null || dto.getDescription().trim().isEmpty()) {
+                throw new ValidationException("Classification description is required");
+            }
+        }
+
+        // query caches are invalidated once per chunk, before the chunk leaves the persistence context
+        List<Classification> saved = new ArrayList<>(classificationDTOs.size());
+        int interval = Math.max(1, bulkProperties.getFlushInterval());
+        for (int from = 0; from < classificationDTOs.size(); from += interval) {
+            List<Classification> chunk = new ArrayList<>();
+            for (ClassificationDTO dto : classificationDTOs.subList(from,
+                    Math.min(from + interval, classificationDTOs.size()))) {
+                chunk.add(classificationRepository.save(new Classification(dto.getName(), dto.getDescription())));
+            }
+            cacheService.invalidateClassificationQueries(chunk);
+            chunk.forEach(this::cacheClassification);
+            saved.addAll(chunk);
+            if (from + interval < classificationDTOs.size()) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return saved;
     }
 
     @Transactional(readOnly = true)
-    public List<ClassificationDTO> getAllClassifications() {
-        List<Classification> classifications = classificationRepository.findAllWithArts();
-        classifications.forEach(c -> cacheService.getClassificationCache().put(c.getId(), c));
-        return classifications.stream().map(this::convertToDTO).collect(Collectors.toList());
+    public PageDTO<ClassificationDTO> getClassificationsPage(String cursor, Integer limit) {
+        return KeysetPages.page(cursor, limit, classificationRepository::findIdsAfter,
+                cacheService.getClassificationCache(),
+                ids -> cacheClassifications(
+                        RowAssembler.classifications(classificationRepository.findRowsByIdIn(ids))),
+                ClassificationDTO::getId);
     }
 
     @Transactional(readOnly = true)
     public ClassificationDTO getClassificationById(int id) {
-        return cacheService.getClassificationCache().get(id)
-                .map(this::convertToDTO)
-                .orElseGet(() -> {
-                    Optional<Classification> classification = classificationRepository.findWithArtsById(id);
-                    if (classification.isPresent()) {
-                        Classification cls = classification.get();
-                        cacheService.getClassificationCache().put(cls.getId(), cls);
-                        return convertToDTO(cls);
-                    }
-                    return null;
-                });
+        return cacheService.getClassificationCache()
+                .getOrLoad(id, key -> cacheService.isClassificationAbsent(key)
+                        ? Optional.empty()
+                        : classificationRepository.findWithArtsById(key).map(this::convertToDTO))
+                .orElse(null);
     }
 
     @Transactional(readOnly = true)
     public List<ClassificationDTO> getClassificationsByName(String name) {
-        List<Classification> classifications = classificationRepository.findByNameContainingIgnoreCase(name);
-        List<Classification> fullClassifications = classifications.stream()
-                .map(cls -> classificationRepository.findWithArtsById(cls.getId()).orElse(cls))
-                .collect(Collectors.toList());
-
-        if (fullClassifications.isEmpty()) {
-            LOGGER.warn("No classifications found with name containing: {}", name);
-        } else {
-            fullClassifications.forEach(c -> cacheService.getClassificationCache().put(c.getId(), c));
-        }
-        return fullClassifications.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return cacheService.getClassificationsByNameCache().get(QueryCache.key(name), () -> {
+            List<ClassificationDTO> classifications =
+                    RowAssembler.classifications(classificationRepository.findRowsByName(name));
+            if (classifications.isEmpty()) {
+                LOGGER.warn("No classifications found with name containing: {}", name);
+            }
+            return cacheClassifications(classifications);
+        });
     }
 
     @Transactional
@@ -120,7 +131,8 @@ public class ClassificationService {
         }
 
         Classification saved = classificationRepository.save(classification);
-        cacheService.getClassificationCache().put(saved.getId(), saved);
+        cacheService.invalidateQueries(saved);
+        cacheClassification(saved);
         return saved;
     }
 
@@ -140,14 +152,21 @@ public class ClassificationService {
             classification.setDescription(patchDTO.getDescription());
         }
         Classification updated = classificationRepository.save(classification);
-        cacheService.getClassificationCache().update(id, updated);
+        // flush so the DTO carries the @Version bumped by this update
+        classificationRepository.flush();
+        cacheService.invalidateQueries(updated);
+        cacheService.refreshClassification(convertToDTO(updated));
         return updated;
     }
 
     @Transactional
     public void deleteClassification(int id) {
+        Classification classification = classificationRepository.findById(id);
+        if (classification != null) {
+            cacheService.invalidateQueries(classification);
+        }
         classificationRepository.deleteById(id);
-        cacheService.getClassificationCache().evict(id);
+        cacheService.invalidateClassification(id);
     }
 
     @Transactional
@@ -167,12 +186,32 @@ public class ClassificationService {
         classification.setName(classificationDTO.getName());
         classification.setDescription(classificationDTO.getDescription());
         Classification updated = classificationRepository.save(classification);
-        cacheService.getClassificationCache().update(id, updated);
+        classificationRepository.flush();
+        cacheService.invalidateQueries(updated);
+        cacheService.refreshClassification(convertToDTO(updated));
         return updated;
     }
 
-    public String getCacheInfo() {
-        return cacheService.getClassificationCache().getCacheInfo();
+    @Transactional(readOnly = true)
+    public int warmUpCache(Collection<Integer> ids) {
+        List<Classification> classifications = classificationRepository.findAllWithArtsByIdIn(ids);
+        classifications.forEach(this::cacheClassification);
+        return classifications.size();
+    }
+
+    public CacheStatistics getCacheInfo() {
+        return cacheService.getClassificationCache().getStats();
+    }
+
+    private List<ClassificationDTO> cacheClassifications(List<ClassificationDTO> classifications) {
+        classifications.forEach(dto -> cacheService.getClassificationCache().put(dto.getId(), dto));
+        return classifications;
+    }
+
+    private ClassificationDTO cacheClassification(Classification classification) {
+        ClassificationDTO dto = convertToDTO(classification);
+        cacheService.getClassificationCache().put(classification.getId(), dto);
+        return dto;
     }
 
     private ClassificationDTO convertToDTO(Classification classification) {
@@ -180,12 +219,14 @@ public class ClassificationService {
         dto.setId(classification.getId());
         dto.setName(classification.getName());
         dto.setDescription(classification.getDescription());
+        dto.setVersion(EntityVersions.of(classification) + EntityVersions.ofArts(classification.getArts()));
 
         if (classification.getArts() != null && !classification.getArts().isEmpty()) {
             List<String> titles = classification.getArts().stream()
                     .map(Art::getTitle)
-                    .collect(Collectors.toList());
+                    .toList();
             dto.setArtworkTitles(titles);
+            dto.setArtworkIds(classification.getArts().stream().map(Art::getId).toList());
             dto.setArtworkCount(titles.size());
         } else {
             dto.setArtworkCount(0);
@@ -0,0 +1,53 @@
+package com.example.artshop.service;
+
+import com.example.artshop.model.Art;
+import com.example.artshop.model.Artist;
+import com.example.artshop.model.Classification;
+import java.util.Collection;
+
+// A DTO's version has to change whenever any entity it embeds changes, so it sums a mix of
+// (type, id, @Version) over all of them. Summing keeps it independent of collection order.
+final class EntityVersions {
+    private EntityVersions() {
+    }
+
+    static long of(Art art) {
+        return art(art.getId(), art.getVersion());
+    }
+
+    static long of(Artist artist) {
+        return artist(artist.getId(), artist.getVersion());
+    }
+
+    static long of(Classification classification) {
+        return classification(classification.getId(), classification.getVersion());
+    }
+
+    // the same mixes for projected rows, which carry ids and versions but no entities
+    static long art(Integer id, long version) {
+        return mix(1, id, version);
+    }
+
+    static long artist(Integer id, long version) {
+        return mix(2, id, version);
+    }
+
+    static long classification(Integer id, long version) {
+        return mix(3, id, version);
+    }
+
+    static long ofArts(Collection<Art> arts) {
+        return arts == null ? 0 : arts.stream().mapToLong(EntityVersions::of).sum();
+    }
+
+    static long ofArtists(Collection<Artist> artists) {
+        return artists == null ? 0 : artists.stream().mapToLong(EntityVersions::of).sum();
+    }
+
+    private static long mix(int type, Integer id, long version) {
+        long h = type * 0x9E3779B97F4A7C15L;
+        h = (h ^ (id == null ? 0 : id)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ version) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.repository.ArtRepository;
+import com.example.artshop.repository.ClassificationRepository;
+import com.example.artshop.service.cache.ExistenceFilter;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Filters are rebuilt from the database on a timer, and sooner when more keys were added than
+// they were sized for; a rebuild is also the only way deleted keys drop out of them.
+@Service
+public class ExistenceFilterRefresher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExistenceFilterRefresher.class);
+
+    private final ArtRepository artRepository;
+    private final ClassificationRepository classificationRepository;
+    private final CacheService cacheService;
+    private final CacheProperties.Existence settings;
+
+    public ExistenceFilterRefresher(ArtRepository artRepository, ClassificationRepository classificationRepository,
+                                    CacheService cacheService, CacheProperties cacheProperties) {
+        this.artRepository = artRepository;
+        this.classificationRepository = classificationRepository;
+        this.cacheService = cacheService;
+        this.settings = cacheProperties.getExistence();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "PT1M")
+    public void rebuildIfDue() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        rebuildIfDue(cacheService.getArtIdFilter(), artRepository::count,
+                keys -> artRepository.findAllIds().forEach(id -> keys.accept(ExistenceFilter.hash(id))));
+        rebuildIfDue(cacheService.getArtTitleFilter(), artRepository::count,
+                keys -> artRepository.findAllTitles().stream()
+                        .filter(Objects::nonNull)
+                        .forEach(title -> keys.accept(ExistenceFilter.hash(title))));
+        rebuildIfDue(cacheService.getClassificationIdFilter(), classificationRepository::count,
+                keys -> classificationRepository.findAllIds().forEach(id -> keys.accept(ExistenceFilter.hash(id))));
+    }
+
+    boolean isDue(ExistenceFilter filter) {
+        return !filter.isBuilt() || filter.isSaturated()
+                || System.currentTimeMillis() - filter.getBuiltAt() >= settings.getRebuildInterval().toMillis();
+    }
+
+    private void rebuildIfDue(ExistenceFilter filter, LongSupplier count, Consumer<LongConsumer> keys) {
+        if (!isDue(filter)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            filter.rebuild(count.getAsLong(), keys);
+            LOGGER.info("Rebuilt existence filter {} in {} ms, expected false-positive rate {}", filter.getName(),
+                    (System.nanoTime() - start) / 1_000_000, filter.expectedFalsePositiveRate());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not rebuild existence filter {}", filter.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.artshop.service;
+
+import com.example.artshop.constants.ApplicationConstants;
+import com.example.artshop.dto.PageDTO;
+import com.example.artshop.exception.ValidationException;
+import com.example.artshop.service.cache.EntityCache;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.springframework.data.domain.Limit;
+
+// Keyset pagination in id order. A page is read in two steps: the next limit + 1 ids after the cursor,
+// then the entities for the first limit of them, so the fetch joins of the loader never meet a LIMIT.
+// Entities already in the cache are not loaded again. The cursor is the last id of the page, encoded.
+final class KeysetPages {
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPages() {
+    }
+
+    static <T> PageDTO<T> page(String cursor, Integer limit, BiFunction<Integer, Limit, List<Integer>> idsAfter,
+                               EntityCache<T> cache, Function<List<Integer>, List<T>> loader,
+                               ToIntFunction<T> idOf) {
+        int size = checkLimit(limit);
+        List<Integer> ids = idsAfter.apply(decode(cursor), Limit.of(size + 1));
+        boolean hasNext = ids.size() > size;
+        List<Integer> pageIds = hasNext ? ids.subList(0, size) : ids;
+
+        Map<Integer, T> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : pageIds) {
+            Optional<T> cached = cache.get(id);
+            if (cached.isPresent()) {
+                found.put(id, cached.get());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (T item : loader.apply(missing)) {
+                found.put(idOf.applyAsInt(item), item);
+            }
+        }
+        List<T> items = new ArrayList<>(pageIds.size());
+        for (Integer id : pageIds) {
+            // gone if deleted between the two queries
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        String next = hasNext ? encode(pageIds.get(pageIds.size() - 1)) : null;
+        return new PageDTO<>(items, size, next);
+    }
+
+    // canonical form of a page request, so equivalent requests share a cache tag; rejects what page rejects
+    static String key(String cursor, Integer limit) {
+        return checkLimit(limit) + "-" + decode(cursor);
+    }
+
+    static String encode(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // no cursor means the first page
+    static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (value.startsWith(CURSOR_PREFIX)) {
+                return Integer.parseInt(value.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the validation error below
+        }
+        throw new ValidationException("Invalid page cursor: " + cursor);
+    }
+
+    private static int checkLimit(Integer limit) {
+        if (limit == null) {
+            return ApplicationConstants.DEFAULT_PAGE_SIZE;
+        }
+        if (limit <= 0 || limit > ApplicationConstants.MAX_PAGE_SIZE) {
+            throw new ValidationException("Page limit must be between 1 and " + ApplicationConstants.MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.ClassificationDTO;
+import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.RenderedResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+@Service
+public class ResponseCacheService {
+    private final ObjectMapper objectMapper;
+    private final CacheService cacheService;
+    private final boolean enabled;
+
+    public ResponseCacheService(ObjectMapper objectMapper, CacheService cacheService, CacheProperties cacheProperties) {
+        this.objectMapper = objectMapper;
+        this.cacheService = cacheService;
+        this.enabled = cacheProperties.isResponseEnabled();
+    }
+
+    public ResponseEntity<?> art(ArtDTO art, WebRequest request) {
+        return render(cacheService.getArtResponseCache(), "art", art.getId(), art.getVersion(), art, request);
+    }
+
+    public ResponseEntity<?> artist(ArtistDTO artist, WebRequest request) {
+        return render(cacheService.getArtistResponseCache(), "artist", artist.getId(), artist.getVersion(),
+                artist, request);
+    }
+
+    public ResponseEntity<?> classification(ClassificationDTO classification, WebRequest request) {
+        return render(cacheService.getClassificationResponseCache(), "classification", classification.getId(),
+                classification.getVersion(), classification, request);
+    }
+
+    // The tag is taken before loading, so a write that lands mid-load leaves the client with an older
+    // tag and the next request fetches again. A null return tells Spring the 304 is already written.
+    public <T> ResponseEntity<T> collection(String name, WebRequest request, Supplier<T> loader) {
+        String eTag = "\"" + name + "-" + cacheService.getCatalogueChanges().tag() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(loader.get());
+    }
+
+    // the cursor and limit are checked before the tag, so a bad cursor is a 400 even when the tag matches
+    public <T> ResponseEntity<T> page(String name, String cursor, Integer limit, WebRequest request,
+                                      Supplier<T> loader) {
+        return collection(name + "-" + KeysetPages.key(cursor, limit), request, loader);
+    }
+
+    private static String eTag(String type, Integer id, Long version) {
+        return version == null ? null : "\"" + type + "-" + id + "-" + Long.toHexString(version) + "\"";
+    }
+
+    // a body is reused only for the same id and version; without a version there is nothing to check it
+    // against, so the DTO is rendered every time
+    private ResponseEntity<?> render(EntityCache<RenderedResponse> cache, String type, Integer id, Long version,
+                                     Object dto, WebRequest request) {
+        String eTag = eTag(type, id, version);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        if (!enabled) {
+            return response.body(dto);
+        }
+        if (version == null) {
+            return response.contentType(MediaType.APPLICATION_JSON).body(serialize(dto));
+        }
+        Optional<RenderedResponse> cached = cache.get(id);
+        byte[] body;
+        if (cached.isPresent() && cached.get().renders(id, version)) {
+            body = cached.get().body();
+        } else {
+            body = serialize(dto);
+            RenderedResponse rendered = new RenderedResponse(id, version, body);
+            if (cached.isPresent()) {
+                cache.update(id, rendered);
+            } else {
+                cache.put(id, rendered);
+            }
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private byte[] serialize(Object dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + dto.getClass().getSimpleName(), e);
+        }
+    }
+}
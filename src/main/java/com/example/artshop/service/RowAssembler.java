@@ -0,0 +1,125 @@
+package com.example.artshop.service;
+
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.ClassificationDTO;
+import com.example.artshop.repository.ArtRow;
+import com.example.artshop.repository.ArtistRow;
+import com.example.artshop.repository.ClassificationRow;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds DTOs from projected rows in one pass, without hydrating entities. Rows of the same root are
+// grouped by id, keeping the order of first appearance, and produce the same DTOs and versions as the
+// entity-based convertToDTO methods. Nested lists are collected while the rows of a root are read
+// and frozen once it is complete, since the DTOs end up in the entity caches.
+final class RowAssembler {
+    private RowAssembler() {
+    }
+
+    static List<ArtDTO> arts(List<ArtRow> rows) {
+        Map<Integer, ArtDTO> arts = new LinkedHashMap<>();
+        for (ArtRow row : rows) {
+            ArtDTO art = arts.get(row.id());
+            if (art == null) {
+                art = new ArtDTO();
+                art.setId(row.id());
+                art.setTitle(row.title());
+                art.setYear(row.year());
+                art.setArtists(new ArrayList<>());
+                long version = EntityVersions.art(row.id(), row.version());
+                if (row.classificationId() != null) {
+                    ClassificationDTO classification = new ClassificationDTO();
+                    classification.setId(row.classificationId());
+                    classification.setName(row.classificationName());
+                    classification.setDescription(row.classificationDescription());
+                    art.setClassification(classification);
+                    version += EntityVersions.classification(row.classificationId(), row.classificationVersion());
+                }
+                art.setVersion(version);
+                arts.put(row.id(), art);
+            }
+            if (row.artistId() != null) {
+                ArtistDTO artist = new ArtistDTO();
+                artist.setId(row.artistId());
+                artist.setFirstName(row.artistFirstName());
+                artist.setMiddleName(row.artistMiddleName());
+                artist.setLastName(row.artistLastName());
+                art.getArtists().add(artist);
+                art.setVersion(art.getVersion() + EntityVersions.artist(row.artistId(), row.artistVersion()));
+            }
+        }
+        arts.values().forEach(art -> art.setArtists(List.copyOf(art.getArtists())));
+        return List.copyOf(arts.values());
+    }
+
+    static List<ArtistDTO> artists(List<ArtistRow> rows) {
+        Map<Integer, ArtistDTO> artists = new LinkedHashMap<>();
+        for (ArtistRow row : rows) {
+            ArtistDTO artist = artists.get(row.id());
+            if (artist == null) {
+                artist = new ArtistDTO();
+                artist.setId(row.id());
+                artist.setFirstName(row.firstName());
+                artist.setMiddleName(row.middleName());
+                artist.setLastName(row.lastName());
+                artist.setArtworkCount(0);
+                artist.setVersion(EntityVersions.artist(row.id(), row.version()));
+                artists.put(row.id(), artist);
+            }
+            if (row.artId() != null) {
+                if (artist.getArtworkTitles() == null) {
+                    artist.setArtworkTitles(new ArrayList<>());
+                    artist.setArtworkIds(new ArrayList<>());
+                }
+                artist.getArtworkTitles().add(row.artTitle());
+                artist.getArtworkIds().add(row.artId());
+                artist.setArtworkCount(artist.getArtworkIds().size());
+                artist.setVersion(artist.getVersion() + EntityVersions.art(row.artId(), row.artVersion()));
+            }
+        }
+        for (ArtistDTO artist : artists.values()) {
+            if (artist.getArtworkIds() != null) {
+                artist.setArtworkTitles(List.copyOf(artist.getArtworkTitles()));
+                artist.setArtworkIds(List.copyOf(artist.getArtworkIds()));
+            }
+        }
+        return List.copyOf(artists.values());
+    }
+
+    static List<ClassificationDTO> classifications(List<ClassificationRow> rows) {
+        Map<Integer, ClassificationDTO> classifications = new LinkedHashMap<>();
+        for (ClassificationRow row : rows) {
+            ClassificationDTO classification = classifications.get(row.id());
+            if (classification == null) {
+                classification = new ClassificationDTO();
+                classification.setId(row.id());
+                classification.setName(row.name());
+                classification.setDescription(row.description());
+                classification.setArtworkCount(0);
+                classification.setVersion(EntityVersions.classification(row.id(), row.version()));
+                classifications.put(row.id(), classification);
+            }
+            if (row.artId() != null) {
+                if (classification.getArtworkTitles() == null) {
+                    classification.setArtworkTitles(new ArrayList<>());
+                    classification.setArtworkIds(new ArrayList<>());
+                }
+                classification.getArtworkTitles().add(row.artTitle());
+                classification.getArtworkIds().add(row.artId());
+                classification.setArtworkCount(classification.getArtworkIds().size());
+                classification.setVersion(classification.getVersion()
+                        + EntityVersions.art(row.artId(), row.artVersion()));
+            }
+        }
+        for (ClassificationDTO classification : classifications.values()) {
+            if (classification.getArtworkIds() != null) {
+                classification.setArtworkTitles(List.copyOf(classification.getArtworkTitles()));
+                classification.setArtworkIds(List.copyOf(classification.getArtworkIds()));
+            }
+        }
+        return List.copyOf(classifications.values());
+    }
+}
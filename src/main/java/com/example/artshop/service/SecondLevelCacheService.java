@@ -0,0 +1,47 @@
+package com.example.artshop.service;
+
+import com.example.artshop.service.cache.RegionStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+// Read side of the Hibernate second-level and query caches configured in ehcache.xml
+@Service
+public class SecondLevelCacheService {
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public List<RegionStatistics> getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(name -> toRegionStatistics(name, statistics.getCacheRegionStatistics(name)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // statements prepared since startup; divided by request counts it gives the SQL cost per request
+    public long getStatementCount() {
+        return sessionFactory.getStatistics().getPrepareStatementCount();
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private static RegionStatistics toRegionStatistics(String name, CacheRegionStatistics region) {
+        if (region == null) {
+            return null;
+        }
+        return new RegionStatistics(name, region.getElementCountInMemory(), region.getHitCount(),
+                region.getMissCount(), region.getPutCount());
+    }
+}
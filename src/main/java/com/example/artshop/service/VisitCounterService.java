@@ -1,14 +1,46 @@
 package com.example.artshop.service;
 
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class VisitCounterService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VisitCounterService.class);
+
     private final Map<String, AtomicInteger> endpointCounters = new ConcurrentHashMap<>();
     private final AtomicInteger totalVisits = new AtomicInteger(0);
+    private final Path historyFile;
+
+    public VisitCounterService() {
+        this((Path) null);
+    }
+
+    @Autowired
+    public VisitCounterService(@Value("${artshop.visits.history-file:}") String historyFile) {
+        this(historyFile == null || historyFile.isBlank() ? null : Path.of(historyFile));
+    }
+
+    VisitCounterService(Path historyFile) {
+        this.historyFile = historyFile;
+        if (historyFile != null && Files.exists(historyFile)) {
+            loadHistory();
+        }
+    }
 
     public void recordVisit(String endpoint) {
         endpointCounters.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
@@ -28,4 +60,71 @@ public class VisitCounterService {
         endpointCounters.forEach((key, value) -> result.put(key, value.get()));
         return result;
     }
-}
\ No newline at end of file
+
+    public List<Integer> getMostVisitedIds(String pathPrefix, int limit) {
+        Map<Integer, Integer> visitsById = new HashMap<>();
+        endpointCounters.forEach((endpoint, count) -> {
+            Integer id = parseId(endpoint, pathPrefix);
+            if (id != null) {
+                visitsById.merge(id, count.get(), Integer::sum);
+            }
+        });
+        return visitsById.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static Integer parseId(String endpoint, String pathPrefix) {
+        if (!endpoint.startsWith(pathPrefix)) {
+            return null;
+        }
+        String rest = endpoint.substring(pathPrefix.length());
+        if (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        if (rest.isEmpty() || rest.length() > 9 || !rest.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return Integer.valueOf(rest);
+    }
+
+    @PreDestroy
+    public void saveHistory() {
+        if (historyFile == null) {
+            return;
+        }
+        try {
+            Path parent = historyFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "visits", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, AtomicInteger> entry : endpointCounters.entrySet()) {
+                    writer.write(entry.getValue().get() + "\t" + entry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not save visit history to {}", historyFile, e);
+        }
+    }
+
+    private void loadHistory() {
+        try {
+            for (String line : Files.readAllLines(historyFile, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                int count = Integer.parseInt(line.substring(0, tab));
+                endpointCounters.computeIfAbsent(line.substring(tab + 1), k -> new AtomicInteger()).addAndGet(count);
+                totalVisits.addAndGet(count);
+            }
+            LOGGER.info("Loaded visit history for {} endpoints from {}", endpointCounters.size(), historyFile);
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Could not load visit history from {}", historyFile, e);
+        }
+    }
+}
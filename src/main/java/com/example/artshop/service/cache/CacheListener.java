@@ -0,0 +1,7 @@
+package com.example.artshop.service.cache;
+
+public interface CacheListener<T> {
+    void onStore(Integer id, T value);
+
+    void onRemove(Integer id);
+}
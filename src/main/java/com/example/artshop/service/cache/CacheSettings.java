@@ -0,0 +1,84 @@
+package com.example.artshop.service.cache;
+
+import java.time.Duration;
+
+public class CacheSettings {
+    public static final int DEFAULT_MAX_ENTRIES = 5;
+    public static final int DEFAULT_HOT_KEY_THRESHOLD = 8;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxWeightBytes;
+    private Duration expireAfterWrite;
+    private Duration expireAfterAccess;
+    private long offHeapBytes;
+    // share of the entries that frequently read keys may occupy out of reach of LRU eviction; 0 disables it
+    private double hotKeyRatio;
+    private int hotKeyThreshold = DEFAULT_HOT_KEY_THRESHOLD;
+
+    public CacheSettings() {
+    }
+
+    public CacheSettings(int maxEntries, long maxWeightBytes,
+                         Duration expireAfterWrite, Duration expireAfterAccess) {
+        this.maxEntries = maxEntries;
+        this.maxWeightBytes = maxWeightBytes;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxWeightBytes() {
+        return maxWeightBytes;
+    }
+
+    public void setMaxWeightBytes(long maxWeightBytes) {
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public void setOffHeapBytes(long offHeapBytes) {
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    public double getHotKeyRatio() {
+        return hotKeyRatio;
+    }
+
+    public void setHotKeyRatio(double hotKeyRatio) {
+        this.hotKeyRatio = hotKeyRatio;
+    }
+
+    public int getHotKeyThreshold() {
+        return hotKeyThreshold;
+    }
+
+    public void setHotKeyThreshold(int hotKeyThreshold) {
+        this.hotKeyThreshold = hotKeyThreshold;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.artshop.service.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Layout: magic, format version, cache name, creation time (epoch millis), entry count,
+// then per entry its id, payload length and codec payload. The length prefix lets a reader
+// skip an entry it can't decode instead of discarding the whole file.
+public final class CacheSnapshot {
+    private static final int MAGIC = 0x41534353;
+    private static final int FORMAT_VERSION = 2;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheSnapshot.class);
+
+    private CacheSnapshot() {
+    }
+
+    public static <T> int write(EntityCache<T> cache, CacheCodec<T> codec, Path file) throws IOException {
+        Map<Integer, T> items = cache.getAllCachedItems();
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, cache.getName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(cache.getName());
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(items.size());
+                ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+                DataOutputStream payloadOut = new DataOutputStream(payload);
+                for (Map.Entry<Integer, T> entry : items.entrySet()) {
+                    payload.reset();
+                    codec.write(payloadOut, entry.getValue());
+                    payloadOut.flush();
+                    out.writeInt(entry.getKey());
+                    out.writeInt(payload.size());
+                    payload.writeTo(out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        LOGGER.info("{}{} snapshot with {} entries written to {}", EntityCache.CACHE_CN, cache.getName(),
+                items.size(), file);
+        return items.size();
+    }
+
+    public static <T> int restore(EntityCache<T> cache, CacheCodec<T> codec, Path file, Duration maxAge)
+            throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.warn("{}Ignoring snapshot {} with unknown format", EntityCache.CACHE_CN, file);
+                return 0;
+            }
+            String name = in.readUTF();
+            long createdAt = in.readLong();
+            int count = in.readInt();
+            if (!cache.getName().equals(name)) {
+                LOGGER.warn("{}Ignoring snapshot {} written for the {} cache", EntityCache.CACHE_CN, file, name);
+                return 0;
+            }
+            if (isTooOld(createdAt, maxAge)) {
+                LOGGER.info("{}{} snapshot {} is older than {}, ignoring it", EntityCache.CACHE_CN, name, file, maxAge);
+                return 0;
+            }
+
+            int restored = 0;
+            try {
+                for (int i = 0; i < count; i++) {
+                    int id = buffer.getInt();
+                    int length = buffer.getInt();
+                    ByteBuffer payload = buffer.slice(buffer.position(), length);
+                    buffer.position(buffer.position() + length);
+                    try {
+                        if (cache.restore(id, codec.read(new DataInputStream(new ByteBufferInputStream(payload))))) {
+                            restored++;
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.warn("{}{}{}{} could not be read from snapshot", EntityCache.CACHE_CN, name,
+                                EntityCache.CACHE_ID, id, e);
+                    }
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                LOGGER.warn("{}{} snapshot {} is truncated", EntityCache.CACHE_CN, name, file);
+            }
+            LOGGER.info("{}{} restored {} of {} entries from {}", EntityCache.CACHE_CN, name, restored, count, file);
+            return restored;
+        }
+    }
+
+    private static boolean isTooOld(long createdAt, Duration maxAge) {
+        return maxAge != null && !maxAge.isZero() && !maxAge.isNegative()
+                && System.currentTimeMillis() - createdAt > maxAge.toMillis();
+    }
+}
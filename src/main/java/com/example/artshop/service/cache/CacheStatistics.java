@@ -0,0 +1,136 @@
+package com.example.artshop.service.cache;
+
+public class CacheStatistics {
+    private final String name;
+    private final int size;
+    private final int capacity;
+    private final long weightBytes;
+    private final long maxWeightBytes;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long updateCount;
+    private final long invalidationCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long resizeCount;
+    private final long staleHitCount;
+
+    public CacheStatistics(String name, int size, int capacity, long weightBytes, long maxWeightBytes,
+                           long hitCount, long missCount, long putCount, long updateCount,
+                           long invalidationCount, long evictionCount, long expirationCount,
+                           long loadSuccessCount, long loadFailureCount, long totalLoadTimeNanos) {
+        this(name, size, capacity, weightBytes, maxWeightBytes, hitCount, missCount, putCount, updateCount,
+                invalidationCount, evictionCount, expirationCount, loadSuccessCount, loadFailureCount,
+                totalLoadTimeNanos, 0, 0);
+    }
+
+    public CacheStatistics(String name, int size, int capacity, long weightBytes, long maxWeightBytes,
+                           long hitCount, long missCount, long putCount, long updateCount,
+                           long invalidationCount, long evictionCount, long expirationCount,
+                           long loadSuccessCount, long loadFailureCount, long totalLoadTimeNanos,
+                           long resizeCount, long staleHitCount) {
+        this.name = name;
+        this.size = size;
+        this.capacity = capacity;
+        this.weightBytes = weightBytes;
+        this.maxWeightBytes = maxWeightBytes;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.updateCount = updateCount;
+        this.invalidationCount = invalidationCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.resizeCount = resizeCount;
+        this.staleHitCount = staleHitCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public long getMaxWeightBytes() {
+        return maxWeightBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    public long getStaleHitCount() {
+        return staleHitCount;
+    }
+
+    public double getAverageLoadTimeMillis() {
+        long loads = loadSuccessCount + loadFailureCount;
+        return loads == 0 ? 0.0 : totalLoadTimeNanos / 1_000_000.0 / loads;
+    }
+}
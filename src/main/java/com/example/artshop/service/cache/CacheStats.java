@@ -0,0 +1,90 @@
+package com.example.artshop.service.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final LongAdder resizes = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordPut() {
+        puts.increment();
+    }
+
+    void recordUpdate() {
+        updates.increment();
+    }
+
+    void recordInvalidation() {
+        invalidations.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordExpiration() {
+        expirations.increment();
+    }
+
+    void recordStaleHit() {
+        staleHits.increment();
+    }
+
+    void recordResize() {
+        resizes.increment();
+    }
+
+    void recordLoad(long loadTimeNanos, boolean success) {
+        if (success) {
+            loadSuccesses.increment();
+        } else {
+            loadFailures.increment();
+        }
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    CacheStatistics snapshot(EntityCache<?> cache) {
+        return snapshot(cache.getName(), cache.size(), cache.getCapacity(),
+                cache.weightBytes(), cache.getMaxWeightBytes());
+    }
+
+    CacheStatistics snapshot(String name, int size, int capacity, long weightBytes, long maxWeightBytes) {
+        return new CacheStatistics(name, size, capacity, weightBytes, maxWeightBytes,
+                hits.sum(), misses.sum(), puts.sum(), updates.sum(), invalidations.sum(),
+                evictions.sum(), expirations.sum(), loadSuccesses.sum(), loadFailures.sum(),
+                totalLoadTimeNanos.sum(), resizes.sum(), staleHits.sum());
+    }
+
+    void reset() {
+        hits.reset();
+        misses.reset();
+        puts.reset();
+        updates.reset();
+        invalidations.reset();
+        evictions.reset();
+        expirations.reset();
+        loadSuccesses.reset();
+        loadFailures.reset();
+        totalLoadTimeNanos.reset();
+        resizes.reset();
+        staleHits.reset();
+    }
+}
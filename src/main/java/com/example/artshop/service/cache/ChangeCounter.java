@@ -0,0 +1,35 @@
+package com.example.artshop.service.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts writes so callers can tell "nothing changed" without looking at the data. The epoch keeps
+// tags from a previous run from matching after the counter restarts at zero.
+public class ChangeCounter {
+    private final AtomicLong changes = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // bumped now and again after commit, so a reader that saw pre-commit data under the
+    // intermediate tag won't keep matching it once the change is visible
+    public void increment() {
+        changes.incrementAndGet();
+        TransactionBoundState.obtain(this, () -> new PendingIncrement(this));
+    }
+
+    public String tag() {
+        return epoch + "-" + changes.get();
+    }
+
+    private static final class PendingIncrement extends TransactionBoundState {
+        private final ChangeCounter counter;
+
+        PendingIncrement(ChangeCounter counter) {
+            super(counter);
+            this.counter = counter;
+        }
+
+        @Override
+        public void afterCommit() {
+            counter.changes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.artshop.service.cache;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Opens after a run of consecutive failures and stays open for openDuration. After that a single
+// trial request is let through (half-open): its success closes the breaker, a failure re-opens it.
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier ticker;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    private volatile long openedAt;
+    private volatile boolean open;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier ticker) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.ticker = ticker;
+    }
+
+    public State getState() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return ticker.getAsLong() - openedAt >= openNanos ? State.HALF_OPEN : State.OPEN;
+    }
+
+    public boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    public boolean allowRequest() {
+        return switch (getState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> trialInFlight.compareAndSet(false, true);
+        };
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            trialInFlight.set(false);
+            logger.info("Circuit breaker {} closed", name);
+        }
+    }
+
+    public void recordFailure() {
+        if (open) {
+            if (trialInFlight.compareAndSet(true, false)) {
+                openedAt = ticker.getAsLong();
+            }
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = ticker.getAsLong();
+            open = true;
+            logger.warn("Circuit breaker {} opened after {} consecutive failures, retrying in {} ms", name,
+                    failureThreshold, TimeUnit.NANOSECONDS.toMillis(openNanos));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.artshop.service.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DependencyGraph {
+    private final Map<Key, Set<Key>> dependencies = new ConcurrentHashMap<>();
+    private final Map<Key, Set<Key>> dependents = new ConcurrentHashMap<>();
+
+    public record Key(EntityCache<?> cache, Integer id) {
+    }
+
+    // callers serialize record/remove per dependent; the caches do so by calling in under the entry's segment lock
+    public void record(Key dependent, Set<Key> dependsOn) {
+        Set<Key> previous = dependencies.put(dependent, dependsOn);
+        if (previous != null) {
+            for (Key key : previous) {
+                if (!dependsOn.contains(key)) {
+                    unlink(key, dependent);
+                }
+            }
+        }
+        for (Key key : dependsOn) {
+            dependents.compute(key, (k, keys) -> {
+                Set<Key> linked = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                linked.add(dependent);
+                return linked;
+            });
+        }
+    }
+
+    public void remove(Key dependent) {
+        Set<Key> previous = dependencies.remove(dependent);
+        if (previous != null) {
+            previous.forEach(key -> unlink(key, dependent));
+        }
+    }
+
+    public Set<Key> dependentsOf(Key key) {
+        Set<Key> keys = dependents.get(key);
+        return keys == null ? Set.of() : Set.copyOf(keys);
+    }
+
+    public void invalidate(Key key) {
+        for (Key dependent : dependentsOf(key)) {
+            dependent.cache().evict(dependent.id());
+        }
+        key.cache().evict(key.id());
+    }
+
+    public int size() {
+        return dependencies.size();
+    }
+
+    private void unlink(Key key, Key dependent) {
+        dependents.computeIfPresent(key, (k, keys) -> {
+            keys.remove(dependent);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
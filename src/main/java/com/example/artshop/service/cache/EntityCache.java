@@ -1,13 +1,61 @@
 package com.example.artshop.service.cache;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class EntityCache<T> {
-    private final Map<Integer, T> cache;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final int MAX_SEGMENTS = Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors() * 2));
+    private static final int WRITE_STAMP_STRIPES = 1024;
+
+    private final Segment<T>[] segments;
+    private final int segmentMask;
+    private volatile int capacity;
+    private final long maxWeightBytes;
+    private volatile double scale = 1;
+    private volatile long expireAfterWriteNanos;
+    private volatile long expireAfterAccessNanos;
+    private final double hotKeyRatio;
+    private final int hotKeyThreshold;
+    private final ToIntFunction<? super T> weigher;
+    private final LongSupplier ticker;
+    private final CacheStats stats = new CacheStats();
+    // Bumped by every eviction and update as it is applied, striped by id. A loaded value is only
+    // cached if its stripe is unchanged since the load started, so a write that commits while a
+    // reader is loading, or before the reader's own commit, is never overwritten with the old row.
+    // A stripe collision only costs a skipped put.
+    private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_STAMP_STRIPES);
+    private volatile CacheListener<? super T> listener;
+    private volatile Consumer<? super T> freezer;
+    private final AtomicInteger unverified = new AtomicInteger();
+    private volatile Executor revalidator = ForkJoinPool.commonPool();
+    private volatile OffHeapStore<T> secondTier;
+    private volatile StalePolicy stalePolicy;
     private final String entityName;
     private final Logger logger;
 
@@ -15,65 +63,1143 @@ public class EntityCache<T> {
     public static final String CACHE_ID = " with id ";
 
     public EntityCache(String entityName) {
+        this(entityName, new CacheSettings());
+    }
+
+    public EntityCache(String entityName, int capacity) {
+        this(entityName, new CacheSettings(capacity, 0, null, null));
+    }
+
+    public EntityCache(String entityName, CacheSettings settings) {
+        this(entityName, settings, entity -> 1);
+    }
+
+    public EntityCache(String entityName, CacheSettings settings, ToIntFunction<? super T> weigher) {
+        this(entityName, settings, weigher, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    EntityCache(String entityName, CacheSettings settings, ToIntFunction<? super T> weigher, LongSupplier ticker) {
+        if (settings.getMaxEntries() <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        if (settings.getMaxWeightBytes() < 0) {
+            throw new IllegalArgumentException("Cache weight limit cannot be negative");
+        }
+        if (!(settings.getHotKeyRatio() >= 0 && settings.getHotKeyRatio() < 1)) {
+            throw new IllegalArgumentException("Hot key ratio must be in [0, 1)");
+        }
+        if (settings.getHotKeyThreshold() < 1 || settings.getHotKeyThreshold() > FrequencySketch.MAX_FREQUENCY) {
+            throw new IllegalArgumentException("Hot key threshold must be between 1 and "
+                    + FrequencySketch.MAX_FREQUENCY);
+        }
         this.entityName = entityName;
+        this.capacity = settings.getMaxEntries();
+        this.maxWeightBytes = settings.getMaxWeightBytes();
+        this.expireAfterWriteNanos = toNanos(settings.getExpireAfterWrite());
+        this.expireAfterAccessNanos = toNanos(settings.getExpireAfterAccess());
+        this.hotKeyRatio = settings.getHotKeyRatio();
+        this.hotKeyThreshold = settings.getHotKeyThreshold();
+        this.weigher = weigher;
+        this.ticker = ticker;
         this.logger = LoggerFactory.getLogger(EntityCache.class);
-        this.cache = new LinkedHashMap<Integer, T>(5, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
-                return size() > 5;
-            }
-        };
+
+        int segmentCount = segmentCountFor(capacity);
+        this.segmentMask = segmentCount - 1;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(this);
+        }
+        applyLimits(capacity, maxWeightBytes, ticker.getAsLong());
+    }
+
+    private void applyLimits(int entries, long weightBytes, long now) {
+        int segmentCount = segments.length;
+        int base = entries / segmentCount;
+        int remainder = entries % segmentCount;
+        long weightPerSegment = weightBytes > 0 ? Math.max(1, weightBytes / segmentCount) : 0;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i].setLimits(Math.max(1, base + (i < remainder ? 1 : 0)), weightPerSegment, now);
+        }
     }
 
-    public Optional<T> get(Integer id) {
-        Optional<T> entity = Optional.ofNullable(cache.get(id));
+    private static long toNanos(Duration duration) {
+        return duration == null || duration.isZero() || duration.isNegative() ? 0 : duration.toNanos();
+    }
+
+    private static int segmentCountFor(int capacity) {
+        int bySize = Math.max(1, capacity / MIN_SEGMENT_CAPACITY);
+        return Integer.highestOneBit(Math.min(MAX_SEGMENTS, bySize));
+    }
+
+    private Segment<T> segmentFor(int id) {
+        int h = id * 0x9E3779B9;
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    // Entries restored from a snapshot and not yet checked against the database are a miss here:
+    // only getOrLoad, which has a loader to revalidate them with, serves them.
+    public Optional<T> get(int id) {
+        return lookup(id, false);
+    }
+
+    private Optional<T> lookup(int id, boolean unverifiedToo) {
+        PendingWrites<T> pending = TransactionBoundState.current(this);
+        Optional<T> entity = pending != null && pending.view.containsKey(id)
+                ? pending.view.get(id)
+                : Optional.ofNullable(segmentFor(id).get(id, ticker.getAsLong(), unverifiedToo));
         if (entity.isPresent()) {
-            logger.info(CACHE_CN + entityName + CACHE_ID + id + " retrieved from cache");
+            stats.recordHit();
+            if (logger.isDebugEnabled()) {
+                logger.debug("{}{}{}{} retrieved from cache", CACHE_CN, entityName, CACHE_ID, id);
+            }
+        } else {
+            stats.recordMiss();
         }
         return entity;
     }
 
-    public void put(Integer id, T entity) {
-        if (!cache.containsKey(id)) {
-            cache.put(id, entity);
-            logger.info(CACHE_CN + entityName + CACHE_ID + id + " added to cache");
+    public Optional<T> getOrLoad(int id, Function<Integer, Optional<T>> loader) {
+        Optional<T> cached = lookup(id, true);
+        if (cached.isPresent()) {
+            if (unverified.get() > 0 && segmentFor(id).markVerified(id)) {
+                revalidate(id, loader);
+            }
+            return cached;
         }
+        StalePolicy policy = stalePolicy;
+        if (policy != null && !hasPendingWrite(id)) {
+            T stale = segmentFor(id).getStale(id, ticker.getAsLong());
+            if (stale != null) {
+                return refreshOrServeStale(id, loader, stale, policy);
+            }
+        }
+        CompletableFuture<Optional<T>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<T>> inFlight = startLoad(id, load);
+        if (inFlight != null) {
+            logger.debug("{}{}{}{} waiting for in-flight load", CACHE_CN, entityName, CACHE_ID, id);
+            return await(inFlight);
+        }
+        long stamp = writeStamp(id);
+        long start = System.nanoTime();
+        Optional<T> loaded;
+        try {
+            loaded = loader.apply(id);
+        } catch (RuntimeException | Error e) {
+            stats.recordLoad(System.nanoTime() - start, false);
+            recordOutcome(policy, false);
+            finishLoad(id, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+        stats.recordLoad(System.nanoTime() - start, loaded.isPresent());
+        recordOutcome(policy, true);
+        if (loaded.isPresent()) {
+            putLoaded(id, loaded.get(), stamp);
+        }
+        // an evict or update that raced with the load cancelled it; don't keep the stale value
+        if (!finishLoad(id, load) && loaded.isPresent()) {
+            PendingWrites<T> pending = TransactionBoundState.current(this);
+            if (pending != null) {
+                pending.evict(id);
+            }
+            segmentFor(id).remove(id);
+        }
+        load.complete(loaded);
+        return loaded;
+    }
+
+    // In-flight loads live in the id's segment, under its lock, so their keys are never boxed.
+    // Returns the load already in flight, or null if this one was started.
+    private CompletableFuture<Optional<T>> startLoad(int id, CompletableFuture<Optional<T>> load) {
+        return segmentFor(id).startLoad(id, load);
     }
 
-    public void evict(Integer id) {
-        if (cache.containsKey(id)) {
-            cache.remove(id);
-            logger.info(CACHE_CN + entityName + CACHE_ID + id + " removed from cache");
+    private CompletableFuture<Optional<T>> inFlightLoad(int id) {
+        return segmentFor(id).inFlightLoad(id);
+    }
+
+    // false if the load was cancelled by a write in the meantime
+    private boolean finishLoad(int id, CompletableFuture<Optional<T>> load) {
+        return segmentFor(id).finishLoad(id, load);
+    }
+
+    private void cancelLoad(int id) {
+        segmentFor(id).finishLoad(id, null);
+    }
+
+    private boolean hasPendingWrite(int id) {
+        PendingWrites<T> pending = TransactionBoundState.current(this);
+        return pending != null && pending.view.containsKey(id);
+    }
+
+    // Stale-while-revalidate: an expired entry still inside the stale window is refreshed in the
+    // background. The reader waits for the refresh up to the latency budget and gets the stale value
+    // if the database is slower than that, fails, or the circuit breaker has it cut off.
+    private Optional<T> refreshOrServeStale(int id, Function<Integer, Optional<T>> loader, T stale,
+                                            StalePolicy policy) {
+        CompletableFuture<Optional<T>> refresh = refreshInBackground(id, loader, policy);
+        if (refresh != null) {
+            try {
+                return refresh.get(policy.latencyBudget().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                logger.debug("{}{}{}{} refresh did not complete in time, serving stale entry", CACHE_CN,
+                        entityName, CACHE_ID, id);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
+        stats.recordStaleHit();
+        policy.onStaleServed().run();
+        return Optional.of(stale);
     }
 
-    public void update(Integer id, T entity) {
-        if (cache.containsKey(id)) {
-            cache.put(id, entity);
-            logger.info(CACHE_CN + entityName + CACHE_ID + id + " updated in cache");
+    private CompletableFuture<Optional<T>> refreshInBackground(int id, Function<Integer, Optional<T>> loader,
+                                                               StalePolicy policy) {
+        CompletableFuture<Optional<T>> inFlight = inFlightLoad(id);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        if (!policy.breaker().allowRequest()) {
+            return null;
         }
+        CompletableFuture<Optional<T>> load = new CompletableFuture<>();
+        inFlight = startLoad(id, load);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        long stamp = writeStamp(id);
+        try {
+            policy.executor().execute(() -> {
+                long start = System.nanoTime();
+                Optional<T> fresh;
+                try {
+                    fresh = loader.apply(id);
+                } catch (RuntimeException e) {
+                    stats.recordLoad(System.nanoTime() - start, false);
+                    policy.breaker().recordFailure();
+                    finishLoad(id, load);
+                    load.completeExceptionally(e);
+                    logger.warn("{}{}{}{} could not be refreshed", CACHE_CN, entityName, CACHE_ID, id, e);
+                    return;
+                }
+                stats.recordLoad(System.nanoTime() - start, fresh.isPresent());
+                recordOutcome(policy, true);
+                // skip if a write replaced or evicted the entry while we were loading
+                if (finishLoad(id, load) && writeStamp(id) == stamp) {
+                    if (fresh.isPresent()) {
+                        storeNow(id, fresh.get());
+                    } else {
+                        evictNow(id);
+                    }
+                }
+                load.complete(fresh);
+            });
+        } catch (RejectedExecutionException e) {
+            finishLoad(id, load);
+            load.completeExceptionally(e);
+            policy.breaker().recordFailure();
+            return null;
+        }
+        return load;
+    }
+
+    // Only failed loads count against the breaker. A slow load is already covered by serving the
+    // stale entry after the latency budget; counting it too would open the breaker on a merely slow
+    // database and cut off the refreshes that would bring the entries back.
+    private static void recordOutcome(StalePolicy policy, boolean succeeded) {
+        if (policy == null) {
+            return;
+        }
+        if (succeeded) {
+            policy.breaker().recordSuccess();
+        } else {
+            policy.breaker().recordFailure();
+        }
+    }
+
+    // Entries restored from a snapshot are served by getOrLoad straight away and checked against the
+    // database in the background on first use, rather than trusted for their whole TTL. The revalidator
+    // is expected to be bounded and to run the loader the way a request would, e.g. in a transaction.
+    private void revalidate(int id, Function<Integer, Optional<T>> loader) {
+        CompletableFuture<Optional<T>> load = new CompletableFuture<>();
+        if (startLoad(id, load) != null) {
+            return;
+        }
+        revalidator.execute(() -> {
+            Optional<T> fresh;
+            try {
+                fresh = loader.apply(id);
+            } catch (RuntimeException e) {
+                finishLoad(id, load);
+                load.completeExceptionally(e);
+                evictNow(id);
+                logger.warn("{}{}{}{} could not be revalidated, evicting it", CACHE_CN, entityName, CACHE_ID, id, e);
+                return;
+            }
+            // skip if a write replaced the entry while we were loading
+            if (finishLoad(id, load)) {
+                if (fresh.isPresent()) {
+                    updateNow(id, fresh.get());
+                } else {
+                    evictNow(id);
+                }
+            }
+            load.complete(fresh);
+        });
+    }
+
+    public boolean restore(int id, T entity) {
+        if (segmentFor(id).restore(id, entity, ticker.getAsLong())) {
+            stats.recordPut();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(int id) {
+        return segmentFor(id).contains(id, ticker.getAsLong());
+    }
+
+    public void setRevalidator(Executor revalidator) {
+        this.revalidator = revalidator;
+    }
+
+    private static <T> Optional<T> await(CompletableFuture<Optional<T>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void put(int id, T entity) {
+        freeze(entity);
+        PendingWrites<T> pending = pendingWrites();
+        if (pending != null) {
+            pending.put(id, entity);
+        } else {
+            putNow(id, entity);
+        }
+    }
+
+    public void evict(int id) {
+        cancelLoad(id);
+        bumpWriteStamp(id);
+        PendingWrites<T> pending = pendingWrites();
+        if (pending != null) {
+            pending.evict(id);
+        }
+        evictNow(id);
+    }
+
+    public void update(int id, T entity) {
+        freeze(entity);
+        cancelLoad(id);
+        bumpWriteStamp(id);
+        PendingWrites<T> pending = pendingWrites();
+        if (pending != null) {
+            pending.update(id, entity);
+        } else {
+            applyUpdate(id, entity);
+        }
+    }
+
+    // Removes the entry right away, even inside a transaction. For derived entries that must never
+    // outlive their source, where waiting for commit would only keep stale data around longer.
+    public void discard(int id) {
+        cancelLoad(id);
+        evictNow(id);
+    }
+
+    private PendingWrites<T> pendingWrites() {
+        return TransactionBoundState.obtain(this, () -> new PendingWrites<>(this));
+    }
+
+    // values read from the database; writes go through put or update
+    private void putLoaded(int id, T entity, long stamp) {
+        freeze(entity);
+        PendingWrites<T> pending = pendingWrites();
+        if (pending != null) {
+            pending.putLoaded(id, entity, stamp);
+        } else {
+            putIfUnchanged(id, entity, stamp);
+        }
+    }
+
+    private void putIfUnchanged(int id, T entity, long stamp) {
+        if (writeStamp(id) != stamp) {
+            logger.debug("{}{}{}{} changed while loading, not cached", CACHE_CN, entityName, CACHE_ID, id);
+            return;
+        }
+        putNow(id, entity);
+        // an eviction between the check and the put bumped the stamp before removing, so undo ours
+        if (writeStamp(id) != stamp) {
+            segmentFor(id).remove(id);
+        }
+    }
+
+    private long writeStamp(int id) {
+        return writeStamps.get(stampStripe(id));
+    }
+
+    private void bumpWriteStamp(int id) {
+        writeStamps.incrementAndGet(stampStripe(id));
+    }
+
+    private static int stampStripe(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (WRITE_STAMP_STRIPES - 1);
+    }
+
+    private void putNow(int id, T entity) {
+        if (segmentFor(id).putIfAbsent(id, entity, ticker.getAsLong())) {
+            stats.recordPut();
+            logger.debug("{}{}{}{} added to cache", CACHE_CN, entityName, CACHE_ID, id);
+        }
+    }
+
+    private void evictNow(int id) {
+        bumpWriteStamp(id);
+        if (segmentFor(id).remove(id)) {
+            stats.recordInvalidation();
+            logger.debug("{}{}{}{} removed from cache", CACHE_CN, entityName, CACHE_ID, id);
+        }
+    }
+
+    private void storeNow(int id, T entity) {
+        if (segmentFor(id).replace(id, entity, ticker.getAsLong())) {
+            stats.recordUpdate();
+        } else {
+            putNow(id, entity);
+        }
+    }
+
+    private void applyUpdate(int id, T entity) {
+        bumpWriteStamp(id);
+        updateNow(id, entity);
+    }
+
+    private void updateNow(int id, T entity) {
+        if (segmentFor(id).replace(id, entity, ticker.getAsLong())) {
+            stats.recordUpdate();
+            logger.debug("{}{}{}{} updated in cache", CACHE_CN, entityName, CACHE_ID, id);
+        }
+    }
+
+    public void recordLoad(long loadTimeNanos, boolean found) {
+        stats.recordLoad(loadTimeNanos, found);
+    }
+
+    public CacheStatistics getStats() {
+        return stats.snapshot(this);
+    }
+
+    public void resetStats() {
+        stats.reset();
     }
 
     public void clear() {
-        cache.clear();
-        logger.info(CACHE_CN + entityName + " cache cleared");
+        for (int i = 0; i < WRITE_STAMP_STRIPES; i++) {
+            writeStamps.incrementAndGet(i);
+        }
+        for (Segment<T> segment : segments) {
+            segment.clear();
+        }
+        OffHeapStore<T> tier = secondTier;
+        if (tier != null) {
+            tier.clear();
+        }
+        logger.info("{}{} cache cleared", CACHE_CN, entityName);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long weightBytes() {
+        long weight = 0;
+        for (Segment<T> segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    public int getCapacity() {
+        return scaled(capacity);
+    }
+
+    public long getMaxWeightBytes() {
+        return maxWeightBytes > 0 ? Math.max(1, (long) (maxWeightBytes * scale)) : 0;
+    }
+
+    public int getConfiguredCapacity() {
+        return capacity;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    // Shrinks or grows the entry and weight limits to a fraction of the configured ones. Entries over
+    // the new limits are evicted (or demoted to the second tier) right away, oldest first.
+    public synchronized void resize(double newScale) {
+        if (!(newScale > 0 && newScale <= 1)) {
+            throw new IllegalArgumentException("Cache scale must be in (0, 1]");
+        }
+        double previous = scale;
+        if (previous == newScale) {
+            return;
+        }
+        scale = newScale;
+        applyLimits(scaled(capacity), getMaxWeightBytes(), ticker.getAsLong());
+        stats.recordResize();
+        logger.info("{}{} cache resized from {}% to {}% of its configured size, {} entries cached", CACHE_CN,
+                entityName, Math.round(previous * 100), Math.round(newScale * 100), size());
+    }
+
+    // Replaces the configured entry limit; any memory-pressure scale still applies on top of it
+    public synchronized void setCapacity(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        int previous = capacity;
+        capacity = maxEntries;
+        applyLimits(scaled(maxEntries), getMaxWeightBytes(), ticker.getAsLong());
+        stats.recordResize();
+        logger.info("{}{} cache capacity changed from {} to {} entries, {} entries cached", CACHE_CN, entityName,
+                previous, maxEntries, size());
+    }
+
+    // null or zero disables that expiry; cached entries are judged by the new values on their next read
+    public void setExpiry(Duration expireAfterWrite, Duration expireAfterAccess) {
+        expireAfterWriteNanos = toNanos(expireAfterWrite);
+        expireAfterAccessNanos = toNanos(expireAfterAccess);
+        logger.info("{}{} cache expiry changed to {} after write and {} after access", CACHE_CN, entityName,
+                getExpireAfterWrite(), getExpireAfterAccess());
+    }
+
+    public Duration getExpireAfterWrite() {
+        return Duration.ofNanos(expireAfterWriteNanos);
+    }
+
+    public Duration getExpireAfterAccess() {
+        return Duration.ofNanos(expireAfterAccessNanos);
+    }
+
+    private int scaled(int limit) {
+        return Math.max(segments.length, (int) (limit * scale));
+    }
+
+    // ids of the live entries in both tiers, ascending; values are never touched or decoded
+    public List<Integer> keys() {
+        long now = ticker.getAsLong();
+        List<Integer> keys = new ArrayList<>();
+        for (Segment<T> segment : segments) {
+            segment.copyKeysInto(keys, now);
+        }
+        OffHeapStore<T> tier = secondTier;
+        if (tier != null) {
+            tier.copyKeysInto(keys);
+        }
+        keys.sort(null);
+        return keys;
+    }
+
+    // the pinned keys, hottest first
+    public List<HotKey> hotKeys() {
+        List<HotKey> hot = new ArrayList<>();
+        for (Segment<T> segment : segments) {
+            segment.copyHotKeysInto(hot);
+        }
+        hot.sort(Comparator.comparingInt(HotKey::frequency).reversed().thenComparingInt(HotKey::id));
+        return hot;
     }
 
     public Map<Integer, T> getAllCachedItems() {
-        return new LinkedHashMap<>(cache);
+        long now = ticker.getAsLong();
+        Map<Integer, T> items = new LinkedHashMap<>();
+        for (Segment<T> segment : segments) {
+            segment.copyInto(items, now);
+        }
+        OffHeapStore<T> tier = secondTier;
+        if (tier != null) {
+            tier.copyInto(items);
+        }
+        return items;
     }
 
     public String getCacheInfo() {
-        if (cache.isEmpty()) {
+        Map<Integer, T> items = getAllCachedItems();
+        if (items.isEmpty()) {
             return entityName + " cache is empty";
         }
-        StringBuilder info = new StringBuilder(entityName + " cache contains " + cache.size() + " items:\n");
-        cache.forEach((id, entity) -> info.append("- ID: ")
-                .append(id).append(", Entity: ").append(entity).append("\n"));
-        return info.toString();
+        return entityName + " cache contains " + items.size() + " items, ids: " + items.keySet();
     }
 
     public String getName() {
         return entityName;
     }
-}
\ No newline at end of file
+
+    public void setListener(CacheListener<? super T> listener) {
+        this.listener = listener;
+    }
+
+    // Entries pushed out of the heap by capacity or weight are demoted to the second tier instead of
+    // dropped, and promoted back on their next read. An entry lives in exactly one tier at a time.
+    public void setSecondTier(OffHeapStore<T> secondTier) {
+        secondTier.setEvictionListener(this::notifyRemove);
+        this.secondTier = secondTier;
+    }
+
+    public OffHeapStore<T> getSecondTier() {
+        return secondTier;
+    }
+
+    // Keeps expired entries around for policy.maxStale() so they can stand in while the database is slow
+    public void setStalePolicy(StalePolicy stalePolicy) {
+        this.stalePolicy = stalePolicy;
+    }
+
+    public StalePolicy getStalePolicy() {
+        return stalePolicy;
+    }
+
+    // Applied to every value as it enters the cache, including ones queued until commit, restored from a
+    // snapshot or promoted from the second tier. Cached values are handed to every reader, so the
+    // freezer is expected to make them read-only in place.
+    public void setFreezer(Consumer<? super T> freezer) {
+        this.freezer = freezer;
+    }
+
+    private T freeze(T value) {
+        Consumer<? super T> f = freezer;
+        if (f != null) {
+            f.accept(value);
+        }
+        return value;
+    }
+
+    private void notifyStore(Integer id, T value) {
+        CacheListener<? super T> current = listener;
+        if (current != null) {
+            current.onStore(id, value);
+        }
+    }
+
+    private void notifyRemove(Integer id) {
+        CacheListener<? super T> current = listener;
+        if (current != null) {
+            current.onRemove(id);
+        }
+    }
+
+    private boolean isExpired(Node<T> node, long now) {
+        return isExpired(node, now, 0);
+    }
+
+    // expired and past the stale window, so no longer worth keeping
+    private boolean isDead(Node<T> node, long now) {
+        return isExpired(node, now, staleGraceNanos());
+    }
+
+    private boolean isExpired(Node<T> node, long now, long graceNanos) {
+        return isExpired(node.writeTime, node.accessTime, now, graceNanos);
+    }
+
+    private boolean isExpired(long writeTime, long accessTime, long now, long graceNanos) {
+        return (expireAfterWriteNanos > 0 && now - writeTime >= expireAfterWriteNanos + graceNanos)
+                || (expireAfterAccessNanos > 0 && now - accessTime >= expireAfterAccessNanos + graceNanos);
+    }
+
+    private long staleGraceNanos() {
+        StalePolicy policy = stalePolicy;
+        return policy == null ? 0 : policy.maxStale().toNanos();
+    }
+
+    // Writes made inside a transaction stay visible only to that transaction until it commits.
+    // Evictions also hit the shared segments immediately, so other readers never see the old value
+    // for longer than they would have without a transaction, and are repeated after commit in case
+    // a concurrent reader cached the pre-commit state in between.
+    private static final class PendingWrites<T> extends TransactionBoundState {
+        private final EntityCache<T> cache;
+        private final List<Runnable> writes = new ArrayList<>();
+        private final Map<Integer, Optional<T>> view = new HashMap<>();
+
+        PendingWrites(EntityCache<T> cache) {
+            super(cache);
+            this.cache = cache;
+        }
+
+        void put(Integer id, T entity) {
+            Optional<T> current = view.get(id);
+            if (current == null || current.isEmpty()) {
+                view.put(id, Optional.of(entity));
+            }
+            writes.add(() -> cache.putNow(id, entity));
+        }
+
+        void putLoaded(Integer id, T entity, long stamp) {
+            Optional<T> current = view.get(id);
+            if (current == null || current.isEmpty()) {
+                view.put(id, Optional.of(entity));
+            }
+            writes.add(() -> cache.putIfUnchanged(id, entity, stamp));
+        }
+
+        void update(Integer id, T entity) {
+            view.put(id, Optional.of(entity));
+            writes.add(() -> cache.applyUpdate(id, entity));
+        }
+
+        void evict(Integer id) {
+            view.put(id, Optional.empty());
+            writes.add(() -> cache.evictNow(id));
+        }
+
+        @Override
+        public void afterCommit() {
+            writes.forEach(Runnable::run);
+        }
+    }
+
+    // One per cached entry, about 40 bytes on top of the IntLruMap slot, allocated on every store.
+    private static final class Node<T> {
+        private final T value;
+        private final int weight;
+        private final long writeTime;
+        private long accessTime;
+        private boolean verified = true;
+        private boolean pinned;
+
+        Node(T value, int weight, long now) {
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    // Keys read often enough, by the segment's frequency sketch, are pinned: eviction passes over them
+    // as long as there is an unpinned entry to take instead, so a burst of one-off reads can't push
+    // them out. Pins are capped at hotKeyRatio of the segment and dropped once a key cools down.
+    private static final class Segment<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final IntLruMap<Node<T>> map = new IntLruMap<>();
+        private final IntLruMap<CompletableFuture<Optional<T>>> loads = new IntLruMap<>();
+        private final EntityCache<T> cache;
+        private FrequencySketch sketch;
+        private int maxEntries;
+        private long maxWeight;
+        private long weight;
+        private int maxPinned;
+        private int pinned;
+
+        Segment(EntityCache<T> cache) {
+            this.cache = cache;
+        }
+
+        void setLimits(int maxEntries, long maxWeight, long now) {
+            lock.lock();
+            try {
+                this.maxEntries = maxEntries;
+                this.maxWeight = maxWeight;
+                if (cache.hotKeyRatio > 0) {
+                    if (sketch == null) {
+                        sketch = new FrequencySketch(maxEntries);
+                    }
+                    maxPinned = Math.min(maxEntries - 1, (int) (maxEntries * cache.hotKeyRatio));
+                    if (pinned > maxPinned) {
+                        // still-hot keys are pinned again on their next read
+                        unpinIf(id -> true);
+                    }
+                }
+                evictIfNeeded(now);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        T get(int id, long now, boolean unverifiedToo) {
+            lock.lock();
+            try {
+                recordAccess(id);
+                Node<T> node = map.get(id);
+                if (node == null) {
+                    return promote(id, now);
+                }
+                if (!node.verified && !unverifiedToo) {
+                    return null;
+                }
+                if (cache.isExpired(node, now)) {
+                    if (cache.isDead(node, now)) {
+                        removeNode(id);
+                        cache.stats.recordExpiration();
+                    }
+                    return null;
+                }
+                node.accessTime = now;
+                pinIfHot(id, node);
+                return node.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        CompletableFuture<Optional<T>> startLoad(int id, CompletableFuture<Optional<T>> load) {
+            lock.lock();
+            try {
+                CompletableFuture<Optional<T>> inFlight = loads.get(id);
+                if (inFlight == null) {
+                    loads.put(id, load);
+                }
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        CompletableFuture<Optional<T>> inFlightLoad(int id) {
+            lock.lock();
+            try {
+                return loads.get(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // removes the given load, or whichever load is in flight if it is null
+        boolean finishLoad(int id, CompletableFuture<Optional<T>> load) {
+            lock.lock();
+            try {
+                CompletableFuture<Optional<T>> inFlight = loads.get(id);
+                if (inFlight == null || (load != null && inFlight != load)) {
+                    return false;
+                }
+                loads.remove(id);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        T getStale(int id, long now) {
+            lock.lock();
+            try {
+                Node<T> node = map.get(id);
+                return node == null || cache.isDead(node, now) ? null : node.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean putIfAbsent(int id, T entity, long now) {
+            lock.lock();
+            try {
+                Node<T> existing = map.get(id);
+                if (existing != null) {
+                    if (!cache.isExpired(existing, now)) {
+                        return false;
+                    }
+                    cache.stats.recordExpiration();
+                }
+                store(id, entity, now);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean restore(int id, T entity, long now) {
+            lock.lock();
+            try {
+                OffHeapStore<T> tier = cache.secondTier;
+                if (map.containsKey(id) || (tier != null && tier.contains(id))) {
+                    return false;
+                }
+                Node<T> node = store(id, entity, now);
+                if (map.get(id) == node) {
+                    node.verified = false;
+                    cache.unverified.incrementAndGet();
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean markVerified(int id) {
+            lock.lock();
+            try {
+                Node<T> node = map.get(id);
+                if (node == null || node.verified) {
+                    return false;
+                }
+                node.verified = true;
+                cache.unverified.decrementAndGet();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean contains(int id, long now) {
+            lock.lock();
+            try {
+                Node<T> node = map.get(id);
+                if (node == null) {
+                    OffHeapStore<T> tier = cache.secondTier;
+                    return tier != null && tier.contains(id,
+                            (writeTime, accessTime) -> !cache.isExpired(writeTime, accessTime, now, 0));
+                }
+                return !cache.isExpired(node, now);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean replace(int id, T entity, long now) {
+            lock.lock();
+            try {
+                Node<T> existing = map.get(id);
+                if (existing == null) {
+                    // same rule as on the heap: a demoted copy past the stale window is not replaced
+                    OffHeapStore<T> tier = cache.secondTier;
+                    long grace = cache.staleGraceNanos();
+                    if (tier != null && tier.contains(id,
+                            (writeTime, accessTime) -> !cache.isExpired(writeTime, accessTime, now, grace))) {
+                        store(id, entity, now);
+                        return true;
+                    }
+                    return false;
+                }
+                if (cache.isDead(existing, now)) {
+                    removeNode(id);
+                    cache.stats.recordExpiration();
+                    return false;
+                }
+                store(id, entity, now);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(int id) {
+            lock.lock();
+            try {
+                if (removeNode(id) != null) {
+                    return true;
+                }
+                OffHeapStore<T> tier = cache.secondTier;
+                if (tier != null && tier.remove(id)) {
+                    cache.notifyRemove(id);
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                map.forEach((id, node) -> {
+                    forget(node);
+                    cache.notifyRemove(id);
+                });
+                map.clear();
+                loads.clear();
+                weight = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long weight() {
+            lock.lock();
+            try {
+                return weight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void copyInto(Map<Integer, T> target, long now) {
+            lock.lock();
+            try {
+                map.forEach((id, node) -> {
+                    if (!cache.isExpired(node, now)) {
+                        target.put(id, node.value);
+                    }
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void copyHotKeysInto(List<HotKey> target) {
+            lock.lock();
+            try {
+                map.forEach((id, node) -> {
+                    if (node.pinned) {
+                        target.add(new HotKey(id, sketch.frequency(id)));
+                    }
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void copyKeysInto(List<Integer> target, long now) {
+            lock.lock();
+            try {
+                map.forEach((id, node) -> {
+                    if (!cache.isExpired(node, now)) {
+                        target.add(id);
+                    }
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Node<T> store(int id, T entity, long now) {
+            Node<T> node = new Node<>(cache.freeze(entity), Math.max(0, cache.weigher.applyAsInt(entity)), now);
+            insert(id, node, now);
+            return node;
+        }
+
+        private void insert(int id, Node<T> node, long now) {
+            Node<T> previous = map.put(id, node);
+            if (previous != null) {
+                forget(previous);
+            }
+            weight += node.weight;
+            pinIfHot(id, node);
+            // drop any demoted copy before notifying, so a second-tier eviction can't undo the notification
+            OffHeapStore<T> tier = cache.secondTier;
+            if (tier != null) {
+                tier.remove(id);
+            }
+            cache.notifyStore(id, node.value);
+            evictIfNeeded(now);
+        }
+
+        private T promote(int id, long now) {
+            OffHeapStore<T> tier = cache.secondTier;
+            OffHeapStore.Stored<T> stored = tier == null ? null : tier.take(id);
+            if (stored == null) {
+                return null;
+            }
+            T value = cache.freeze(stored.value());
+            Node<T> node = new Node<>(value, Math.max(0, cache.weigher.applyAsInt(value)), stored.writeTime());
+            node.accessTime = stored.accessTime();
+            if (cache.isDead(node, now)) {
+                cache.notifyRemove(id);
+                cache.stats.recordExpiration();
+                return null;
+            }
+            // a stale entry goes back on the heap, where getStale can still find it
+            boolean expired = cache.isExpired(node, now);
+            if (!expired) {
+                node.accessTime = now;
+            }
+            insert(id, node, now);
+            return expired ? null : node.value;
+        }
+
+        private Node<T> removeNode(int id) {
+            Node<T> removed = map.remove(id);
+            if (removed != null) {
+                forget(removed);
+                cache.notifyRemove(id);
+            }
+            return removed;
+        }
+
+        // the second tier has no verified flag, so an unchecked snapshot entry is dropped instead
+        private boolean demote(int id, Node<T> node) {
+            OffHeapStore<T> tier = cache.secondTier;
+            return tier != null && node.verified && tier.put(id, node.value, node.writeTime, node.accessTime);
+        }
+
+        private void forget(Node<T> node) {
+            weight -= node.weight;
+            if (!node.verified) {
+                cache.unverified.decrementAndGet();
+            }
+            if (node.pinned) {
+                pinned--;
+            }
+        }
+
+        private void recordAccess(int id) {
+            if (sketch != null && sketch.increment(id)) {
+                unpinIf(key -> sketch.frequency(key) < cache.hotKeyThreshold);
+            }
+        }
+
+        private void pinIfHot(int id, Node<T> node) {
+            if (sketch != null && !node.pinned && pinned < maxPinned
+                    && sketch.frequency(id) >= cache.hotKeyThreshold) {
+                node.pinned = true;
+                pinned++;
+            }
+        }
+
+        private void unpinIf(IntPredicate condition) {
+            map.forEach((id, node) -> {
+                if (node.pinned && condition.test(id)) {
+                    node.pinned = false;
+                    pinned--;
+                }
+            });
+        }
+
+        private void evictIfNeeded(long now) {
+            while (map.size() > 1) {
+                Node<T> node = map.eldestValue();
+                boolean overCapacity = map.size() > maxEntries || (maxWeight > 0 && weight > maxWeight);
+                boolean expired = cache.isDead(node, now);
+                if (!overCapacity && !expired) {
+                    break;
+                }
+                int id = map.eldestKey();
+                if (node.pinned && !expired && pinned < map.size()) {
+                    map.get(id);
+                    continue;
+                }
+                forget(node);
+                map.removeEldest();
+                if (expired) {
+                    cache.notifyRemove(id);
+                    cache.stats.recordExpiration();
+                } else if (!demote(id, node)) {
+                    cache.notifyRemove(id);
+                    cache.stats.recordEviction();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.artshop.service.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// Answers "definitely absent" for keys that were never added. Removals can't be expressed in a
+// Bloom filter, so deleted keys linger until the next rebuild from the database.
+//
+// A key must never go missing from a rebuilt filter. Adds are therefore repeated after commit:
+// a row committed before the rebuild query starts is seen by the query, and one committed later
+// re-adds itself to the filter being built, because that filter is published before the query runs.
+public class ExistenceFilter {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String name;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+    private volatile BloomFilter current;
+    private BloomFilter building;
+    private volatile long builtAt;
+
+    public ExistenceFilter(String name, long minExpectedInsertions, double falsePositiveRate) {
+        this.name = name;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public static long hash(int key) {
+        return mix(key * 0x9E3779B97F4A7C15L);
+    }
+
+    public static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // until the first build completes everything might exist
+    public boolean mightContain(long hash) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(hash);
+    }
+
+    public void add(long hash) {
+        addNow(hash);
+        PendingAdds pending = TransactionBoundState.obtain(this, () -> new PendingAdds(this));
+        if (pending != null) {
+            pending.hashes.add(hash);
+        }
+    }
+
+    private void addNow(long hash) {
+        lock.readLock().lock();
+        try {
+            if (current != null) {
+                current.put(hash);
+            }
+            if (building != null) {
+                building.put(hash);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild(long expectedCount, Consumer<LongConsumer> keys) {
+        BloomFilter filter = new BloomFilter(Math.max(minExpectedInsertions, expectedCount * 2), falsePositiveRate);
+        lock.writeLock().lock();
+        try {
+            building = filter;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            keys.accept(filter::put);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                building = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            current = filter;
+            building = null;
+            builtAt = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isBuilt() {
+        return current != null;
+    }
+
+    // past its sized capacity the false-positive rate climbs above the configured bound
+    public boolean isSaturated() {
+        BloomFilter filter = current;
+        return filter != null && filter.getInsertions() > filter.getExpectedInsertions();
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double expectedFalsePositiveRate() {
+        BloomFilter filter = current;
+        return filter == null ? 1 : filter.expectedFalsePositiveRate();
+    }
+
+    private static final class PendingAdds extends TransactionBoundState {
+        private final ExistenceFilter filter;
+        private final List<Long> hashes = new ArrayList<>();
+
+        PendingAdds(ExistenceFilter filter) {
+            super(filter);
+            this.filter = filter;
+        }
+
+        @Override
+        public void afterCommit() {
+            hashes.forEach(filter::addNow);
+        }
+    }
+}
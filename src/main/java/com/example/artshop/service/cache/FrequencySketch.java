@@ -0,0 +1,76 @@
+package com.example.artshop.service.cache;
+
+// Count-min sketch of recent access frequencies with 4-bit counters, sixteen to a long. Each key maps
+// to one counter in each of four rows and its estimate is the smallest of them, so collisions can only
+// overestimate. After sampleSize increments every counter is halved, which lets keys that stopped
+// being read cool down instead of staying hot forever.
+// Not thread-safe; segments guard it with their lock.
+final class FrequencySketch {
+    static final int MAX_FREQUENCY = 15;
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x97CB3127D1B5A7F3L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final long HALF_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(8, Math.min(1 << 24, expectedEntries) - 1)) << 1;
+        this.table = new long[width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(8, expectedEntries);
+    }
+
+    int frequency(int key) {
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < DEPTH; row++) {
+            long hash = hash(key, row);
+            frequency = Math.min(frequency, (int) (table[index(hash)] >>> shift(hash)) & 0xF);
+        }
+        return frequency;
+    }
+
+    // returns true when this increment triggered the periodic halving
+    boolean increment(int key) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            long hash = hash(key, row);
+            int index = index(hash);
+            int shift = shift(hash);
+            if (((table[index] >>> shift) & 0xF) < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            halve();
+            return true;
+        }
+        return false;
+    }
+
+    private void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & HALF_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long hash(int key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        return hash ^ (hash >>> 31);
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & mask;
+    }
+
+    // which of the sixteen counters in the long, in bits
+    private static int shift(long hash) {
+        return ((int) hash & 0xF) << 2;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.artshop.service.cache;
+
+// frequency is the sketch's estimate of recent reads, capped at 15
+public record HotKey(int id, int frequency) {
+}
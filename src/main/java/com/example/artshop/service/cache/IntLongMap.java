@@ -0,0 +1,150 @@
+package com.example.artshop.service.cache;
+
+import java.util.Arrays;
+
+// int -> long map for the off-heap index. Same open addressing as IntLruMap, without the LRU links:
+// an entry costs 12 bytes per slot and neither the id nor the position is ever boxed.
+// Values must not be negative; MISSING marks a free slot and is what get and remove return for an
+// absent key. Not thread-safe; OffHeapStore guards it with its lock.
+final class IntLongMap {
+    static final long MISSING = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    IntLongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    IntLongMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    long get(int key) {
+        int slot = find(key);
+        return slot < 0 ? MISSING : values[slot];
+    }
+
+    boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    long put(int key, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        int slot = slotFor(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            resize();
+        }
+        return MISSING;
+    }
+
+    long remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return MISSING;
+        }
+        long removed = values[slot];
+        removeSlot(slot);
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // in slot order, which is no particular order
+    void forEach(EntryConsumer action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != MISSING) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, MISSING);
+        size = 0;
+    }
+
+    private int slotFor(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int find(int key) {
+        int slot = slotFor(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // backward-shift deletion, as in IntLruMap
+    private void removeSlot(int slot) {
+        size--;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != MISSING) {
+            int home = slotFor(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = MISSING;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(values.length * 2);
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != MISSING) {
+                int target = slotFor(oldKeys[slot]);
+                while (values[target] != MISSING) {
+                    target = (target + 1) & mask;
+                }
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+        resizeAt = capacity / 2;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.min(1 << 30, Math.max(MIN_CAPACITY, (long) expectedSize * 2 + 1));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
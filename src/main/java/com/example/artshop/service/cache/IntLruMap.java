@@ -0,0 +1,249 @@
+package com.example.artshop.service.cache;
+
+import java.util.Arrays;
+
+// Access-ordered int -> V map for the cache segments. Open addressing with linear probing, and the
+// LRU list threaded through the same slots as int links, so a lookup never boxes the key or
+// allocates. It is not smaller than a LinkedHashMap: a slot is 16 bytes and the table is kept at
+// most half full, so an entry takes 32 to 64 bytes of table against about 60 for a LinkedHashMap
+// entry, its bucket and the boxed key; the value itself is still a separate object. Removal shifts
+// the rest of the probe run back, which makes put-and-evict slower than in a LinkedHashMap.
+// Not thread-safe; segments guard it with their lock. Null values are not allowed.
+final class IntLruMap<V> {
+    private static final int NONE = -1;
+    private static final int MIN_CAPACITY = 16;
+    private static final int KEY = 0;
+    private static final int BEFORE = 1;
+    private static final int AFTER = 2;
+
+    // key, previous slot and next slot side by side, so one cache line serves a slot's bookkeeping
+    private int[] meta;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private int head = NONE;
+    private int tail = NONE;
+
+    IntLruMap() {
+        this(MIN_CAPACITY);
+    }
+
+    IntLruMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    // moves the entry to the most recently used end, like LinkedHashMap.get in access order
+    V get(int key) {
+        int slot = find(key);
+        if (slot == NONE) {
+            return null;
+        }
+        moveToTail(slot);
+        return value(slot);
+    }
+
+    boolean containsKey(int key) {
+        return find(key) != NONE;
+    }
+
+    V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int slot = slotFor(key);
+        while (values[slot] != null) {
+            if (meta[3 * slot + KEY] == key) {
+                V previous = value(slot);
+                values[slot] = value;
+                moveToTail(slot);
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        meta[3 * slot + KEY] = key;
+        values[slot] = value;
+        link(slot);
+        if (++size > resizeAt) {
+            resize();
+        }
+        return null;
+    }
+
+    V remove(int key) {
+        int slot = find(key);
+        if (slot == NONE) {
+            return null;
+        }
+        V removed = value(slot);
+        removeSlot(slot);
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int eldestKey() {
+        if (head == NONE) {
+            throw new IllegalStateException("Map is empty");
+        }
+        return meta[3 * head + KEY];
+    }
+
+    V eldestValue() {
+        return head == NONE ? null : value(head);
+    }
+
+    void removeEldest() {
+        if (head != NONE) {
+            removeSlot(head);
+        }
+    }
+
+    // least recently used first
+    void forEach(EntryConsumer<? super V> action) {
+        for (int slot = head; slot != NONE; slot = meta[3 * slot + AFTER]) {
+            action.accept(meta[3 * slot + KEY], value(slot));
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        head = NONE;
+        tail = NONE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    private int slotFor(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int find(int key) {
+        int slot = slotFor(key);
+        while (values[slot] != null) {
+            if (meta[3 * slot + KEY] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private void link(int slot) {
+        meta[3 * slot + BEFORE] = tail;
+        meta[3 * slot + AFTER] = NONE;
+        if (tail == NONE) {
+            head = slot;
+        } else {
+            meta[3 * tail + AFTER] = slot;
+        }
+        tail = slot;
+    }
+
+    private void unlink(int slot) {
+        int prev = meta[3 * slot + BEFORE];
+        int next = meta[3 * slot + AFTER];
+        if (prev == NONE) {
+            head = next;
+        } else {
+            meta[3 * prev + AFTER] = next;
+        }
+        if (next == NONE) {
+            tail = prev;
+        } else {
+            meta[3 * next + BEFORE] = prev;
+        }
+    }
+
+    private void moveToTail(int slot) {
+        if (slot != tail) {
+            unlink(slot);
+            link(slot);
+        }
+    }
+
+    // backward-shift deletion: later entries of the probe run move up so lookups never need tombstones
+    private void removeSlot(int slot) {
+        unlink(slot);
+        size--;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = slotFor(meta[3 * next + KEY]);
+            // move the entry into the gap unless its home slot lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                relocate(next, gap);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    private void relocate(int from, int to) {
+        meta[3 * to + KEY] = meta[3 * from + KEY];
+        values[to] = values[from];
+        int prev = meta[3 * from + BEFORE];
+        int next = meta[3 * from + AFTER];
+        meta[3 * to + BEFORE] = prev;
+        meta[3 * to + AFTER] = next;
+        if (prev == NONE) {
+            head = to;
+        } else {
+            meta[3 * prev + AFTER] = to;
+        }
+        if (next == NONE) {
+            tail = to;
+        } else {
+            meta[3 * next + BEFORE] = to;
+        }
+    }
+
+    private void resize() {
+        int[] oldMeta = meta;
+        Object[] oldValues = values;
+        int oldHead = head;
+        allocate(values.length * 2);
+        size = 0;
+        head = NONE;
+        tail = NONE;
+        for (int slot = oldHead; slot != NONE; slot = oldMeta[3 * slot + AFTER]) {
+            int key = oldMeta[3 * slot + KEY];
+            int target = slotFor(key);
+            while (values[target] != null) {
+                target = (target + 1) & mask;
+            }
+            meta[3 * target + KEY] = key;
+            values[target] = oldValues[slot];
+            link(target);
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        meta = new int[3 * capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 2;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.min(1 << 30, Math.max(MIN_CAPACITY, (long) expectedSize * 2 + 1));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.artshop.service.cache;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Scales a set of caches with heap occupancy measured after garbage collection, which is the part
+// of the heap that is actually live. Above the high watermark the caches are halved, down to the
+// minimum scale; below the low watermark they grow back a step per collection. The gap between the
+// two watermarks keeps the caches from flapping between sizes.
+public class MemoryPressureMonitor {
+    private static final double SHRINK_FACTOR = 0.5;
+    private static final double GROW_FACTOR = 1.25;
+
+    private final List<EntityCache<?>> caches;
+    private final double highWatermark;
+    private final double lowWatermark;
+    private final double minScale;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::handleNotification;
+    private final Logger logger = LoggerFactory.getLogger(MemoryPressureMonitor.class);
+    private volatile Set<String> heapPools = Set.of();
+    private double scale = 1;
+
+    public MemoryPressureMonitor(List<EntityCache<?>> caches, double highWatermark, double lowWatermark,
+                                 double minScale) {
+        if (!(0 < lowWatermark && lowWatermark < highWatermark && highWatermark < 1)) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 < low < high < 1");
+        }
+        if (!(minScale > 0 && minScale <= 1)) {
+            throw new IllegalArgumentException("Minimum cache scale must be in (0, 1]");
+        }
+        this.caches = List.copyOf(caches);
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.minScale = minScale;
+    }
+
+    public synchronized void start() {
+        if (!emitters.isEmpty()) {
+            return;
+        }
+        heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        // collection usage thresholds catch pools that fill up between the collections we hear about
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * highWatermark));
+            }
+        }
+        register(ManagementFactory.getMemoryMXBean());
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            register(collector);
+        }
+        logger.info("Watching heap occupancy for {} caches, shrinking above {}% and growing below {}%",
+                caches.size(), Math.round(highWatermark * 100), Math.round(lowWatermark * 100));
+    }
+
+    public synchronized void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // already gone
+            }
+        }
+        emitters.clear();
+    }
+
+    public synchronized double getScale() {
+        return scale;
+    }
+
+    // returns the scale the caches were left at
+    public synchronized double onOccupancy(double occupancy) {
+        double target = scale;
+        if (occupancy >= highWatermark) {
+            target = Math.max(minScale, scale * SHRINK_FACTOR);
+        } else if (occupancy <= lowWatermark) {
+            target = Math.min(1, scale * GROW_FACTOR);
+        }
+        if (target != scale) {
+            logger.info("Heap occupancy after GC is {}%, scaling caches to {}%", Math.round(occupancy * 100),
+                    Math.round(target * 100));
+            scale = target;
+            for (EntityCache<?> cache : caches) {
+                cache.resize(target);
+            }
+        }
+        return scale;
+    }
+
+    private void register(Object bean) {
+        if (bean instanceof NotificationEmitter emitter) {
+            emitter.addNotificationListener(listener, null, null);
+            emitters.add(emitter);
+        }
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        try {
+            switch (notification.getType()) {
+                case GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION -> {
+                    GarbageCollectionNotificationInfo info =
+                            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                    onOccupancy(heapOccupancy(info.getGcInfo().getMemoryUsageAfterGc()));
+                }
+                case MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED -> onOccupancy(highWatermark);
+                default -> {
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not handle memory notification {}", notification.getType(), e);
+        }
+    }
+
+    private double heapOccupancy(Map<String, MemoryUsage> usageAfterGc) {
+        Set<String> heapPools = this.heapPools;
+        long used = usageAfterGc.entrySet().stream()
+                .filter(entry -> heapPools.contains(entry.getKey()))
+                .mapToLong(entry -> entry.getValue().getUsed())
+                .sum();
+        return (double) used / Runtime.getRuntime().maxMemory();
+    }
+}
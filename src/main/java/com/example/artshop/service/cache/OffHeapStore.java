@@ -0,0 +1,275 @@
+package com.example.artshop.service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Serialized entries live in a single direct buffer used as a ring log: records are appended at
+// the tail and the oldest ones are dropped from the head when space runs out (FIFO eviction).
+// Records that were removed or rewritten stay in the log as dead bytes until the head passes them.
+// Positions are tracked as ever-increasing logical offsets; the physical offset is position % capacity.
+public class OffHeapStore<T> {
+    // id, payload length, write time, access time
+    private static final int HEADER_BYTES = 24;
+    private static final int PADDING = -1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final IntLongMap index = new IntLongMap();
+    private final String name;
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final CacheCodec<T> codec;
+    private final Logger logger = LoggerFactory.getLogger(OffHeapStore.class);
+    private IntConsumer evictionListener = id -> {
+    };
+    private long head;
+    private long tail;
+    private long liveBytes;
+    private long evictionCount;
+
+    public OffHeapStore(String name, long capacityBytes, CacheCodec<T> codec) {
+        if (capacityBytes <= HEADER_BYTES || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap capacity must be between " + HEADER_BYTES
+                    + " and " + Integer.MAX_VALUE + " bytes");
+        }
+        this.name = name;
+        this.capacity = (int) capacityBytes;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.codec = codec;
+    }
+
+    record Stored<T>(T value, long writeTime, long accessTime) {
+    }
+
+    interface Freshness {
+        boolean test(long writeTime, long accessTime);
+    }
+
+    void setEvictionListener(IntConsumer evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    boolean put(Integer id, T value, long writeTime, long accessTime) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            codec.write(out, value);
+            out.flush();
+            payload = bytes.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("{}{}{}{} could not be serialized", EntityCache.CACHE_CN, name, EntityCache.CACHE_ID, id, e);
+            return false;
+        }
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > capacity) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            removeEntry(id);
+            int offset = (int) (tail % capacity);
+            // records never wrap around the end of the buffer
+            int padding = capacity - offset < recordBytes ? capacity - offset : 0;
+            while (tail + padding + recordBytes - head > capacity) {
+                if (head == tail) {
+                    tail += padding;
+                    head = tail;
+                    padding = 0;
+                } else {
+                    evictHead();
+                }
+            }
+            if (padding > 0) {
+                if (padding >= HEADER_BYTES) {
+                    buffer.putInt(offset + 4, PADDING);
+                }
+                tail += padding;
+            }
+            offset = (int) (tail % capacity);
+            buffer.putInt(offset, id);
+            buffer.putInt(offset + 4, payload.length);
+            buffer.putLong(offset + 8, writeTime);
+            buffer.putLong(offset + 16, accessTime);
+            buffer.put(offset + HEADER_BYTES, payload);
+            index.put(id, tail);
+            tail += recordBytes;
+            liveBytes += recordBytes;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Stored<T> take(Integer id) {
+        byte[] payload;
+        long writeTime;
+        long accessTime;
+        lock.lock();
+        try {
+            long position = index.remove(id);
+            if (position == IntLongMap.MISSING) {
+                return null;
+            }
+            int offset = (int) (position % capacity);
+            payload = new byte[buffer.getInt(offset + 4)];
+            writeTime = buffer.getLong(offset + 8);
+            accessTime = buffer.getLong(offset + 16);
+            buffer.get(offset + HEADER_BYTES, payload);
+            liveBytes -= HEADER_BYTES + payload.length;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return new Stored<>(codec.read(new DataInputStream(new ByteBufferInputStream(ByteBuffer.wrap(payload)))),
+                    writeTime, accessTime);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("{}{}{}{} could not be deserialized", EntityCache.CACHE_CN, name, EntityCache.CACHE_ID, id, e);
+            return null;
+        }
+    }
+
+    boolean remove(Integer id) {
+        lock.lock();
+        try {
+            return removeEntry(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean contains(Integer id) {
+        lock.lock();
+        try {
+            return index.containsKey(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // reads only the header times, so an expired record is not deserialized just to be rejected
+    boolean contains(Integer id, Freshness fresh) {
+        lock.lock();
+        try {
+            long position = index.get(id);
+            if (position == IntLongMap.MISSING) {
+                return false;
+            }
+            int offset = (int) (position % capacity);
+            return fresh.test(buffer.getLong(offset + 8), buffer.getLong(offset + 16));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void copyInto(Map<Integer, T> target) {
+        Map<Integer, byte[]> payloads = new HashMap<>();
+        lock.lock();
+        try {
+            index.forEach((id, position) -> {
+                int offset = (int) (position % capacity);
+                byte[] payload = new byte[buffer.getInt(offset + 4)];
+                buffer.get(offset + HEADER_BYTES, payload);
+                payloads.put(id, payload);
+            });
+        } finally {
+            lock.unlock();
+        }
+        payloads.forEach((id, payload) -> {
+            try {
+                target.putIfAbsent(id, codec.read(new DataInputStream(new ByteBufferInputStream(ByteBuffer.wrap(payload)))));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("{}{}{}{} could not be deserialized", EntityCache.CACHE_CN, name, EntityCache.CACHE_ID, id, e);
+            }
+        });
+    }
+
+    void copyKeysInto(List<Integer> target) {
+        lock.lock();
+        try {
+            index.forEach((id, position) -> target.add(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            index.forEach((id, position) -> evictionListener.accept(id));
+            index.clear();
+            head = tail;
+            liveBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCapacityBytes() {
+        return capacity;
+    }
+
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean removeEntry(Integer id) {
+        long position = index.remove(id);
+        if (position == IntLongMap.MISSING) {
+            return false;
+        }
+        liveBytes -= HEADER_BYTES + buffer.getInt((int) (position % capacity) + 4);
+        return true;
+    }
+
+    private void evictHead() {
+        int offset = (int) (head % capacity);
+        int remaining = capacity - offset;
+        if (remaining < HEADER_BYTES || buffer.getInt(offset + 4) == PADDING) {
+            head += remaining;
+            return;
+        }
+        int id = buffer.getInt(offset);
+        int recordBytes = HEADER_BYTES + buffer.getInt(offset + 4);
+        if (index.get(id) == head) {
+            index.remove(id);
+            liveBytes -= recordBytes;
+            evictionCount++;
+            evictionListener.accept(id);
+        }
+        head += recordBytes;
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.artshop.service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class QueryCache<T> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<List<String>, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final String name;
+    private volatile int capacity;
+    private volatile long expireAfterWriteNanos;
+    private final Function<? super T, Integer> idOf;
+    private final LongSupplier ticker;
+    private final CacheStats stats = new CacheStats();
+    private final Logger logger = LoggerFactory.getLogger(QueryCache.class);
+    private long generation;
+    private volatile StalePolicy stalePolicy;
+
+    public QueryCache(String name, CacheSettings settings, Function<? super T, Integer> idOf) {
+        this(name, settings, idOf, System::nanoTime);
+    }
+
+    QueryCache(String name, CacheSettings settings, Function<? super T, Integer> idOf, LongSupplier ticker) {
+        if (settings.getMaxEntries() <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.name = name;
+        this.capacity = settings.getMaxEntries();
+        Duration ttl = settings.getExpireAfterWrite();
+        this.expireAfterWriteNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? 0 : ttl.toNanos();
+        this.idOf = idOf;
+        this.ticker = ticker;
+    }
+
+    public static List<String> key(String... terms) {
+        return Arrays.stream(terms)
+                .map(term -> term == null ? "" : term.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    public List<T> get(List<String> key, Supplier<List<T>> loader) {
+        long now = ticker.getAsLong();
+        long observedGeneration;
+        StalePolicy policy = stalePolicy;
+        List<T> stale = null;
+        lock.lock();
+        try {
+            Entry<T> entry = entries.get(key);
+            if (entry != null && !isExpired(entry, now, 0)) {
+                stats.recordHit();
+                logger.debug("[CACHE] {} query {} served from cache", name, key);
+                return entry.results;
+            }
+            if (entry != null) {
+                if (policy != null && !isExpired(entry, now, policy.maxStale().toNanos())) {
+                    stale = entry.results;
+                } else {
+                    entries.remove(key);
+                    stats.recordExpiration();
+                }
+            }
+            stats.recordMiss();
+            observedGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        // a transaction that wrote to this cache's rows must read its own writes, not an old result
+        if (stale != null && TransactionBoundState.current(this) == null) {
+            return refreshOrServeStale(key, loader, stale, policy, observedGeneration, now);
+        }
+        long start = System.nanoTime();
+        List<T> results;
+        try {
+            results = List.copyOf(loader.get());
+        } catch (RuntimeException e) {
+            stats.recordLoad(System.nanoTime() - start, false);
+            recordOutcome(policy, false);
+            throw e;
+        }
+        stats.recordLoad(System.nanoTime() - start, true);
+        recordOutcome(policy, true);
+        store(key, results, observedGeneration, now);
+        return results;
+    }
+
+    // Same scheme as EntityCache: refresh in the background, wait for it up to the latency budget,
+    // and fall back to the expired result when the database is slow, failing or cut off by the breaker.
+    private List<T> refreshOrServeStale(List<String> key, Supplier<List<T>> loader, List<T> stale,
+                                        StalePolicy policy, long observedGeneration, long now) {
+        if (policy.breaker().allowRequest()) {
+            CompletableFuture<List<T>> refresh = new CompletableFuture<>();
+            try {
+                policy.executor().execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        List<T> results = List.copyOf(loader.get());
+                        stats.recordLoad(System.nanoTime() - start, true);
+                        recordOutcome(policy, true);
+                        store(key, results, observedGeneration, now);
+                        refresh.complete(results);
+                    } catch (RuntimeException e) {
+                        stats.recordLoad(System.nanoTime() - start, false);
+                        policy.breaker().recordFailure();
+                        refresh.completeExceptionally(e);
+                        logger.warn("[CACHE] {} query {} could not be refreshed", name, key, e);
+                    }
+                });
+                return refresh.get(policy.latencyBudget().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                logger.debug("[CACHE] {} query {} refresh did not complete in time, serving stale results", name, key);
+            } catch (RejectedExecutionException e) {
+                policy.breaker().recordFailure();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        stats.recordStaleHit();
+        policy.onStaleServed().run();
+        return stale;
+    }
+
+    private void store(List<String> key, List<T> results, long observedGeneration, long now) {
+        Set<Integer> ids = results.stream().map(idOf).collect(Collectors.toUnmodifiableSet());
+        lock.lock();
+        try {
+            // a write invalidated queries while we were loading, so this result may already be stale;
+            // a transaction that wrote to this cache's rows may see uncommitted data, so don't share it either
+            if (observedGeneration == generation && TransactionBoundState.current(this) == null) {
+                entries.put(key, new Entry<>(results, ids, now));
+                stats.recordPut();
+                evictIfNeeded();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // as in EntityCache, only failures count against the breaker, not slow loads
+    private static void recordOutcome(StalePolicy policy, boolean succeeded) {
+        if (policy == null) {
+            return;
+        }
+        if (succeeded) {
+            policy.breaker().recordSuccess();
+        } else {
+            policy.breaker().recordFailure();
+        }
+    }
+
+    public void setStalePolicy(StalePolicy stalePolicy) {
+        this.stalePolicy = stalePolicy;
+    }
+
+    public void invalidateIds(Collection<Integer> ids) {
+        if (!ids.isEmpty()) {
+            invalidateIf(entry -> entry.getValue().ids.stream().anyMatch(ids::contains));
+        }
+    }
+
+    public void invalidateMatching(Predicate<List<String>> matches) {
+        invalidateIf(entry -> matches.test(entry.getKey()));
+    }
+
+    private void invalidateIf(Predicate<Map.Entry<List<String>, Entry<T>>> condition) {
+        PendingInvalidations<T> pending = TransactionBoundState.obtain(this, () -> new PendingInvalidations<>(this));
+        if (pending != null) {
+            pending.conditions.add(condition);
+        }
+        invalidateNow(condition);
+    }
+
+    private void invalidateNow(Predicate<Map.Entry<List<String>, Entry<T>>> condition) {
+        lock.lock();
+        try {
+            generation++;
+            Iterator<Map.Entry<List<String>, Entry<T>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<List<String>, Entry<T>> entry = iterator.next();
+                if (condition.test(entry)) {
+                    iterator.remove();
+                    stats.recordInvalidation();
+                    logger.debug("[CACHE] {} query {} invalidated", name, entry.getKey());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("[CACHE] {} query cache cleared", name);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        lock.lock();
+        try {
+            capacity = maxEntries;
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+        stats.recordResize();
+        logger.info("[CACHE] {} query cache capacity changed to {} entries", name, maxEntries);
+    }
+
+    public Duration getExpireAfterWrite() {
+        return Duration.ofNanos(expireAfterWriteNanos);
+    }
+
+    // null or zero disables expiry; cached results are judged by the new value on their next read
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        expireAfterWriteNanos = expireAfterWrite == null || expireAfterWrite.isNegative() ? 0
+                : expireAfterWrite.toNanos();
+        logger.info("[CACHE] {} query cache expiry changed to {} after write", name, getExpireAfterWrite());
+    }
+
+    // least recently used first; reading the keys does not count as an access
+    public List<List<String>> keys() {
+        long now = ticker.getAsLong();
+        lock.lock();
+        try {
+            return entries.entrySet().stream()
+                    .filter(entry -> !isExpired(entry.getValue(), now, 0))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStatistics getStats() {
+        return stats.snapshot(name, size(), capacity, 0, 0);
+    }
+
+    public void resetStats() {
+        stats.reset();
+    }
+
+    private boolean isExpired(Entry<T> entry, long now, long graceNanos) {
+        return expireAfterWriteNanos > 0 && now - entry.writeTime >= expireAfterWriteNanos + graceNanos;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<List<String>> eldest = entries.keySet().iterator();
+        while (entries.size() > capacity && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            stats.recordEviction();
+        }
+    }
+
+    // Invalidations run immediately and once more after commit, because a concurrent reader
+    // may have cached the pre-commit rows between the write and the commit.
+    private static final class PendingInvalidations<T> extends TransactionBoundState {
+        private final QueryCache<T> cache;
+        private final List<Predicate<Map.Entry<List<String>, Entry<T>>>> conditions = new ArrayList<>();
+
+        PendingInvalidations(QueryCache<T> cache) {
+            super(cache);
+            this.cache = cache;
+        }
+
+        @Override
+        public void afterCommit() {
+            conditions.forEach(cache::invalidateNow);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final List<T> results;
+        private final Set<Integer> ids;
+        private final long writeTime;
+
+        Entry(List<T> results, Set<Integer> ids, long writeTime) {
+            this.results = results;
+            this.ids = ids;
+            this.writeTime = writeTime;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.artshop.service.cache;
+
+// Counters of one Hibernate second-level cache region (entity, collection or query results)
+public class RegionStatistics {
+    private final String name;
+    private final long size;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+
+    public RegionStatistics(String name, long size, long hitCount, long missCount, long putCount) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // -1 when the provider does not report it
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+}
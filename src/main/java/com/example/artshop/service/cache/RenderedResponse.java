@@ -0,0 +1,10 @@
+package com.example.artshop.service.cache;
+
+// Only the bytes and what identifies the DTO they were rendered from, so a cached body never keeps
+// a DTO on the heap after the entity cache dropped or demoted it.
+public record RenderedResponse(int id, long version, byte[] body) {
+
+    public boolean renders(int id, Long version) {
+        return this.id == id && version != null && this.version == version;
+    }
+}
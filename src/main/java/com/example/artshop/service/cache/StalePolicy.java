@@ -0,0 +1,10 @@
+package com.example.artshop.service.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+// How long past expiry an entry may still be served, how long a reader waits for the database
+// before falling back to it, and where the refreshes run.
+public record StalePolicy(Duration maxStale, Duration latencyBudget, CircuitBreaker breaker, Executor executor,
+                          Runnable onStaleServed) {
+}
@@ -0,0 +1,49 @@
+package com.example.artshop.service.cache;
+
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+abstract class TransactionBoundState implements TransactionSynchronization {
+    private final Object key;
+
+    TransactionBoundState(Object key) {
+        this.key = key;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S extends TransactionBoundState> S current(Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        return (S) TransactionSynchronizationManager.getResource(key);
+    }
+
+    static <S extends TransactionBoundState> S obtain(Object key, Supplier<S> factory) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        S state = current(key);
+        if (state == null) {
+            state = factory.get();
+            TransactionSynchronizationManager.bindResource(key, state);
+            TransactionSynchronizationManager.registerSynchronization(state);
+        }
+        return state;
+    }
+
+    @Override
+    public void suspend() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(key);
+    }
+
+    @Override
+    public void resume() {
+        TransactionSynchronizationManager.bindResource(key, this);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(key);
+    }
+}
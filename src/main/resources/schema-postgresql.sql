@@ -0,0 +1,5 @@
+-- Ids used to come from identity columns. Move each pooled sequence past the rows inserted before it
+-- existed, never backwards, so a restart cannot hand out ids that are already taken.
+SELECT setval('art_seq', GREATEST((SELECT last_value FROM art_seq), (SELECT COALESCE(MAX(id), 0) FROM art) + 50));
+SELECT setval('artist_seq', GREATEST((SELECT last_value FROM artist_seq), (SELECT COALESCE(MAX(id), 0) FROM artist) + 50));
+SELECT setval('classification_seq', GREATEST((SELECT last_value FROM classification_seq), (SELECT COALESCE(MAX(id), 0) FROM classification) + 50));
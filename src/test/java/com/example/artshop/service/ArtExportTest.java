@@ -0,0 +1,117 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.BulkProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.model.Art;
+import com.example.artshop.model.Artist;
+import com.example.artshop.repository.ArtRepository;
+import com.example.artshop.repository.ArtistRepository;
+import com.example.artshop.repository.ClassificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ArtExportTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ArtRepository artRepository;
+    private EntityManager entityManager;
+    private ArtService artService;
+
+    @BeforeEach
+    void setUp() {
+        artRepository = mock(ArtRepository.class);
+        entityManager = mock(EntityManager.class);
+        artService = new ArtService(artRepository, mock(ArtistRepository.class),
+                mock(ClassificationRepository.class), mock(CacheService.class), entityManager, objectMapper,
+                new BulkProperties());
+    }
+
+    @Test
+    void testWritesOneJsonLinePerArt() throws Exception {
+        when(artRepository.streamAllWithArtistsAndClassification()).thenReturn(Stream.of(art(1), art(2)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = artService.exportArts(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        ArtDTO first = objectMapper.readValue(lines[0], ArtDTO.class);
+        assertEquals(1, first.getId());
+        assertEquals("Doe", first.getArtists().get(0).getLastName());
+        assertEquals(2, objectMapper.readValue(lines[1], ArtDTO.class).getId());
+    }
+
+    @Test
+    void testClearsPersistenceContextEveryChunkAndClosesStream() throws Exception {
+        Set<Boolean> closed = new HashSet<>();
+        Stream<Art> arts = IntStream.rangeClosed(1, 600).mapToObj(ArtExportTest::art)
+                .onClose(() -> closed.add(true));
+        when(artRepository.streamAllWithArtistsAndClassification()).thenReturn(arts);
+
+        long written = artService.exportArts(new ByteArrayOutputStream());
+
+        assertEquals(600, written);
+        verify(entityManager, times(2)).clear();
+        assertEquals(Set.of(true), closed);
+    }
+
+    // 600 arts by two artists each, so the join fetch spans the 250-row chunk boundaries
+    @Test
+    void testEveryLineKeepsAllItsArtistsAcrossChunks() throws Exception {
+        SessionFactory sessionFactory = CatalogueSessionFactory.build(false);
+        CatalogueSessionFactory.populate(sessionFactory, 600, 7);
+        EntityManager em = sessionFactory.createEntityManager();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            ArtService service = new ArtService(new JpaRepositoryFactory(em).getRepository(ArtRepository.class),
+                    mock(ArtistRepository.class), mock(ClassificationRepository.class), mock(CacheService.class),
+                    em, objectMapper, new BulkProperties());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            em.getTransaction().begin();
+            long written = service.exportArts(out);
+            em.getTransaction().commit();
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(600, written);
+            assertEquals(600, lines.length);
+            Set<Integer> ids = new HashSet<>();
+            for (String line : lines) {
+                ArtDTO art = objectMapper.readValue(line, ArtDTO.class);
+                assertTrue(ids.add(art.getId()), "art " + art.getId() + " exported twice");
+                assertEquals(2, art.getArtists().size(), "artists of art " + art.getId());
+            }
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            em.close();
+            sessionFactory.close();
+        }
+    }
+
+    private static Art art(int id) {
+        Artist artist = new Artist();
+        artist.setId(id);
+        artist.setLastName("Doe");
+        Art art = new Art();
+        art.setId(id);
+        art.setTitle("Art " + id);
+        art.setArtists(new HashSet<>(List.of(artist)));
+        return art;
+    }
+}
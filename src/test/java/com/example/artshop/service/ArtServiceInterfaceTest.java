@@ -19,7 +19,7 @@ class ArtServiceInterfaceTest {
             artServiceInterface.getArtsByArtistName("");
             artServiceInterface.addArt(new ArtDTO());
             artServiceInterface.patchArt(1, new ArtPatchDTO());
-            artServiceInterface.getAllArts();
+            artServiceInterface.getArtsPage(null, null);
             artServiceInterface.getArtById(1);
             artServiceInterface.updateArt(1, new ArtDTO());
             artServiceInterface.getArtsByClassificationId(1);
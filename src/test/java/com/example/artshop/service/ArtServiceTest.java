@@ -1,5 +1,6 @@
 package com.example.artshop.service;
 
+import com.example.artshop.config.BulkProperties;
 import com.example.artshop.constants.ApplicationConstants;
 import com.example.artshop.dto.ArtDTO;
 import com.example.artshop.dto.ArtPatchDTO;
@@ -11,23 +12,38 @@ import com.example.artshop.model.Art;
 import com.example.artshop.model.Artist;
 import com.example.artshop.model.Classification;
 import com.example.artshop.repository.ArtRepository;
+import com.example.artshop.repository.ArtRow;
 import com.example.artshop.repository.ArtistRepository;
 import com.example.artshop.repository.ClassificationRepository;
+import com.example.artshop.service.cache.CacheSettings;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.QueryCache;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mockito.stubbing.Answer;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class ArtServiceTest {
 
     @Mock
@@ -43,18 +59,25 @@ class ArtServiceTest {
     private CacheService cacheService;
 
     @Mock
-    private EntityCache<Art> artCache;
+    private EntityCache<ArtDTO> artCache;
 
     @Mock
-    private EntityCache<Artist> artistCache;
+    private EntityCache<ArtistDTO> artistCache;
 
     @Mock
-    private EntityCache<Classification> classificationCache;
+    private EntityCache<ClassificationDTO> classificationCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties();
 
     @InjectMocks
     private ArtService artService;
 
     private Art art;
+    private ArtRow artRow;
     private ArtDTO artDTO;
     private Artist artist;
     private Classification classification;
@@ -78,6 +101,8 @@ class ArtServiceTest {
         art.setArtists(new HashSet<>(List.of(artist)));
         art.setClassification(classification);
 
+        artRow = new ArtRow(1, "Mona Lisa", 1503, 0L, 1, "Painting", "Oil painting", 0L, 1, "John", null, "Doe", 0L);
+
         artDTO = new ArtDTO();
         artDTO.setId(1);
         artDTO.setTitle("Mona Lisa");
@@ -108,7 +133,7 @@ class ArtServiceTest {
 
         assertNotNull(result);
         assertEquals("Mona Lisa", result.getTitle());
-        verify(artCache).put(1, art);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -177,7 +202,7 @@ class ArtServiceTest {
     @Test
     void testGetArtById_FoundInCache() {
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(1)).thenReturn(Optional.of(art));
+        when(artCache.getOrLoad(eq(1), any())).thenReturn(Optional.of(artDTO));
 
         ArtDTO result = artService.getArtById(1);
 
@@ -188,24 +213,34 @@ class ArtServiceTest {
     @Test
     void testGetArtById_NotFoundInCacheFoundInRepo() {
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(1)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(1)).thenReturn(Optional.of(art));
 
         ArtDTO result = artService.getArtById(1);
 
         assertNotNull(result);
-        verify(artCache).put(1, art);
+        verify(artCache).getOrLoad(eq(1), any());
     }
 
     @Test
     void testGetArtById_NotFound() {
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(1)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(1)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> artService.getArtById(1));
     }
 
+    @Test
+    void testGetArtById_KnownAbsentSkipsRepository() {
+        when(cacheService.getArtCache()).thenReturn(artCache);
+        when(artCache.getOrLoad(eq(9), any())).thenAnswer(loadThrough());
+        when(cacheService.isArtAbsent(9)).thenReturn(true);
+
+        assertThrows(NotFoundException.class, () -> artService.getArtById(9));
+        verify(artRepository, never()).findWithArtistsAndClassificationById(9);
+    }
+
     @Test
     void testUpdateArt_Success() {
         when(artRepository.findWithArtistsById(1)).thenReturn(Optional.of(art));
@@ -217,7 +252,7 @@ class ArtServiceTest {
         ArtDTO result = artService.updateArt(1, artDTO);
 
         assertNotNull(result);
-        verify(artCache).update(1, art);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -267,7 +302,7 @@ class ArtServiceTest {
         artService.deleteArtById(1);
 
         verify(artRepository).delete(artWithArtists);
-        verify(artCache).evict(1);
+        verify(cacheService).invalidateArt(1);
     }
 
     @Test
@@ -289,7 +324,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(artCache).update(1, art);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -306,7 +341,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(classificationCache).update(2, classification);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -327,7 +362,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(artistCache).update(2, newArtist);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -387,18 +422,19 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByClassificationId() {
-        when(artRepository.findByClassificationId(1)).thenReturn(List.of(art));
+        when(artRepository.findRowsByClassificationId(1)).thenReturn(List.of(artRow));
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByClassificationId(1);
 
         assertEquals(1, result.size());
-        verify(artCache).put(1, art);
+        verify(artCache).put(eq(1), any(ArtDTO.class));
     }
 
     @Test
     void testGetArtsByClassificationName() {
-        when(artRepository.findByClassificationNameContainingIgnoreCase("Painting")).thenReturn(List.of(art));
+        when(cacheService.getArtsByClassificationNameCache()).thenReturn(new QueryCache<>("ArtsByClassificationName", new CacheSettings(), ArtDTO::getId));
+        when(artRepository.findRowsByClassificationName("Painting")).thenReturn(List.of(artRow));
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByClassificationName("Painting");
@@ -425,24 +461,14 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByArtistName() {
-        when(artRepository.findByArtistsLastNameContainingIgnoreCase("Doe")).thenReturn(List.of(art));
+        when(cacheService.getArtsByArtistNameCache()).thenReturn(new QueryCache<>("ArtsByArtistName", new CacheSettings(), ArtDTO::getId));
+        when(artRepository.findRowsByArtistLastName("Doe")).thenReturn(List.of(artRow));
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByArtistName("Doe");
 
         assertEquals(1, result.size());
-        verify(artCache).put(1, art);
-    }
-
-    @Test
-    void testGetAllArts() {
-        when(artRepository.findAllWithArtistsAndClassification()).thenReturn(List.of(art));
-        when(cacheService.getArtCache()).thenReturn(artCache);
-
-        List<ArtDTO> result = artService.getAllArts();
-
-        assertEquals(1, result.size());
-        verify(artCache).put(1, art);
+        verify(artCache).put(eq(1), any(ArtDTO.class));
     }
 
     @Test
@@ -450,8 +476,8 @@ class ArtServiceTest {
         List<ArtDTO> dtos = List.of(artDTO);
         when(artRepository.save(any(Art.class))).thenReturn(art);
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(classificationRepository.findByName("Painting")).thenReturn(classification);
-        when(artistRepository.findByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(artist));
+        when(classificationRepository.findAllById(any())).thenReturn(List.of(classification));
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
 
         List<ArtDTO> result = artService.addBulkArts(dtos);
 
@@ -474,6 +500,88 @@ class ArtServiceTest {
         assertThrows(ValidationException.class, () -> artService.addBulkArts(dtos));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAddBulkArts_ResolvesReferencesOncePerChunk() {
+        ArgumentCaptor<Iterable<Classification>> createdClassifications = ArgumentCaptor.forClass(Iterable.class);
+        ArgumentCaptor<Iterable<Artist>> createdArtists = ArgumentCaptor.forClass(Iterable.class);
+        List<ArtDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ArtDTO dto = new ArtDTO();
+            dto.setTitle("Study " + i);
+            ClassificationDTO classificationDTO = new ClassificationDTO();
+            classificationDTO.setName(i % 2 == 0 ? "Painting" : "Etching");
+            classificationDTO.setDescription("Prints");
+            dto.setClassification(classificationDTO);
+            ArtistDTO known = new ArtistDTO();
+            known.setFirstName("John");
+            known.setLastName("Doe");
+            ArtistDTO unknown = new ArtistDTO();
+            unknown.setFirstName("Jane");
+            unknown.setLastName("Doe");
+            dto.setArtists(List.of(known, unknown));
+            dtos.add(dto);
+        }
+        when(classificationRepository.findByNameIn(Set.of("Painting", "Etching"))).thenReturn(List.of(classification));
+        when(artistRepository.findByLastNameIn(Set.of("Doe"))).thenReturn(List.of(artist));
+        when(artRepository.save(any(Art.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cacheService.getArtCache()).thenReturn(artCache);
+
+        List<ArtDTO> result = artService.addBulkArts(dtos);
+
+        assertEquals(5, result.size());
+        verify(classificationRepository).findByNameIn(anyCollection());
+        verify(artistRepository).findByLastNameIn(anyCollection());
+        verify(classificationRepository).saveAll(createdClassifications.capture());
+        verify(artistRepository).saveAll(createdArtists.capture());
+        assertEquals(List.of("Etching"), ((List<Classification>) createdClassifications.getValue()).stream()
+                .map(Classification::getName).toList());
+        assertEquals(List.of("Jane"), ((List<Artist>) createdArtists.getValue()).stream()
+                .map(Artist::getFirstName).toList());
+        verify(classificationRepository, never()).findByName(any());
+        verify(artistRepository, never()).findByFirstNameAndLastName(any(), any());
+        verify(cacheService).invalidateArtQueries(anyCollection());
+        verify(cacheService).refreshArts(anyCollection());
+        verify(cacheService, never()).invalidateQueries(any(Art.class));
+        assertEquals("Painting", result.get(0).getClassification().getName());
+        assertEquals("Etching", result.get(1).getClassification().getName());
+    }
+
+    @Test
+    void testAddBulkArts_UnknownClassificationIdIsCreatedLikeProcessClassification() {
+        artDTO.getClassification().setId(99);
+        when(classificationRepository.findAllById(any())).thenReturn(List.of());
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
+        when(artRepository.save(any(Art.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cacheService.getArtCache()).thenReturn(artCache);
+
+        List<ArtDTO> result = artService.addBulkArts(List.of(artDTO));
+
+        assertEquals("Painting", result.get(0).getClassification().getName());
+        verify(classificationRepository, never()).findByNameIn(anyCollection());
+        verify(classificationRepository).saveAll(any());
+    }
+
+    @Test
+    void testAddBulkArts_UnknownArtistIdFailsBeforeSaving() {
+        when(classificationRepository.findAllById(any())).thenReturn(List.of(classification));
+        when(artistRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(NotFoundException.class, () -> artService.addBulkArts(List.of(artDTO)));
+        verify(artRepository, never()).save(any(Art.class));
+    }
+
+    @Test
+    void testAddBulkArts_RespectsConfiguredLimit() {
+        bulkProperties.setMaxSize(2);
+        List<ArtDTO> dtos = List.of(artDTO, artDTO, artDTO);
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> artService.addBulkArts(dtos));
+
+        assertEquals("Cannot add more than 2 artworks at once", exception.getMessage());
+        verify(artRepository, never()).save(any(Art.class));
+    }
+
     @Test
     void testAddBulkArts_InvalidArt() {
         artDTO.setTitle(null);
@@ -485,18 +593,19 @@ class ArtServiceTest {
     @Test
     void testGetCacheInfo() {
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.getCacheInfo()).thenReturn("Cache info");
+        CacheStatistics statistics = new CacheStatistics("Art", 1, 5, 64, 0, 3, 1, 1, 0, 0, 0, 0, 1, 0, 1000);
+        when(artCache.getStats()).thenReturn(statistics);
 
-        String result = artService.getCacheInfo();
+        CacheStatistics result = artService.getCacheInfo();
 
-        assertEquals("Cache info", result);
+        assertSame(statistics, result);
     }
 
     @Test
     void testGetArtCache() {
         when(cacheService.getArtCache()).thenReturn(artCache);
 
-        EntityCache<Art> result = artService.getArtCache();
+        EntityCache<ArtDTO> result = artService.getArtCache();
 
         assertEquals(artCache, result);
     }
@@ -594,7 +703,7 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByClassificationId_EmptyResults_ShouldReturnEmptyList() {
-        when(artRepository.findByClassificationId(999)).thenReturn(Collections.emptyList());
+        when(artRepository.findRowsByClassificationId(999)).thenReturn(Collections.emptyList());
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByClassificationId(999);
@@ -604,7 +713,8 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByClassificationName_EmptyResults_ShouldReturnEmptyList() {
-        when(artRepository.findByClassificationNameContainingIgnoreCase("Nonexistent")).thenReturn(Collections.emptyList());
+        when(cacheService.getArtsByClassificationNameCache()).thenReturn(new QueryCache<>("ArtsByClassificationName", new CacheSettings(), ArtDTO::getId));
+        when(artRepository.findRowsByClassificationName("Nonexistent")).thenReturn(Collections.emptyList());
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByClassificationName("Nonexistent");
@@ -614,7 +724,8 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByArtistName_EmptyResults_ShouldReturnEmptyList() {
-        when(artRepository.findByArtistsLastNameContainingIgnoreCase("Nonexistent")).thenReturn(Collections.emptyList());
+        when(cacheService.getArtsByArtistNameCache()).thenReturn(new QueryCache<>("ArtsByArtistName", new CacheSettings(), ArtDTO::getId));
+        when(artRepository.findRowsByArtistLastName("Nonexistent")).thenReturn(Collections.emptyList());
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByArtistName("Nonexistent");
@@ -627,9 +738,9 @@ class ArtServiceTest {
         artDTO.setClassification(null);
         List<ArtDTO> dtos = List.of(artDTO);
 
-        when(artRepository.save(any(Art.class))).thenReturn(art);
+        when(artRepository.save(any(Art.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artistRepository.findByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(artist));
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
 
         List<ArtDTO> result = artService.addBulkArts(dtos);
 
@@ -708,7 +819,7 @@ class ArtServiceTest {
         artWithoutClassification.setArtists(new HashSet<>());
 
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(2)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(2), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(2)).thenReturn(Optional.of(artWithoutClassification));
 
         ArtDTO result = artService.getArtById(2);
@@ -727,7 +838,7 @@ class ArtServiceTest {
         artWithoutArtists.setArtists(null);
 
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(3)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(3), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(3)).thenReturn(Optional.of(artWithoutArtists));
 
         ArtDTO result = artService.getArtById(3);
@@ -742,9 +853,9 @@ class ArtServiceTest {
         artDTO.setArtists(Collections.emptyList());
         List<ArtDTO> dtos = List.of(artDTO);
 
-        when(artRepository.save(any(Art.class))).thenReturn(art);
+        when(artRepository.save(any(Art.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(classificationRepository.findByName("Painting")).thenReturn(classification);
+        when(classificationRepository.findAllById(any())).thenReturn(List.of(classification));
 
         List<ArtDTO> result = artService.addBulkArts(dtos);
 
@@ -757,10 +868,10 @@ class ArtServiceTest {
         artDTO.setYear(null);
         List<ArtDTO> dtos = List.of(artDTO);
 
-        when(artRepository.save(any(Art.class))).thenReturn(art);
+        when(artRepository.save(any(Art.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(classificationRepository.findByName("Painting")).thenReturn(classification);
-        when(artistRepository.findByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(artist));
+        when(classificationRepository.findAllById(any())).thenReturn(List.of(classification));
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
 
         List<ArtDTO> result = artService.addBulkArts(dtos);
 
@@ -780,7 +891,7 @@ class ArtServiceTest {
         // Use reflection to test private method or test through public method
         when(artRepository.findWithArtistsAndClassificationById(1)).thenReturn(Optional.of(nullArt));
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(1)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
 
         ArtDTO result = artService.getArtById(1);
 
@@ -833,7 +944,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(artCache).update(1, art);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -854,7 +965,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(classificationCache).update(2, newClassification);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -875,7 +986,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(artistCache).update(2, newArtist);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -890,7 +1001,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(artCache).update(1, art);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -1077,11 +1188,11 @@ class ArtServiceTest {
         when(artRepository.save(any(Art.class))).thenReturn(savedArt);
         when(cacheService.getArtCache()).thenReturn(artCache);
 
-        Art result = artService.addSingleArt(artDTO);
+        ArtDTO result = artService.addSingleArt(artDTO);
 
         assertNotNull(result);
         assertEquals("Test Art", result.getTitle());
-        verify(artCache).put(1, savedArt);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -1141,7 +1252,7 @@ class ArtServiceTest {
         ArtDTO result = artService.patchArt(1, patchDTO);
 
         assertNotNull(result);
-        verify(artCache).update(1, art);
+        verify(cacheService).refreshArt(any(ArtDTO.class));
     }
 
     @Test
@@ -1213,8 +1324,8 @@ class ArtServiceTest {
         List<ArtDTO> dtos = List.of(artDTO);
         when(artRepository.save(any(Art.class))).thenReturn(art);
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(classificationRepository.findByName("Painting")).thenReturn(classification);
-        when(artistRepository.findByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(artist));
+        when(classificationRepository.findAllById(any())).thenReturn(List.of(classification));
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
 
         List<ArtDTO> result = artService.addBulkArts(dtos);
 
@@ -1232,7 +1343,7 @@ class ArtServiceTest {
         artWithNullClassification.setArtists(new HashSet<>(List.of(artist)));
 
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(4)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(4), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(4)).thenReturn(Optional.of(artWithNullClassification));
 
         ArtDTO result = artService.getArtById(4);
@@ -1252,7 +1363,7 @@ class ArtServiceTest {
         artWithNullArtists.setArtists(null);
 
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(5)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(5), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(5)).thenReturn(Optional.of(artWithNullArtists));
 
         ArtDTO result = artService.getArtById(5);
@@ -1274,7 +1385,7 @@ class ArtServiceTest {
 
         when(artRepository.findWithArtistsAndClassificationById(6)).thenReturn(Optional.of(testArt));
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(6)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(6), any())).thenAnswer(loadThrough());
 
         ArtDTO result = artService.getArtById(6);
 
@@ -1490,7 +1601,7 @@ class ArtServiceTest {
         when(artRepository.save(any(Art.class))).thenReturn(savedArt);
         when(cacheService.getArtCache()).thenReturn(artCache);
 
-        Art result = artService.addSingleArt(artDTO);
+        ArtDTO result = artService.addSingleArt(artDTO);
 
         assertNotNull(result);
         assertNull(result.getClassification());
@@ -1512,7 +1623,7 @@ class ArtServiceTest {
         when(artRepository.save(any(Art.class))).thenReturn(savedArt);
         when(cacheService.getArtCache()).thenReturn(artCache);
 
-        Art result = artService.addSingleArt(artDTO);
+        ArtDTO result = artService.addSingleArt(artDTO);
 
         assertNotNull(result);
         assertNull(result.getArtists());
@@ -1534,7 +1645,8 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByClassificationName_WithEmptyString_ShouldReturnEmptyList() {
-        when(artRepository.findByClassificationNameContainingIgnoreCase("")).thenReturn(Collections.emptyList());
+        when(cacheService.getArtsByClassificationNameCache()).thenReturn(new QueryCache<>("ArtsByClassificationName", new CacheSettings(), ArtDTO::getId));
+        when(artRepository.findRowsByClassificationName("")).thenReturn(Collections.emptyList());
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByClassificationName("");
@@ -1544,7 +1656,8 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByArtistName_WithEmptyString_ShouldReturnEmptyList() {
-        when(artRepository.findByArtistsLastNameContainingIgnoreCase("")).thenReturn(Collections.emptyList());
+        when(cacheService.getArtsByArtistNameCache()).thenReturn(new QueryCache<>("ArtsByArtistName", new CacheSettings(), ArtDTO::getId));
+        when(artRepository.findRowsByArtistLastName("")).thenReturn(Collections.emptyList());
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByArtistName("");
@@ -1554,7 +1667,7 @@ class ArtServiceTest {
 
     @Test
     void testGetArtsByClassificationId_WithNullId_ShouldReturnEmptyList() {
-        when(artRepository.findByClassificationId(null)).thenReturn(Collections.emptyList());
+        when(artRepository.findRowsByClassificationId(null)).thenReturn(Collections.emptyList());
         when(cacheService.getArtCache()).thenReturn(artCache);
 
         List<ArtDTO> result = artService.getArtsByClassificationId(null);
@@ -1623,7 +1736,7 @@ class ArtServiceTest {
     @Test
     void testGetArtById_WithCachedArt_ShouldReturnFromCache() {
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(1)).thenReturn(Optional.of(art));
+        when(artCache.getOrLoad(eq(1), any())).thenReturn(Optional.of(artDTO));
 
         ArtDTO result = artService.getArtById(1);
 
@@ -1634,7 +1747,7 @@ class ArtServiceTest {
     @Test
     void testGetArtById_WithNullCachedArt_ShouldFetchFromRepository() {
         when(cacheService.getArtCache()).thenReturn(artCache);
-        when(artCache.get(1)).thenReturn(Optional.empty());
+        when(artCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(artRepository.findWithArtistsAndClassificationById(1)).thenReturn(Optional.of(art));
 
         ArtDTO result = artService.getArtById(1);
@@ -1642,4 +1755,8 @@ class ArtServiceTest {
         assertNotNull(result);
         verify(artRepository).findWithArtistsAndClassificationById(1);
     }
-}
\ No newline at end of file
+
+    private static <T> Answer<Optional<T>> loadThrough() {
+        return invocation -> invocation.<Function<Integer, Optional<T>>>getArgument(1).apply(invocation.getArgument(0));
+    }
+}
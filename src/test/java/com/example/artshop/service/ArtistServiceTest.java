@@ -1,5 +1,6 @@
 package com.example.artshop.service;
 
+import com.example.artshop.config.BulkProperties;
 import com.example.artshop.constants.ApplicationConstants;
 import com.example.artshop.dto.ArtistDTO;
 import com.example.artshop.dto.ArtistPatchDTO;
@@ -7,19 +8,32 @@ import com.example.artshop.exception.NotFoundException;
 import com.example.artshop.exception.ValidationException;
 import com.example.artshop.model.Artist;
 import com.example.artshop.repository.ArtistRepository;
+import com.example.artshop.repository.ArtistRow;
+import com.example.artshop.service.cache.CacheSettings;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.QueryCache;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mockito.stubbing.Answer;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class ArtistServiceTest {
 
     @Mock
@@ -29,12 +43,19 @@ class ArtistServiceTest {
     private CacheService cacheService;
 
     @Mock
-    private EntityCache<Artist> artistCache;
+    private EntityCache<ArtistDTO> artistCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties();
 
     @InjectMocks
     private ArtistService artistService;
 
     private Artist artist;
+    private ArtistRow artistRow;
     private ArtistDTO artistDTO;
 
     @BeforeEach
@@ -44,6 +65,8 @@ class ArtistServiceTest {
         artist.setFirstName("John");
         artist.setLastName("Doe");
 
+        artistRow = new ArtistRow(1, "John", null, "Doe", 0L, null, null, null);
+
         artistDTO = new ArtistDTO();
         artistDTO.setId(1);
         artistDTO.setFirstName("John");
@@ -60,7 +83,7 @@ class ArtistServiceTest {
         assertNotNull(result);
         assertEquals("John", result.getFirstName());
         assertEquals("Doe", result.getLastName());
-        verify(artistCache).put(1, artist);
+        verify(artistCache).put(eq(1), any(ArtistDTO.class));
     }
 
     @Test
@@ -115,7 +138,7 @@ class ArtistServiceTest {
     @Test
     void testGetArtistById_FoundInCache() {
         when(cacheService.getArtistCache()).thenReturn(artistCache);
-        when(artistCache.get(1)).thenReturn(Optional.of(artist));
+        when(artistCache.getOrLoad(eq(1), any())).thenReturn(Optional.of(artistDTO));
 
         Optional<ArtistDTO> result = artistService.getArtistById(1);
 
@@ -126,19 +149,19 @@ class ArtistServiceTest {
     @Test
     void testGetArtistById_NotFoundInCacheFoundInRepo() {
         when(cacheService.getArtistCache()).thenReturn(artistCache);
-        when(artistCache.get(1)).thenReturn(Optional.empty());
+        when(artistCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(artistRepository.findById(1)).thenReturn(Optional.of(artist));
 
         Optional<ArtistDTO> result = artistService.getArtistById(1);
 
         assertTrue(result.isPresent());
-        verify(artistCache).put(1, artist);
+        verify(artistCache).getOrLoad(eq(1), any());
     }
 
     @Test
     void testGetArtistById_NotFound() {
         when(cacheService.getArtistCache()).thenReturn(artistCache);
-        when(artistCache.get(1)).thenReturn(Optional.empty());
+        when(artistCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(artistRepository.findById(1)).thenReturn(Optional.empty());
 
         Optional<ArtistDTO> result = artistService.getArtistById(1);
@@ -159,7 +182,7 @@ class ArtistServiceTest {
         ArtistDTO result = artistService.updateArtist(1, updatedDTO);
 
         assertEquals("Jane", result.getFirstName());
-        verify(artistCache).update(1, artist);
+        verify(cacheService).refreshArtist(any(ArtistDTO.class));
     }
 
     @Test
@@ -181,7 +204,7 @@ class ArtistServiceTest {
         artistService.deleteArtist(1);
 
         verify(artistRepository).delete(artistWithArts);
-        verify(artistCache).evict(1);
+        verify(cacheService).invalidateArtist(1);
     }
 
     @Test
@@ -193,18 +216,20 @@ class ArtistServiceTest {
 
     @Test
     void testSearchArtists_ByFirstName() {
-        when(artistRepository.findByFirstNameContainingIgnoreCase("John")).thenReturn(List.of(artist));
+        when(cacheService.getArtistSearchCache()).thenReturn(new QueryCache<>("ArtistSearch", new CacheSettings(), ArtistDTO::getId));
+        when(artistRepository.findRowsByName("John", "")).thenReturn(List.of(artistRow));
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.searchArtists("John", null);
 
         assertEquals(1, result.size());
-        verify(artistCache).put(1, artist);
+        verify(artistCache).put(eq(1), any(ArtistDTO.class));
     }
 
     @Test
     void testSearchArtists_ByLastName() {
-        when(artistRepository.findByLastNameContainingIgnoreCase("Doe")).thenReturn(List.of(artist));
+        when(cacheService.getArtistSearchCache()).thenReturn(new QueryCache<>("ArtistSearch", new CacheSettings(), ArtistDTO::getId));
+        when(artistRepository.findRowsByName("", "Doe")).thenReturn(List.of(artistRow));
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.searchArtists(null, "Doe");
@@ -214,8 +239,8 @@ class ArtistServiceTest {
 
     @Test
     void testSearchArtists_ByBothNames() {
-        when(artistRepository.findByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase("John", "Doe"))
-                .thenReturn(List.of(artist));
+        when(cacheService.getArtistSearchCache()).thenReturn(new QueryCache<>("ArtistSearch", new CacheSettings(), ArtistDTO::getId));
+        when(artistRepository.findRowsByName("John", "Doe")).thenReturn(List.of(artistRow));
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.searchArtists("John", "Doe");
@@ -241,7 +266,7 @@ class ArtistServiceTest {
         ArtistDTO result = artistService.patchArtist(1, patchDTO);
 
         assertEquals("Jane", result.getFirstName());
-        verify(artistCache).update(1, artist);
+        verify(cacheService).refreshArtist(any(ArtistDTO.class));
     }
 
     @Test
@@ -288,6 +313,23 @@ class ArtistServiceTest {
         assertThrows(ValidationException.class, () -> artistService.addBulkArtists(dtos));
     }
 
+    @Test
+    void testAddBulkArtists_FlushesAndClearsEveryInterval() {
+        bulkProperties.setMaxSize(1000);
+        bulkProperties.setFlushInterval(4);
+        List<ArtistDTO> dtos = Collections.nCopies(ApplicationConstants.MAX_BULK_OPERATION_SIZE + 2, artistDTO);
+        when(artistRepository.save(any(Artist.class))).thenReturn(artist);
+        when(cacheService.getArtistCache()).thenReturn(artistCache);
+
+        List<ArtistDTO> result = artistService.addBulkArtists(dtos);
+
+        assertEquals(12, result.size());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(cacheService, times(3)).invalidateArtistQueries(anyCollection());
+        verify(cacheService, never()).invalidateQueries(any(Artist.class));
+    }
+
     @Test
     void testAddBulkArtists_InvalidArtist() {
         ArtistDTO invalidDTO = new ArtistDTO();
@@ -298,18 +340,18 @@ class ArtistServiceTest {
 
     @Test
     void testGetArtistsByArtTitle_Success() {
-        when(artistRepository.findByArtTitleContaining("Mona Lisa")).thenReturn(List.of(artist));
+        when(artistRepository.findRowsByArtTitle("Mona Lisa")).thenReturn(List.of(artistRow));
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.getArtistsByArtTitle("Mona Lisa");
 
         assertEquals(1, result.size());
-        verify(artistCache).put(1, artist);
+        verify(artistCache).put(eq(1), any(ArtistDTO.class));
     }
 
     @Test
     void testGetArtistsByArtTitle_EmptyResult() {
-        when(artistRepository.findByArtTitleContaining("Unknown")).thenReturn(List.of());
+        when(artistRepository.findRowsByArtTitle("Unknown")).thenReturn(List.of());
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.getArtistsByArtTitle("Unknown");
@@ -317,32 +359,22 @@ class ArtistServiceTest {
         assertTrue(result.isEmpty());
     }
 
-    @Test
-    void testGetAllArtists_Success() {
-        when(artistRepository.findAllWithArts()).thenReturn(List.of(artist));
-        when(cacheService.getArtistCache()).thenReturn(artistCache);
-
-        List<ArtistDTO> result = artistService.getAllArtists();
-
-        assertEquals(1, result.size());
-        verify(artistCache).put(1, artist);
-    }
-
     @Test
     void testGetCacheInfo() {
         when(cacheService.getArtistCache()).thenReturn(artistCache);
-        when(artistCache.getCacheInfo()).thenReturn("Cache info");
+        CacheStatistics statistics = new CacheStatistics("Artist", 1, 5, 64, 0, 3, 1, 1, 0, 0, 0, 0, 1, 0, 1000);
+        when(artistCache.getStats()).thenReturn(statistics);
 
-        String result = artistService.getCacheInfo();
+        CacheStatistics result = artistService.getCacheInfo();
 
-        assertEquals("Cache info", result);
+        assertSame(statistics, result);
     }
 
     @Test
     void testGetArtistCache() {
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
-        EntityCache<Artist> result = artistService.getArtistCache();
+        EntityCache<ArtistDTO> result = artistService.getArtistCache();
 
         assertEquals(artistCache, result);
     }
@@ -370,7 +402,7 @@ class ArtistServiceTest {
 
         assertEquals("Jane", result.getFirstName());
         assertNull(result.getMiddleName());
-        verify(artistCache).update(1, artist);
+        verify(cacheService).refreshArtist(any(ArtistDTO.class));
     }
 
     @Test
@@ -385,29 +417,13 @@ class ArtistServiceTest {
         ArtistDTO result = artistService.patchArtist(1, patchDTO);
 
         assertNull(result.getMiddleName());
-        verify(artistCache).update(1, artist);
-    }
-
-    @Test
-    void testGetAllArtists_WithNullArts_ShouldHandleGracefully() {
-        Artist artistWithNullArts = new Artist();
-        artistWithNullArts.setId(2);
-        artistWithNullArts.setFirstName("Test");
-        artistWithNullArts.setLastName("Artist");
-        artistWithNullArts.setArts(null);
-
-        when(artistRepository.findAllWithArts()).thenReturn(List.of(artistWithNullArts));
-        when(cacheService.getArtistCache()).thenReturn(artistCache);
-
-        List<ArtistDTO> result = artistService.getAllArtists();
-
-        assertEquals(1, result.size());
-        assertEquals("Test", result.get(0).getFirstName());
+        verify(cacheService).refreshArtist(any(ArtistDTO.class));
     }
 
     @Test
     void testSearchArtists_EmptyResults_ShouldReturnEmptyList() {
-        when(artistRepository.findByFirstNameContainingIgnoreCase("Nonexistent")).thenReturn(Collections.emptyList());
+        when(cacheService.getArtistSearchCache()).thenReturn(new QueryCache<>("ArtistSearch", new CacheSettings(), ArtistDTO::getId));
+        when(artistRepository.findRowsByName("Nonexistent", "")).thenReturn(Collections.emptyList());
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.searchArtists("Nonexistent", null);
@@ -448,7 +464,7 @@ class ArtistServiceTest {
         assertNotNull(result);
         assertEquals("Doe", result.getLastName());
         assertNull(result.getFirstName());
-        verify(artistCache).put(1, savedArtist);
+        verify(artistCache).put(eq(1), any(ArtistDTO.class));
     }
 
     @Test
@@ -468,7 +484,7 @@ class ArtistServiceTest {
         assertNotNull(result);
         assertEquals("John", result.getFirstName());
         assertNull(result.getLastName());
-        verify(artistCache).put(1, savedArtist);
+        verify(artistCache).put(eq(1), any(ArtistDTO.class));
     }
 
     @Test
@@ -492,7 +508,7 @@ class ArtistServiceTest {
 
         assertNotNull(result);
         assertNull(result.getMiddleName());
-        verify(artistCache).update(1, artistWithMiddleName);
+        verify(cacheService).refreshArtist(any(ArtistDTO.class));
     }
 
     @Test
@@ -514,18 +530,14 @@ class ArtistServiceTest {
 
         assertNotNull(result);
         assertNull(result.getMiddleName());
-        verify(artistCache).update(1, artistWithMiddleName);
+        verify(cacheService).refreshArtist(any(ArtistDTO.class));
     }
 
     @Test
     void testGetArtistsByArtTitle_WithNullArts_ShouldHandleGracefully() {
-        Artist artistWithNullArts = new Artist();
-        artistWithNullArts.setId(2);
-        artistWithNullArts.setFirstName("Test");
-        artistWithNullArts.setLastName("Artist");
-        artistWithNullArts.setArts(null);
+        ArtistRow artistWithoutArts = new ArtistRow(2, "Test", null, "Artist", 0L, null, null, null);
 
-        when(artistRepository.findByArtTitleContaining("Mona Lisa")).thenReturn(List.of(artistWithNullArts));
+        when(artistRepository.findRowsByArtTitle("Mona Lisa")).thenReturn(List.of(artistWithoutArts));
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.getArtistsByArtTitle("Mona Lisa");
@@ -534,26 +546,10 @@ class ArtistServiceTest {
         assertEquals("Test", result.get(0).getFirstName());
     }
 
-    @Test
-    void testGetAllArtists_WithEmptyArts_ShouldHandleGracefully() {
-        Artist artistWithEmptyArts = new Artist();
-        artistWithEmptyArts.setId(2);
-        artistWithEmptyArts.setFirstName("Test");
-        artistWithEmptyArts.setLastName("Artist");
-        artistWithEmptyArts.setArts(new HashSet<>());
-
-        when(artistRepository.findAllWithArts()).thenReturn(List.of(artistWithEmptyArts));
-        when(cacheService.getArtistCache()).thenReturn(artistCache);
-
-        List<ArtistDTO> result = artistService.getAllArtists();
-
-        assertEquals(1, result.size());
-        assertEquals("Test", result.get(0).getFirstName());
-    }
-
     @Test
     void testSearchArtists_WithEmptyString_ShouldReturnEmptyList() {
-        when(artistRepository.findByFirstNameContainingIgnoreCase("")).thenReturn(Collections.emptyList());
+        when(cacheService.getArtistSearchCache()).thenReturn(new QueryCache<>("ArtistSearch", new CacheSettings(), ArtistDTO::getId));
+        when(artistRepository.findRowsByName("", "")).thenReturn(Collections.emptyList());
         when(cacheService.getArtistCache()).thenReturn(artistCache);
 
         List<ArtistDTO> result = artistService.searchArtists("", null);
@@ -582,4 +578,8 @@ class ArtistServiceTest {
 
         assertThrows(ValidationException.class, () -> artistService.addBulkArtists(dtos));
     }
-}
\ No newline at end of file
+
+    private static <T> Answer<Optional<T>> loadThrough() {
+        return invocation -> invocation.<Function<Integer, Optional<T>>>getArgument(1).apply(invocation.getArgument(0));
+    }
+}
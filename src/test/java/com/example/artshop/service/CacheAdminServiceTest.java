@@ -0,0 +1,125 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.CacheKeyPageDTO;
+import com.example.artshop.dto.CacheSettingsDTO;
+import com.example.artshop.exception.NotFoundException;
+import com.example.artshop.exception.ValidationException;
+import com.example.artshop.service.cache.CacheStatistics;
+import com.example.artshop.service.cache.QueryCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CacheAdminServiceTest {
+
+    private ArtService artService;
+    private CacheProperties cacheProperties;
+    private CacheService cacheService;
+    private CacheAdminService adminService;
+
+    @BeforeEach
+    void setUp() {
+        artService = mock(ArtService.class);
+        cacheProperties = new CacheProperties();
+        cacheProperties.getArt().setMaxEntries(100);
+        cacheProperties.getWarmUp().setBatchSize(2);
+        cacheService = new CacheService(cacheProperties);
+        adminService = new CacheAdminService(cacheService, artService, mock(ArtistService.class),
+                mock(ClassificationService.class), cacheProperties);
+    }
+
+    @Test
+    void testListsEntityAndQueryCaches() {
+        List<String> names = adminService.getCaches().stream().map(CacheStatistics::getName).toList();
+
+        assertTrue(names.containsAll(List.of("Art", "Artist", "Classification", "ArtResponse", "ArtistSearch")));
+        assertEquals("Art", adminService.getCache("art").getName());
+        assertThrows(NotFoundException.class, () -> adminService.getCache("Nope"));
+    }
+
+    @Test
+    void testHotKeysOnlyForEntityCaches() {
+        assertTrue(adminService.getHotKeys("Art").isEmpty());
+        assertThrows(ValidationException.class, () -> adminService.getHotKeys("ArtistSearch"));
+        assertThrows(NotFoundException.class, () -> adminService.getHotKeys("Nope"));
+    }
+
+    @Test
+    void testPagesThroughKeysWithoutRenderingValues() {
+        for (int id = 1; id <= 5; id++) {
+            cacheService.getArtCache().put(id, mock(ArtDTO.class));
+        }
+
+        CacheKeyPageDTO page = adminService.getKeys("Art", 1, 2);
+
+        assertEquals(5, page.getTotal());
+        assertEquals(List.of("2", "3"), page.getKeys());
+        assertThrows(ValidationException.class, () -> adminService.getKeys("Art", 0, 0));
+    }
+
+    @Test
+    void testEvictsByIdAndPattern() {
+        List.of(1, 2, 10, 11).forEach(id -> cacheService.getArtCache().put(id, new ArtDTO()));
+
+        adminService.evict("Art", "2");
+        int evicted = adminService.evictMatching("Art", "1*");
+
+        assertEquals(3, evicted);
+        assertEquals(0, cacheService.getArtCache().size());
+        assertThrows(ValidationException.class, () -> adminService.evict("Art", "abc"));
+    }
+
+    @Test
+    void testEvictsQueryKeysByPattern() {
+        QueryCache<ArtistDTO> searches = cacheService.getArtistSearchCache();
+        searches.get(QueryCache.key("van", "gogh"), List::of);
+        searches.get(QueryCache.key("monet", ""), List::of);
+
+        int evicted = adminService.evictMatching("ArtistSearch", "van|*");
+
+        assertEquals(1, evicted);
+        assertEquals(List.of("monet|"), adminService.getKeys("ArtistSearch", 0, 10).getKeys());
+    }
+
+    @Test
+    void testChangesCapacityAndExpiryLive() {
+        for (int id = 1; id <= 20; id++) {
+            cacheService.getArtCache().put(id, new ArtDTO());
+        }
+
+        CacheSettingsDTO updated = adminService.updateSettings("Art",
+                new CacheSettingsDTO(10, Duration.ofMinutes(5), null));
+
+        assertEquals(10, updated.getMaxEntries());
+        assertEquals(Duration.ofMinutes(5), updated.getExpireAfterWrite());
+        assertTrue(cacheService.getArtCache().size() <= 10);
+        assertThrows(ValidationException.class, () -> adminService.updateSettings("ArtistSearch",
+                new CacheSettingsDTO(null, null, Duration.ofMinutes(1))));
+        assertThrows(ValidationException.class, () -> adminService.updateSettings("Art",
+                new CacheSettingsDTO(0, null, null)));
+    }
+
+    @Test
+    void testWarmLoadsOnlyMissingIdsInBatches() {
+        cacheService.getArtCache().put(1, new ArtDTO());
+        when(artService.warmUpCache(anyCollection())).thenAnswer(invocation ->
+                invocation.getArgument(0, List.class).size());
+
+        int loaded = adminService.warm("Art", List.of(1, 2, 3, 4));
+
+        assertEquals(3, loaded);
+        verify(artService).warmUpCache(List.of(2, 3));
+        verify(artService).warmUpCache(List.of(4));
+        assertThrows(ValidationException.class, () -> adminService.warm("ArtResponse", List.of(1)));
+        assertThrows(NotFoundException.class, () -> adminService.warm("Nope", List.of(1)));
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.artshop.service;
 
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.ClassificationDTO;
 import com.example.artshop.model.Art;
 import com.example.artshop.model.Artist;
 import com.example.artshop.model.Classification;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.QueryCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,21 +32,21 @@ class CacheServiceTest {
 
     @Test
     void testGetArtistCache() {
-        EntityCache<Artist> artistCache = cacheService.getArtistCache();
+        EntityCache<ArtistDTO> artistCache = cacheService.getArtistCache();
 
         assertNotNull(artistCache);
     }
 
     @Test
     void testGetArtCache() {
-        EntityCache<Art> artCache = cacheService.getArtCache();
+        EntityCache<ArtDTO> artCache = cacheService.getArtCache();
 
         assertNotNull(artCache);
     }
 
     @Test
     void testGetClassificationCache() {
-        EntityCache<Classification> classificationCache = cacheService.getClassificationCache();
+        EntityCache<ClassificationDTO> classificationCache = cacheService.getClassificationCache();
 
         assertNotNull(classificationCache);
 
@@ -42,14 +54,14 @@ class CacheServiceTest {
 
     @Test
     void testCacheIndependence() {
-        EntityCache<Artist> artistCache = cacheService.getArtistCache();
-        EntityCache<Art> artCache = cacheService.getArtCache();
+        EntityCache<ArtistDTO> artistCache = cacheService.getArtistCache();
+        EntityCache<ArtDTO> artCache = cacheService.getArtCache();
 
-        Artist artist = new Artist();
+        ArtistDTO artist = new ArtistDTO();
         artist.setId(1);
         artist.setFirstName("Test");
 
-        Art art = new Art();
+        ArtDTO art = new ArtDTO();
         art.setId(1);
         art.setTitle("Test Art");
 
@@ -62,6 +74,27 @@ class CacheServiceTest {
         assertEquals("Test Art", artCache.get(1).get().getTitle());
     }
 
+    @Test
+    void testCachedDtosAreReadOnly() {
+        ArtistDTO artist = new ArtistDTO();
+        artist.setId(2);
+        artist.setArtworkIds(new ArrayList<>(List.of(1)));
+        ArtDTO art = new ArtDTO();
+        art.setId(1);
+        art.setArtists(new ArrayList<>(List.of(artist)));
+        ClassificationDTO loaded = new ClassificationDTO();
+        loaded.setId(3);
+
+        cacheService.getArtCache().put(1, art);
+        cacheService.getClassificationCache().getOrLoad(3, id -> Optional.of(loaded));
+
+        assertThrows(IllegalStateException.class, () -> art.setTitle("Changed"));
+        assertThrows(UnsupportedOperationException.class, () -> art.getArtists().clear());
+        assertThrows(IllegalStateException.class, () -> art.getArtists().get(0).setLastName("Changed"));
+        assertThrows(UnsupportedOperationException.class, () -> artist.getArtworkIds().add(4));
+        assertThrows(IllegalStateException.class, () -> loaded.setName("Changed"));
+    }
+
     @Test
     void testCacheServiceSingletonBehavior() {
         CacheService anotherInstance = new CacheService();
@@ -71,4 +104,178 @@ class CacheServiceTest {
                 anotherInstance.getArtistCache()
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCachesAreBuiltFromProperties() {
+        CacheProperties properties = new CacheProperties();
+        properties.getArt().setMaxEntries(500);
+        properties.getArtist().setMaxEntries(50);
+        properties.getClassification().setMaxWeightBytes(1024);
+
+        CacheService configured = new CacheService(properties);
+
+        assertEquals(500, configured.getArtCache().getCapacity());
+        assertEquals(50, configured.getArtistCache().getCapacity());
+        assertEquals(1024, configured.getClassificationCache().getMaxWeightBytes());
+    }
+
+    @Test
+    void testArtWriteInvalidatesMatchingSearches() {
+        Artist artist = new Artist();
+        artist.setId(7);
+        artist.setLastName("Monet");
+        Art art = new Art();
+        art.setId(3);
+        art.setArtists(Set.of(artist));
+        ArtistDTO found = new ArtistDTO();
+        found.setId(7);
+
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("mon"), List::of);
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("pic"), List::of);
+        cacheService.getArtistSearchCache().get(QueryCache.key(null, "monet"), () -> List.of(found));
+
+        cacheService.invalidateQueries(art);
+
+        assertEquals(1, cacheService.getArtsByArtistNameCache().size());
+        assertEquals(0, cacheService.getArtistSearchCache().size());
+    }
+
+    @Test
+    void testArtistWriteInvalidatesArtsFoundByClassification() {
+        Art art = new Art();
+        art.setId(3);
+        Artist artist = new Artist();
+        artist.setId(7);
+        artist.setLastName("Monet");
+        artist.setArts(Set.of(art));
+        ArtDTO found = new ArtDTO();
+        found.setId(3);
+        ArtDTO other = new ArtDTO();
+        other.setId(4);
+
+        cacheService.getArtsByClassificationNameCache().get(QueryCache.key("painting"), () -> List.of(found));
+        cacheService.getArtsByClassificationNameCache().get(QueryCache.key("etching"), () -> List.of(other));
+
+        cacheService.invalidateQueries(artist);
+
+        assertEquals(1, cacheService.getArtsByClassificationNameCache().size());
+    }
+
+    @Test
+    void testClassificationWriteInvalidatesArtsFoundByArtist() {
+        Art art = new Art();
+        art.setId(3);
+        Classification classification = new Classification("Painting", "Oil on canvas");
+        classification.setId(5);
+        classification.setArts(Set.of(art));
+        ArtDTO found = new ArtDTO();
+        found.setId(3);
+        ArtDTO other = new ArtDTO();
+        other.setId(4);
+
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("monet"), () -> List.of(found));
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("degas"), () -> List.of(other));
+
+        cacheService.invalidateQueries(classification);
+
+        assertEquals(1, cacheService.getArtsByArtistNameCache().size());
+    }
+
+    @Test
+    void testBulkArtWriteInvalidatesSearchesForEveryArtOnce() {
+        List<Art> arts = new ArrayList<>();
+        for (String lastName : List.of("Monet", "Degas")) {
+            Artist artist = new Artist();
+            artist.setId(arts.size() + 7);
+            artist.setLastName(lastName);
+            Art art = new Art();
+            art.setId(arts.size() + 3);
+            art.setArtists(Set.of(artist));
+            arts.add(art);
+        }
+
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("mon"), List::of);
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("deg"), List::of);
+        cacheService.getArtsByArtistNameCache().get(QueryCache.key("pic"), List::of);
+
+        cacheService.invalidateArtQueries(arts);
+
+        assertEquals(List.of(QueryCache.key("pic")), cacheService.getArtsByArtistNameCache().keys());
+    }
+
+    @Test
+    void testInvalidationFollowsCachedDependencies() {
+        ArtistDTO artist = new ArtistDTO();
+        artist.setId(1);
+        artist.setArtworkIds(List.of(10));
+        ClassificationDTO classification = new ClassificationDTO();
+        classification.setId(5);
+        classification.setArtworkIds(List.of(10, 11));
+        ArtDTO art = new ArtDTO();
+        art.setId(10);
+        art.setArtists(List.of(artist));
+        art.setClassification(classification);
+        ArtDTO unrelated = new ArtDTO();
+        unrelated.setId(12);
+
+        cacheService.getArtistCache().put(1, artist);
+        cacheService.getClassificationCache().put(5, classification);
+        cacheService.getArtCache().put(10, art);
+        cacheService.getArtCache().put(12, unrelated);
+
+        cacheService.invalidateArtist(1);
+
+        assertFalse(cacheService.getArtistCache().get(1).isPresent());
+        assertFalse(cacheService.getArtCache().get(10).isPresent());
+        assertTrue(cacheService.getArtCache().get(12).isPresent());
+        assertTrue(cacheService.getClassificationCache().get(5).isPresent());
+
+        cacheService.invalidateArt(11);
+
+        assertFalse(cacheService.getClassificationCache().get(5).isPresent());
+    }
+
+    @Test
+    void testRefreshArtEvictsNewlyRelatedEntries() {
+        ArtistDTO artist = new ArtistDTO();
+        artist.setId(2);
+        artist.setArtworkIds(List.of());
+        cacheService.getArtistCache().put(2, artist);
+
+        ArtDTO art = new ArtDTO();
+        art.setId(20);
+        art.setArtists(List.of(artist));
+        cacheService.refreshArt(art);
+
+        assertFalse(cacheService.getArtistCache().get(2).isPresent());
+        assertSame(art, cacheService.getArtCache().get(20).orElseThrow());
+    }
+
+    @Test
+    void testSnapshotsRestoreEntriesWithTheirDependencies(@TempDir Path dir) {
+        CacheProperties properties = new CacheProperties();
+        properties.getSnapshot().setEnabled(true);
+        properties.getSnapshot().setDirectory(dir.toString());
+        CacheService before = new CacheService(properties);
+        ArtistDTO artist = new ArtistDTO();
+        artist.setId(2);
+        artist.setLastName("Monet");
+        artist.setArtworkIds(List.of(1));
+        ArtDTO art = new ArtDTO();
+        art.setId(1);
+        art.setTitle("Water Lilies");
+        art.setArtists(List.of(artist));
+        before.getArtCache().put(1, art);
+        before.getArtistCache().put(2, artist);
+        before.saveSnapshots();
+
+        CacheService after = new CacheService(properties);
+        assertEquals(2, after.restoreSnapshots());
+        ArtDTO restored = after.getArtCache().getOrLoad(1, id -> Optional.of(art)).orElseThrow();
+        assertEquals("Water Lilies", restored.getTitle());
+        assertEquals("Monet", restored.getArtists().get(0).getLastName());
+
+        after.invalidateArtist(2);
+        assertFalse(after.getArtCache().contains(1));
+    }
+}
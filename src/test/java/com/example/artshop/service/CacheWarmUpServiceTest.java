@@ -0,0 +1,76 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CacheWarmUpServiceTest {
+
+    private ArtService artService;
+    private ArtistService artistService;
+    private ClassificationService classificationService;
+    private VisitCounterService visitCounterService;
+    private CacheProperties cacheProperties;
+    private CacheService cacheService;
+    private CacheWarmUpService warmUpService;
+
+    @BeforeEach
+    void setUp() {
+        artService = mock(ArtService.class);
+        artistService = mock(ArtistService.class);
+        classificationService = mock(ClassificationService.class);
+        visitCounterService = new VisitCounterService();
+        cacheProperties = new CacheProperties();
+        cacheService = new CacheService(cacheProperties);
+        cacheProperties.getWarmUp().setBatchSize(2);
+        cacheProperties.getWarmUp().setLimit(4);
+        warmUpService = new CacheWarmUpService(artService, artistService, classificationService,
+                visitCounterService, cacheService, cacheProperties);
+    }
+
+    @Test
+    void testIdsToLoad_ConfiguredIdsFirstThenMostVisited() {
+        cacheProperties.getWarmUp().setArtIds(List.of(7));
+        visitCounterService.recordVisit("/api/art/3");
+        visitCounterService.recordVisit("/api/art/3");
+        visitCounterService.recordVisit("/api/art/5");
+        visitCounterService.recordVisit("/api/art/7");
+        visitCounterService.recordVisit("/api/art/all");
+
+        cacheService.getArtCache().put(5, new ArtDTO());
+
+        assertEquals(List.of(7, 3), warmUpService.idsToLoad("/api/art/", cacheProperties.getWarmUp().getArtIds(),
+                cacheService.getArtCache()));
+    }
+
+    @Test
+    void testWarmUp_LoadsInBatchesAndSurvivesFailures() {
+        cacheProperties.getWarmUp().setArtIds(List.of(1, 2, 3));
+        cacheProperties.getWarmUp().setArtistIds(List.of(1));
+        cacheProperties.getWarmUp().setClassificationIds(List.of(1));
+        when(artService.warmUpCache(anyCollection())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(artistService.warmUpCache(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        when(classificationService.warmUpCache(anyCollection())).thenReturn(1);
+
+        assertEquals(4, warmUpService.warmUp());
+        verify(artService).warmUpCache(List.of(1, 2));
+        verify(artService).warmUpCache(List.of(3));
+        verify(artistService).warmUpCache(List.of(1));
+    }
+
+    @Test
+    void testRun_DisabledByDefault() throws Exception {
+        cacheProperties.getWarmUp().setArtIds(List.of(1));
+
+        warmUpService.run(null);
+
+        verifyNoInteractions(artService, artistService, classificationService);
+    }
+}
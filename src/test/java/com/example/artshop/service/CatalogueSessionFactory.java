@@ -0,0 +1,73 @@
+package com.example.artshop.service;
+
+import com.example.artshop.model.Art;
+import com.example.artshop.model.Artist;
+import com.example.artshop.model.Classification;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+import java.util.UUID;
+
+// Plain Hibernate over an in-memory H2 database with the cache settings of application.properties,
+// so the second-level cache can be exercised without starting the application context.
+final class CatalogueSessionFactory {
+
+    private CatalogueSessionFactory() {
+    }
+
+    static SessionFactory build(boolean secondLevelCache) {
+        return new Configuration()
+                .addAnnotatedClass(Art.class)
+                .addAnnotatedClass(Artist.class)
+                .addAnnotatedClass(Classification.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.default_batch_fetch_size", "20")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true")
+                .setProperty("hibernate.generate_statistics", "true")
+                .setProperty("hibernate.cache.use_second_level_cache", String.valueOf(secondLevelCache))
+                .setProperty("hibernate.cache.use_query_cache", String.valueOf(secondLevelCache))
+                .setProperty("hibernate.cache.region.factory_class", "jcache")
+                .setProperty("hibernate.cache.auto_evict_collection_cache", "true")
+                .setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider")
+                .setProperty("hibernate.javax.cache.uri", "ehcache.xml")
+                .setProperty("hibernate.javax.cache.missing_cache_strategy", "fail")
+                .buildSessionFactory();
+    }
+
+    // one classification, artistCount artists and artCount arts, each art by two neighbouring artists
+    static void populate(SessionFactory sessionFactory, int artCount, int artistCount) {
+        sessionFactory.inTransaction(session -> {
+            Classification classification = new Classification("Painting", "Oil on canvas");
+            session.persist(classification);
+            Artist[] artists = new Artist[artistCount];
+            for (int i = 0; i < artistCount; i++) {
+                artists[i] = new Artist("First" + i, null, "Last" + i);
+                session.persist(artists[i]);
+            }
+            for (int i = 0; i < artCount; i++) {
+                Art art = new Art("Art " + i, 1900 + i % 100);
+                art.setClassification(classification);
+                art.getArtists().add(artists[i % artistCount]);
+                art.getArtists().add(artists[(i + 1) % artistCount]);
+                session.persist(art);
+            }
+        });
+    }
+
+    // what GET /api/art/{id} touches: the art, its classification, its artists and their other arts
+    static int readArt(SessionFactory sessionFactory, int id) {
+        return sessionFactory.fromSession(session -> {
+            Art art = session.find(Art.class, id);
+            int touched = art.getClassification().getName().length();
+            for (Artist artist : art.getArtists()) {
+                touched += artist.getArts().size();
+            }
+            return touched;
+        });
+    }
+}
@@ -1,24 +1,38 @@
 package com.example.artshop.service;
 
+import com.example.artshop.config.BulkProperties;
 import com.example.artshop.constants.ApplicationConstants;
 import com.example.artshop.dto.ClassificationDTO;
 import com.example.artshop.dto.ClassificationPatchDTO;
 import com.example.artshop.exception.ValidationException;
 import com.example.artshop.model.Classification;
 import com.example.artshop.repository.ClassificationRepository;
+import com.example.artshop.repository.ClassificationRow;
+import com.example.artshop.service.cache.CacheSettings;
+import com.example.artshop.service.cache.CacheStatistics;
 import com.example.artshop.service.cache.EntityCache;
+import com.example.artshop.service.cache.QueryCache;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mockito.stubbing.Answer;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class ClassificationServiceTest {
 
     @Mock
@@ -28,13 +42,20 @@ class ClassificationServiceTest {
     private CacheService cacheService;
 
     @Mock
-    private EntityCache<Classification> classificationCache;
+    private EntityCache<ClassificationDTO> classificationCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties();
 
     @InjectMocks
     private ClassificationService classificationService;
 
     private ClassificationDTO classificationDTO;
     private Classification classification;
+    private ClassificationRow classificationRow;
 
     @BeforeEach
     void setUp() {
@@ -46,6 +67,8 @@ class ClassificationServiceTest {
         classification.setId(1);
         classification.setName("Painting");
         classification.setDescription("Oil painting");
+
+        classificationRow = new ClassificationRow(1, "Painting", "Oil painting", 0L, null, null, null);
     }
 
     @Test
@@ -59,7 +82,8 @@ class ClassificationServiceTest {
         assertEquals(1, result.size());
         assertEquals("Painting", result.get(0).getName());
         verify(classificationRepository).save(any(Classification.class));
-        verify(classificationCache).put(1, classification);
+        verify(classificationCache).put(eq(1), any(ClassificationDTO.class));
+        verify(cacheService).invalidateClassificationQueries(anyCollection());
     }
 
     @Test
@@ -110,7 +134,7 @@ class ClassificationServiceTest {
     @Test
     void getClassificationById_FromCache_ReturnsClassification() {
         when(cacheService.getClassificationCache()).thenReturn(classificationCache);
-        when(classificationCache.get(1)).thenReturn(Optional.of(classification));
+        when(classificationCache.getOrLoad(eq(1), any())).thenReturn(Optional.of(classificationDTO));
 
         ClassificationDTO result = classificationService.getClassificationById(1);
 
@@ -122,7 +146,7 @@ class ClassificationServiceTest {
     @Test
     void getClassificationById_NotInCache_FetchesFromRepository() {
         when(cacheService.getClassificationCache()).thenReturn(classificationCache);
-        when(classificationCache.get(1)).thenReturn(Optional.empty());
+        when(classificationCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(classificationRepository.findById(1)).thenReturn(classification);
 
         ClassificationDTO result = classificationService.getClassificationById(1);
@@ -130,13 +154,13 @@ class ClassificationServiceTest {
         assertNotNull(result);
         assertEquals("Painting", result.getName());
         verify(classificationRepository).findById(1);
-        verify(classificationCache).put(1, classification);
+        verify(classificationCache).getOrLoad(eq(1), any());
     }
 
     @Test
     void getClassificationById_NullFromRepository_ReturnsNull() {
         when(cacheService.getClassificationCache()).thenReturn(classificationCache);
-        when(classificationCache.get(1)).thenReturn(Optional.empty());
+        when(classificationCache.getOrLoad(eq(1), any())).thenAnswer(loadThrough());
         when(classificationRepository.findById(1)).thenReturn(null);
 
         ClassificationDTO result = classificationService.getClassificationById(1);
@@ -145,27 +169,6 @@ class ClassificationServiceTest {
         verify(classificationCache, never()).put(anyInt(), any());
     }
 
-    @Test
-    void getAllClassifications_ReturnsAllClassifications() {
-        when(classificationRepository.findAllWithArts()).thenReturn(List.of(classification));
-        when(cacheService.getClassificationCache()).thenReturn(classificationCache);
-
-        List<ClassificationDTO> result = classificationService.getAllClassifications();
-
-        assertEquals(1, result.size());
-        assertEquals("Painting", result.get(0).getName());
-        verify(classificationCache).put(1, classification);
-    }
-
-    @Test
-    void getAllClassifications_Empty_ReturnsEmptyList() {
-        when(classificationRepository.findAllWithArts()).thenReturn(Collections.emptyList());
-
-        List<ClassificationDTO> result = classificationService.getAllClassifications();
-
-        assertTrue(result.isEmpty());
-    }
-
     @Test
     void patchClassification_ValidPatch_UpdatesAndCaches() {
         ClassificationPatchDTO patchDTO = new ClassificationPatchDTO();
@@ -179,7 +182,7 @@ class ClassificationServiceTest {
         Classification result = classificationService.patchClassification(1, patchDTO);
 
         assertNotNull(result);
-        verify(classificationCache).update(1, classification);
+        verify(cacheService).refreshClassification(any(ClassificationDTO.class));
     }
 
     @Test
@@ -215,7 +218,7 @@ class ClassificationServiceTest {
         assertNotNull(result);
         assertEquals("Painting", result.getName());
         verify(classificationRepository).save(any(Classification.class));
-        verify(classificationCache).update(1, classification);
+        verify(cacheService).refreshClassification(any(ClassificationDTO.class));
     }
 
     @Test
@@ -238,24 +241,25 @@ class ClassificationServiceTest {
         classificationService.deleteClassification(1);
 
         verify(classificationRepository).deleteById(1);
-        verify(classificationCache).evict(1);
+        verify(cacheService).invalidateClassification(1);
     }
 
     @Test
     void getClassificationsByName_ValidName_ReturnsClassifications() {
-        when(classificationRepository.findByNameContainingIgnoreCase("Painting")).thenReturn(List.of(classification));
+        when(cacheService.getClassificationsByNameCache()).thenReturn(new QueryCache<>("ClassificationsByName", new CacheSettings(), ClassificationDTO::getId));
+        when(classificationRepository.findRowsByName("Painting")).thenReturn(List.of(classificationRow));
         when(cacheService.getClassificationCache()).thenReturn(classificationCache);
 
         List<ClassificationDTO> result = classificationService.getClassificationsByName("Painting");
 
         assertEquals(1, result.size());
         assertEquals("Painting", result.get(0).getName());
-        verify(classificationCache).put(1, classification);
+        verify(classificationCache).put(eq(1), any(ClassificationDTO.class));
     }
 
     @Test
     void getClassificationsByArtTitle_ValidTitle_ReturnsClassifications() {
-        when(classificationRepository.findByArtTitleContaining("Mona Lisa")).thenReturn(List.of(classification));
+        when(classificationRepository.findRowsByArtTitle("Mona Lisa")).thenReturn(List.of(classificationRow));
 
         List<ClassificationDTO> result = classificationService.getClassificationsByArtTitle("Mona Lisa");
 
@@ -272,7 +276,7 @@ class ClassificationServiceTest {
         assertNotNull(result);
         assertEquals("Painting", result.getName());
         verify(classificationRepository).save(any(Classification.class));
-        verify(classificationCache).put(1, classification);
+        verify(classificationCache).put(eq(1), any(ClassificationDTO.class));
     }
 
     @Test
@@ -284,12 +288,13 @@ class ClassificationServiceTest {
 
     @Test
     void getCacheInfo_DelegatesToCache() {
-        when(classificationCache.getCacheInfo()).thenReturn("Cache info");
+        CacheStatistics statistics = new CacheStatistics("Classification", 1, 5, 64, 0, 3, 1, 1, 0, 0, 0, 0, 1, 0, 1000);
+        when(classificationCache.getStats()).thenReturn(statistics);
 
-        String result = classificationService.getCacheInfo();
+        CacheStatistics result = classificationService.getCacheInfo();
 
-        assertEquals("Cache info", result);
-        verify(classificationCache).getCacheInfo();
+        assertSame(statistics, result);
+        verify(classificationCache).getStats();
     }
 
     @Test
@@ -349,7 +354,7 @@ class ClassificationServiceTest {
         Classification result = classificationService.patchClassification(1, patchDTO);
 
         assertNotNull(result);
-        verify(classificationCache).update(1, classification);
+        verify(cacheService).refreshClassification(any(ClassificationDTO.class));
     }
 
     @Test
@@ -365,12 +370,13 @@ class ClassificationServiceTest {
         Classification result = classificationService.patchClassification(1, patchDTO);
 
         assertNotNull(result);
-        verify(classificationCache).update(1, classification);
+        verify(cacheService).refreshClassification(any(ClassificationDTO.class));
     }
 
     @Test
     void testGetClassificationsByName_EmptyResults_ShouldReturnEmptyList() {
-        when(classificationRepository.findByNameContainingIgnoreCase("Nonexistent")).thenReturn(Collections.emptyList());
+        when(cacheService.getClassificationsByNameCache()).thenReturn(new QueryCache<>("ClassificationsByName", new CacheSettings(), ClassificationDTO::getId));
+        when(classificationRepository.findRowsByName("Nonexistent")).thenReturn(Collections.emptyList());
         when(cacheService.getClassificationCache()).thenReturn(classificationCache);
 
         List<ClassificationDTO> result = classificationService.getClassificationsByName("Nonexistent");
@@ -380,7 +386,7 @@ class ClassificationServiceTest {
 
     @Test
     void testGetClassificationsByArtTitle_EmptyResults_ShouldReturnEmptyList() {
-        when(classificationRepository.findByArtTitleContaining("Nonexistent")).thenReturn(Collections.emptyList());
+        when(classificationRepository.findRowsByArtTitle("Nonexistent")).thenReturn(Collections.emptyList());
 
         List<ClassificationDTO> result = classificationService.getClassificationsByArtTitle("Nonexistent");
 
@@ -412,4 +418,8 @@ class ClassificationServiceTest {
                 () -> classificationService.addBulkClassifications(dtos));
         assertEquals("Classification description is required", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    private static <T> Answer<Optional<T>> loadThrough() {
+        return invocation -> invocation.<Function<Integer, Optional<T>>>getArgument(1).apply(invocation.getArgument(0));
+    }
+}
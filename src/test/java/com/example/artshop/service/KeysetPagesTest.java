@@ -0,0 +1,88 @@
+package com.example.artshop.service;
+
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.PageDTO;
+import com.example.artshop.exception.ValidationException;
+import com.example.artshop.service.cache.EntityCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPagesTest {
+
+    private final List<Integer> ids = IntStream.rangeClosed(1, 5).boxed().toList();
+    private final List<List<Integer>> loaded = new ArrayList<>();
+    private EntityCache<ArtDTO> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EntityCache<>("Art", 100);
+    }
+
+    @Test
+    void testWalksAllPagesInIdOrder() {
+        PageDTO<ArtDTO> first = page(null, 2);
+        PageDTO<ArtDTO> second = page(first.getNextCursor(), 2);
+        PageDTO<ArtDTO> last = page(second.getNextCursor(), 2);
+
+        assertEquals(List.of(1, 2), idsOf(first));
+        assertEquals(List.of(3, 4), idsOf(second));
+        assertEquals(List.of(5), idsOf(last));
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void testLoadsOnlyIdsMissingFromCache() {
+        cache.put(2, art(2));
+
+        PageDTO<ArtDTO> page = page(null, 3);
+
+        assertEquals(List.of(1, 2, 3), idsOf(page));
+        assertEquals(List.of(List.of(1, 3)), loaded);
+    }
+
+    @Test
+    void testSkipsIdsDeletedBetweenQueries() {
+        PageDTO<ArtDTO> page = KeysetPages.page(null, 3, this::idsAfter, cache,
+                batch -> batch.stream().filter(id -> id != 2).map(KeysetPagesTest::art).toList(),
+                ArtDTO::getId);
+
+        assertEquals(List.of(1, 3), idsOf(page));
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void testRejectsInvalidCursorAndLimit() {
+        assertThrows(ValidationException.class, () -> page("not-a-cursor", 2));
+        assertThrows(ValidationException.class, () -> page(null, 0));
+        assertThrows(ValidationException.class, () -> page(null, 201));
+        assertEquals(50, page(null, null).getLimit());
+    }
+
+    private PageDTO<ArtDTO> page(String cursor, Integer limit) {
+        return KeysetPages.page(cursor, limit, this::idsAfter, cache, batch -> {
+            loaded.add(List.copyOf(batch));
+            return batch.stream().map(KeysetPagesTest::art).toList();
+        }, ArtDTO::getId);
+    }
+
+    private List<Integer> idsAfter(int after, Limit limit) {
+        return ids.stream().filter(id -> id > after).limit(limit.max()).toList();
+    }
+
+    private static List<Integer> idsOf(PageDTO<ArtDTO> page) {
+        return page.getItems().stream().map(ArtDTO::getId).toList();
+    }
+
+    private static ArtDTO art(int id) {
+        ArtDTO art = new ArtDTO();
+        art.setId(id);
+        return art;
+    }
+}
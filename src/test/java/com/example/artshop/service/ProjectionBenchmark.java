@@ -0,0 +1,99 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.BulkProperties;
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.repository.ArtRepository;
+import com.example.artshop.repository.ArtistRepository;
+import com.example.artshop.repository.ClassificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// One page of artworks with their artists and classification, loaded as managed entities and copied
+// into DTOs versus projected straight into rows. Run with -prof gc to compare allocation per page.
+// mvn test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.example.artshop.service.ProjectionBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+    private static final int ARTS = 2000;
+
+    @Param({"50", "200"})
+    private int pageSize;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private ArtRepository artRepository;
+    private ArtService artService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = CatalogueSessionFactory.build(false);
+        CatalogueSessionFactory.populate(sessionFactory, ARTS, 100);
+        entityManager = sessionFactory.createEntityManager();
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+        artRepository = factory.getRepository(ArtRepository.class);
+        artService = new ArtService(artRepository, factory.getRepository(ArtistRepository.class),
+                factory.getRepository(ClassificationRepository.class), new CacheService(new CacheProperties()),
+                entityManager, new ObjectMapper(), new BulkProperties());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ArtDTO> entities() {
+        List<ArtDTO> page = artRepository.findAllWithArtistsAndClassificationByIdIn(nextPage()).stream()
+                .map(artService::convertToDTO)
+                .toList();
+        entityManager.clear();
+        return page;
+    }
+
+    @Benchmark
+    public List<ArtDTO> rows() {
+        List<ArtDTO> page = RowAssembler.arts(artRepository.findRowsByIdIn(nextPage()));
+        entityManager.clear();
+        return page;
+    }
+
+    private List<Integer> nextPage() {
+        int from = next;
+        next = (next + pageSize) % (ARTS - pageSize);
+        return IntStream.rangeClosed(from + 1, from + pageSize).boxed().toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProjectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.artshop.service;
+
+import com.example.artshop.config.CacheProperties;
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.exception.ValidationException;
+import com.example.artshop.model.Artist;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheServiceTest {
+
+    private CacheProperties cacheProperties;
+    private CacheService cacheService;
+    private ResponseCacheService responseCacheService;
+    private ArtDTO art;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new CacheProperties();
+        cacheProperties.setResponseEnabled(true);
+        cacheService = new CacheService(cacheProperties);
+        responseCacheService = new ResponseCacheService(new ObjectMapper(), cacheService, cacheProperties);
+        art = new ArtDTO();
+        art.setId(1);
+        art.setTitle("Water Lilies");
+        art.setVersion(7L);
+        cacheService.getArtCache().put(1, art);
+    }
+
+    private static ServletWebRequest request(String... ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/art/1");
+        for (String eTag : ifNoneMatch) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Test
+    void testRenderedBodyIsReusedForTheSameDto() {
+        ResponseEntity<?> first = responseCacheService.art(art, request());
+        ResponseEntity<?> second = responseCacheService.art(art, request());
+
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertTrue(new String((byte[]) first.getBody(), StandardCharsets.UTF_8).contains("\"title\":\"Water Lilies\""));
+        assertSame(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void testRenderedBodyIsReusedForAnEqualVersionAndReplacedForANewOne() {
+        ResponseEntity<?> first = responseCacheService.art(art, request());
+        ArtDTO reloaded = new ArtDTO();
+        reloaded.setId(1);
+        reloaded.setTitle("Water Lilies");
+        reloaded.setVersion(7L);
+        ArtDTO changed = new ArtDTO();
+        changed.setId(1);
+        changed.setTitle("Nympheas");
+        changed.setVersion(8L);
+
+        assertSame(first.getBody(), responseCacheService.art(reloaded, request()).getBody());
+        String body = new String((byte[]) responseCacheService.art(changed, request()).getBody(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("Nympheas"));
+        assertEquals(8L, cacheService.getArtResponseCache().get(1).orElseThrow().version());
+    }
+
+    @Test
+    void testDtoWithoutVersionIsNotCached() {
+        ArtDTO unversioned = new ArtDTO();
+        unversioned.setId(2);
+        unversioned.setTitle("Impression, Sunrise");
+
+        responseCacheService.art(unversioned, request());
+
+        assertFalse(cacheService.getArtResponseCache().contains(2));
+    }
+
+    @Test
+    void testRefreshingTheDtoDropsTheRenderedBody() {
+        responseCacheService.art(art, request());
+        ArtDTO updated = new ArtDTO();
+        updated.setId(1);
+        updated.setTitle("Nympheas");
+
+        cacheService.refreshArt(updated);
+
+        assertFalse(cacheService.getArtResponseCache().contains(1));
+        String body = new String((byte[]) responseCacheService.art(updated, request()).getBody(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("Nympheas"));
+    }
+
+    @Test
+    void testInvalidatingADependencyDropsTheRenderedBody() {
+        ArtistDTO artist = new ArtistDTO();
+        artist.setId(2);
+        ArtDTO withArtist = new ArtDTO();
+        withArtist.setId(1);
+        withArtist.setTitle("Water Lilies");
+        withArtist.setVersion(7L);
+        withArtist.setArtists(List.of(artist));
+        cacheService.refreshArt(withArtist);
+        responseCacheService.art(withArtist, request());
+
+        cacheService.invalidateArtist(2);
+
+        assertFalse(cacheService.getArtResponseCache().contains(1));
+    }
+
+    @Test
+    void testDisabledCacheReturnsTheDto() {
+        cacheProperties.setResponseEnabled(false);
+        ResponseCacheService disabled = new ResponseCacheService(new ObjectMapper(), cacheService, cacheProperties);
+
+        assertSame(art, disabled.art(art, request()).getBody());
+        assertEquals(0, cacheService.getArtResponseCache().size());
+    }
+
+    @Test
+    void testMatchingETagIsAnsweredWithNotModified() {
+        String eTag = responseCacheService.art(art, request()).getHeaders().getETag();
+        ServletWebRequest conditional = request(eTag);
+
+        assertNull(responseCacheService.art(art, conditional));
+        assertEquals(304, conditional.getResponse().getStatus());
+
+        ArtDTO changed = new ArtDTO();
+        changed.setId(1);
+        changed.setTitle("Water Lilies");
+        changed.setVersion(8L);
+        assertNotNull(responseCacheService.art(changed, request(eTag)));
+    }
+
+    @Test
+    void testCollectionETagChangesWithAnyCatalogueWrite() {
+        AtomicInteger loads = new AtomicInteger();
+        ResponseEntity<List<ArtDTO>> first = responseCacheService.collection("art", request(), () -> {
+            loads.incrementAndGet();
+            return List.of(art);
+        });
+        String eTag = first.getHeaders().getETag();
+
+        assertNull(responseCacheService.collection("art", request(eTag), () -> {
+            loads.incrementAndGet();
+            return List.of(art);
+        }));
+        assertEquals(1, loads.get());
+
+        Artist artist = new Artist();
+        artist.setId(3);
+        cacheService.invalidateQueries(artist);
+        assertNotNull(responseCacheService.collection("art", request(eTag), List::of));
+    }
+
+    @Test
+    void testPageTagIsCheckedAfterTheCursor() {
+        String eTag = responseCacheService.page("art", null, null, request(), () -> List.of(art))
+                .getHeaders().getETag();
+
+        assertNull(responseCacheService.page("art", "", 50, request(eTag), List::of));
+        assertThrows(ValidationException.class,
+                () -> responseCacheService.page("art", "not-a-cursor", null, request(eTag), List::of));
+        assertThrows(ValidationException.class,
+                () -> responseCacheService.page("art", null, 500, request(eTag), List::of));
+        assertNotNull(responseCacheService.page("art", KeysetPages.encode(1), null, request(eTag), List::of));
+    }
+}
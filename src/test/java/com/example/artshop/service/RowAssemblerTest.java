@@ -0,0 +1,129 @@
+package com.example.artshop.service;
+
+import com.example.artshop.dto.ArtDTO;
+import com.example.artshop.dto.ArtistDTO;
+import com.example.artshop.dto.ClassificationDTO;
+import com.example.artshop.model.Art;
+import com.example.artshop.model.Artist;
+import com.example.artshop.model.Classification;
+import com.example.artshop.repository.ArtRepository;
+import com.example.artshop.repository.ArtRow;
+import com.example.artshop.repository.ArtistRepository;
+import com.example.artshop.repository.ArtistRow;
+import com.example.artshop.repository.ClassificationRepository;
+import com.example.artshop.repository.ClassificationRow;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowAssemblerTest {
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private ArtRepository artRepository;
+    private ArtistRepository artistRepository;
+    private ClassificationRepository classificationRepository;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = CatalogueSessionFactory.build(false);
+        CatalogueSessionFactory.populate(sessionFactory, 20, 5);
+        entityManager = sessionFactory.createEntityManager();
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+        artRepository = factory.getRepository(ArtRepository.class);
+        artistRepository = factory.getRepository(ArtistRepository.class);
+        classificationRepository = factory.getRepository(ClassificationRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void testArtRowsMatchEntities() {
+        List<Integer> ids = artRepository.findAllIds();
+
+        List<ArtDTO> arts = RowAssembler.arts(artRepository.findRowsByIdIn(ids));
+
+        assertEquals(ids.size(), arts.size());
+        for (ArtDTO dto : arts) {
+            Art art = entityManager.find(Art.class, dto.getId());
+            assertEquals(art.getTitle(), dto.getTitle());
+            assertEquals(art.getClassification().getName(), dto.getClassification().getName());
+            assertEquals(art.getArtists().stream().map(Artist::getId).collect(Collectors.toSet()),
+                    dto.getArtists().stream().map(ArtistDTO::getId).collect(Collectors.toSet()));
+            assertEquals(EntityVersions.of(art) + EntityVersions.ofArtists(art.getArtists())
+                    + EntityVersions.of(art.getClassification()), dto.getVersion());
+        }
+    }
+
+    @Test
+    void testArtistRowsMatchEntities() {
+        List<ArtistDTO> artists = RowAssembler.artists(artistRepository.findRowsByName("", "Last1"));
+
+        assertEquals(1, artists.size());
+        Artist artist = entityManager.find(Artist.class, artists.get(0).getId());
+        assertEquals(artist.getArts().size(), artists.get(0).getArtworkCount());
+        assertEquals(artist.getArts().stream().map(Art::getId).collect(Collectors.toSet()),
+                Set.copyOf(artists.get(0).getArtworkIds()));
+        assertEquals(EntityVersions.of(artist) + EntityVersions.ofArts(artist.getArts()),
+                artists.get(0).getVersion());
+    }
+
+    @Test
+    void testSearchReturnsAllArtistsOfMatchingArt() {
+        List<ArtDTO> arts = RowAssembler.arts(artRepository.findRowsByArtistLastName("Last0"));
+
+        assertFalse(arts.isEmpty());
+        assertTrue(arts.stream().allMatch(art -> art.getArtists().size() == 2));
+    }
+
+    @Test
+    void testClassificationRowsMatchEntities() {
+        List<ClassificationDTO> classifications =
+                RowAssembler.classifications(classificationRepository.findRowsByName("paint"));
+
+        assertEquals(1, classifications.size());
+        Classification classification = entityManager.find(Classification.class, classifications.get(0).getId());
+        assertEquals(20, classifications.get(0).getArtworkCount());
+        assertEquals(EntityVersions.of(classification) + EntityVersions.ofArts(classification.getArts()),
+                classifications.get(0).getVersion());
+    }
+
+    @Test
+    void testRootsWithoutChildren() {
+        List<ArtDTO> arts = RowAssembler.arts(List.of(
+                new ArtRow(1, "Untitled", null, 0L, null, null, null, null, null, null, null, null, null)));
+
+        assertEquals(1, arts.size());
+        assertTrue(arts.get(0).getArtists().isEmpty());
+        assertNull(arts.get(0).getClassification());
+    }
+
+    @Test
+    void testNestedListsAreUnmodifiable() {
+        ArtDTO art = RowAssembler.arts(List.of(
+                new ArtRow(1, "Untitled", null, 0L, null, null, null, null, 2, "Jane", null, "Doe", 0L))).get(0);
+        ArtistDTO artist = RowAssembler.artists(List.of(
+                new ArtistRow(2, "Jane", null, "Doe", 0L, 1, "Untitled", 0L))).get(0);
+        ClassificationDTO classification = RowAssembler.classifications(List.of(
+                new ClassificationRow(3, "Painting", "Oil", 0L, 1, "Untitled", 0L))).get(0);
+
+        assertThrows(UnsupportedOperationException.class, () -> art.getArtists().clear());
+        assertThrows(UnsupportedOperationException.class, () -> artist.getArtworkTitles().clear());
+        assertThrows(UnsupportedOperationException.class, () -> artist.getArtworkIds().clear());
+        assertThrows(UnsupportedOperationException.class, () -> classification.getArtworkTitles().clear());
+        assertThrows(UnsupportedOperationException.class, () -> classification.getArtworkIds().clear());
+    }
+}
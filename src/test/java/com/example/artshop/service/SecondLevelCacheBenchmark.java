@@ -0,0 +1,76 @@
+package com.example.artshop.service;
+
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Loading an art with its classification, artists and their arts, with and without the second-level
+// cache. Besides the timings it prints the SQL statements issued per request.
+// mvn test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.example.artshop.service.SecondLevelCacheBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+    private static final int ARTS = 1000;
+
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+
+    private SessionFactory sessionFactory;
+    private long requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = CatalogueSessionFactory.build(secondLevelCache);
+        CatalogueSessionFactory.populate(sessionFactory, ARTS, 100);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        sessionFactory.getStatistics().clear();
+        requests = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        System.out.printf("  SQL statements per request: %.3f%n",
+                (double) sessionFactory.getStatistics().getPrepareStatementCount() / requests);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int readArt() {
+        requests++;
+        next = next % ARTS + 1;
+        return CatalogueSessionFactory.readArt(sessionFactory, next);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SecondLevelCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
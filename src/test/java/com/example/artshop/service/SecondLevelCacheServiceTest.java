@@ -0,0 +1,99 @@
+package com.example.artshop.service;
+
+import com.example.artshop.model.Art;
+import com.example.artshop.model.Artist;
+import com.example.artshop.service.cache.RegionStatistics;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheServiceTest {
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private SecondLevelCacheService secondLevelCacheService;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = CatalogueSessionFactory.build(true);
+        CatalogueSessionFactory.populate(sessionFactory, 10, 4);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        secondLevelCacheService = new SecondLevelCacheService(sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testRepeatedReadOfArtGraphRunsNoSql() {
+        CatalogueSessionFactory.readArt(sessionFactory, 1);
+        long firstRead = statistics.getPrepareStatementCount();
+
+        CatalogueSessionFactory.readArt(sessionFactory, 1);
+
+        assertTrue(firstRead > 0);
+        assertEquals(firstRead, secondLevelCacheService.getStatementCount());
+        Map<String, RegionStatistics> regions = regionsByName();
+        assertTrue(regions.get("classification").getHitCount() > 0);
+        assertTrue(regions.get("art.artists").getHitCount() > 0);
+        assertTrue(regions.get("artist.arts").getHitCount() > 0);
+    }
+
+    @Test
+    void testCacheableQueryIsAnsweredFromQueryCache() {
+        Runnable findByTitle = () -> sessionFactory.inSession(session -> session
+                .createQuery("SELECT a FROM Art a WHERE a.title = :title", Art.class)
+                .setParameter("title", "Art 3")
+                .setCacheable(true)
+                .getSingleResult());
+
+        findByTitle.run();
+        long firstRun = statistics.getPrepareStatementCount();
+        findByTitle.run();
+
+        assertEquals(firstRun, statistics.getPrepareStatementCount());
+        assertEquals(1, regionsByName().get("default-query-results-region").getHitCount());
+    }
+
+    @Test
+    void testArtistArtsIsEvictedWhenAnArtJoinsTheArtist() {
+        int before = sessionFactory.fromSession(session -> session.find(Artist.class, 1).getArts().size());
+
+        sessionFactory.inTransaction(session -> {
+            Art art = new Art("New art", 2024);
+            art.getArtists().add(session.find(Artist.class, 1));
+            session.persist(art);
+        });
+
+        int after = sessionFactory.fromSession(session -> session.find(Artist.class, 1).getArts().size());
+        assertEquals(before + 1, after);
+    }
+
+    @Test
+    void testEvictAllEmptiesRegions() {
+        CatalogueSessionFactory.readArt(sessionFactory, 1);
+
+        secondLevelCacheService.evictAll();
+        long statements = statistics.getPrepareStatementCount();
+        CatalogueSessionFactory.readArt(sessionFactory, 1);
+
+        assertTrue(statistics.getPrepareStatementCount() > statements);
+    }
+
+    private Map<String, RegionStatistics> regionsByName() {
+        return secondLevelCacheService.getRegionStatistics().stream()
+                .collect(Collectors.toMap(RegionStatistics::getName, Function.identity()));
+    }
+}
@@ -2,7 +2,10 @@ package com.example.artshop.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -108,4 +111,31 @@ class VisitCounterServiceTest {
         assertEquals(1000, visitCounterService.getEndpointVisits("/api/artist"));
         assertEquals(2000, visitCounterService.getTotalVisits());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetMostVisitedIds() {
+        visitCounterService.recordVisit("/api/art/2");
+        visitCounterService.recordVisit("/api/art/5");
+        visitCounterService.recordVisit("/api/art/5");
+        visitCounterService.recordVisit("/api/art/5/");
+        visitCounterService.recordVisit("/api/art/all");
+        visitCounterService.recordVisit("/api/artist/9");
+
+        assertEquals(List.of(5, 2), visitCounterService.getMostVisitedIds("/api/art/", 10));
+        assertEquals(List.of(5), visitCounterService.getMostVisitedIds("/api/art/", 1));
+    }
+
+    @Test
+    void testHistorySurvivesRestart(@TempDir Path dir) {
+        Path history = dir.resolve("visits.tsv");
+        VisitCounterService before = new VisitCounterService(history);
+        before.recordVisit("/api/art/1");
+        before.recordVisit("/api/art/1");
+        before.saveHistory();
+
+        VisitCounterService after = new VisitCounterService(history);
+
+        assertEquals(2, after.getEndpointVisits("/api/art/1"));
+        assertEquals(2, after.getTotalVisits());
+    }
+}
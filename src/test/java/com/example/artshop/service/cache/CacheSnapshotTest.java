@@ -0,0 +1,119 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotTest {
+
+    private static final CacheCodec<String> CODEC = new CacheCodec<>() {
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private EntityCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("test.snapshot");
+        cache = new EntityCache<>("Test", 10);
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws IOException {
+        cache.put(1, "one");
+        cache.put(2, "two");
+
+        assertEquals(2, CacheSnapshot.write(cache, CODEC, file));
+
+        EntityCache<String> restored = new EntityCache<>("Test", 10);
+        restored.setRevalidator(task -> { });
+        assertEquals(2, CacheSnapshot.restore(restored, CODEC, file, Duration.ofHours(1)));
+        assertEquals(Optional.of("one"), restored.getOrLoad(1, id -> Optional.empty()));
+        assertEquals(Optional.of("two"), restored.getOrLoad(2, id -> Optional.empty()));
+    }
+
+    @Test
+    void testUnverifiedEntriesAreAMissForGet() throws IOException {
+        cache.put(1, "stale");
+        CacheSnapshot.write(cache, CODEC, file);
+        EntityCache<String> restored = new EntityCache<>("Test", 10);
+        restored.setRevalidator(Runnable::run);
+        CacheSnapshot.restore(restored, CODEC, file, null);
+
+        assertEquals(Optional.empty(), restored.get(1));
+        assertTrue(restored.contains(1));
+
+        restored.getOrLoad(1, id -> Optional.of("fresh"));
+        assertEquals(Optional.of("fresh"), restored.get(1));
+    }
+
+    @Test
+    void testSnapshotForAnotherCacheOrMissingFileIsIgnored() throws IOException {
+        cache.put(1, "one");
+        CacheSnapshot.write(cache, CODEC, file);
+
+        assertEquals(0, CacheSnapshot.restore(new EntityCache<>("Other", 10), CODEC, file, null));
+        assertEquals(0, CacheSnapshot.restore(cache, CODEC, dir.resolve("missing"), null));
+    }
+
+    @Test
+    void testTruncatedSnapshotKeepsCompleteEntries() throws IOException {
+        cache.put(1, "one");
+        cache.put(2, "two");
+        CacheSnapshot.write(cache, CODEC, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+
+        EntityCache<String> restored = new EntityCache<>("Test", 10);
+        assertEquals(1, CacheSnapshot.restore(restored, CODEC, file, null));
+    }
+
+    @Test
+    void testRestoredEntriesAreRevalidatedOnFirstUse() throws IOException {
+        cache.put(1, "stale");
+        cache.put(2, "deleted");
+        CacheSnapshot.write(cache, CODEC, file);
+        EntityCache<String> restored = new EntityCache<>("Test", 10);
+        restored.setRevalidator(Runnable::run);
+        CacheSnapshot.restore(restored, CODEC, file, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(Optional.of("stale"), restored.getOrLoad(1, id -> {
+            loads.incrementAndGet();
+            return Optional.of("fresh");
+        }));
+        assertEquals(Optional.of("fresh"), restored.get(1));
+        assertEquals(Optional.of("deleted"), restored.getOrLoad(2, id -> Optional.empty()));
+        assertFalse(restored.contains(2));
+
+        restored.getOrLoad(1, id -> {
+            loads.incrementAndGet();
+            return Optional.of("again");
+        });
+        assertEquals(1, loads.get());
+    }
+}
@@ -4,9 +4,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -86,7 +98,7 @@ class EntityCacheTest {
         String info = cache.getCacheInfo();
 
         assertTrue(info.contains("1 items"));
-        assertTrue(info.contains("Test Entity"));
+        assertFalse(info.contains("Test Entity"));
     }
 
     @Test
@@ -106,4 +118,510 @@ class EntityCacheTest {
         assertFalse(items.containsKey(1)); // Первый элемент должен быть удален
         assertTrue(items.containsKey(6)); // Последний элемент должен остаться
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCapacityIsRespectedAcrossSegments() {
+        EntityCache<String> large = new EntityCache<>("Large", 1000);
+        for (int i = 1; i <= 5000; i++) {
+            large.put(i, "Entity " + i);
+        }
+
+        assertEquals(1000, large.getCapacity());
+        assertTrue(large.size() <= 1000);
+        assertTrue(large.get(5000).isPresent());
+    }
+
+    @Test
+    void testConcurrentAccess() throws InterruptedException {
+        EntityCache<String> shared = new EntityCache<>("Shared", 256);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger errors = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        int id = (i * 31 + offset) % 1024;
+                        shared.put(id, "Entity " + id);
+                        shared.get(id).ifPresent(value -> {
+                            if (!value.equals("Entity " + id)) {
+                                errors.incrementAndGet();
+                            }
+                        });
+                        if (i % 7 == 0) {
+                            shared.evict(id);
+                        }
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(0, errors.get());
+        assertTrue(shared.size() <= 256);
+    }
+
+    @Test
+    void testExpireAfterWrite() {
+        AtomicLong now = new AtomicLong();
+        CacheSettings settings = new CacheSettings(10, 0, Duration.ofMinutes(5), null);
+        EntityCache<String> ttlCache = new EntityCache<>("Ttl", settings, e -> 1, now::get);
+
+        ttlCache.put(1, testEntity);
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertTrue(ttlCache.get(1).isPresent());
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertFalse(ttlCache.get(1).isPresent());
+        assertEquals(0, ttlCache.size());
+    }
+
+    @Test
+    void testExpireAfterAccess() {
+        AtomicLong now = new AtomicLong();
+        CacheSettings settings = new CacheSettings(10, 0, null, Duration.ofMinutes(5));
+        EntityCache<String> ttlCache = new EntityCache<>("Ttl", settings, e -> 1, now::get);
+
+        ttlCache.put(1, testEntity);
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertTrue(ttlCache.get(1).isPresent());
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertTrue(ttlCache.get(1).isPresent());
+
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+        assertFalse(ttlCache.get(1).isPresent());
+    }
+
+    @Test
+    void testExpiryAndCapacityChangeAtRuntime() {
+        AtomicLong now = new AtomicLong();
+        CacheSettings settings = new CacheSettings(10, 0, Duration.ofHours(1), null);
+        EntityCache<String> ttlCache = new EntityCache<>("Ttl", settings, e -> 1, now::get);
+        for (int id = 10; id > 0; id--) {
+            ttlCache.put(id, testEntity);
+        }
+
+        ttlCache.setExpiry(Duration.ofMinutes(5), null);
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+        assertFalse(ttlCache.get(10).isPresent());
+        assertEquals(Duration.ZERO, ttlCache.getExpireAfterAccess());
+
+        ttlCache.setExpiry(Duration.ZERO, null);
+        ttlCache.setCapacity(4);
+        assertEquals(4, ttlCache.getCapacity());
+        assertEquals(List.of(1, 2, 3, 4), ttlCache.keys());
+    }
+
+    @Test
+    void testHotKeySurvivesScanOfOneOffReads() {
+        CacheSettings settings = new CacheSettings(10, 0, null, null);
+        settings.setHotKeyRatio(0.2);
+        settings.setHotKeyThreshold(4);
+        EntityCache<String> hotCache = new EntityCache<>("Hot", settings);
+        hotCache.put(1, testEntity);
+        for (int i = 0; i < 5; i++) {
+            hotCache.get(1);
+        }
+
+        // fewer reads than the sketch samples before halving, so key 1 stays hot
+        for (int id = 100; id < 150; id++) {
+            hotCache.get(id);
+            hotCache.put(id, testEntity);
+        }
+
+        assertTrue(hotCache.contains(1));
+        assertEquals(1, hotCache.hotKeys().get(0).id());
+        assertEquals(1, hotCache.hotKeys().size());
+    }
+
+    @Test
+    void testWithoutHotKeysScanEvictsEverything() {
+        EntityCache<String> lruCache = new EntityCache<>("Lru", new CacheSettings(10, 0, null, null));
+        lruCache.put(1, testEntity);
+        for (int i = 0; i < 5; i++) {
+            lruCache.get(1);
+        }
+
+        for (int id = 100; id < 200; id++) {
+            lruCache.put(id, testEntity);
+        }
+
+        assertFalse(lruCache.contains(1));
+        assertTrue(lruCache.hotKeys().isEmpty());
+    }
+
+    @Test
+    void testWeightLimitEvictsLeastRecentlyUsed() {
+        CacheSettings settings = new CacheSettings(10, 300, null, null);
+        EntityCache<String> weighted = new EntityCache<>("Weighted", settings, String::length);
+
+        weighted.put(1, "a".repeat(100));
+        weighted.put(2, "b".repeat(100));
+        weighted.get(1);
+        weighted.put(3, "c".repeat(150));
+
+        assertTrue(weighted.weightBytes() <= 300);
+        assertTrue(weighted.get(1).isPresent());
+        assertFalse(weighted.get(2).isPresent());
+        assertTrue(weighted.get(3).isPresent());
+    }
+
+    @Test
+    void testStatistics() {
+        EntityCache<String> small = new EntityCache<>("Stats", 2);
+        small.put(1, "one");
+        small.put(2, "two");
+        small.get(1);
+        small.get(3);
+        small.update(1, "uno");
+        small.put(3, "three");
+        small.evict(1);
+        small.recordLoad(2_000_000, true);
+
+        CacheStatistics stats = small.getStats();
+        assertEquals("Stats", stats.getName());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate());
+        assertEquals(3, stats.getPutCount());
+        assertEquals(1, stats.getUpdateCount());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(1, stats.getInvalidationCount());
+        assertEquals(1, stats.getLoadSuccessCount());
+        assertEquals(2.0, stats.getAverageLoadTimeMillis());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testGetOrLoadCoalescesConcurrentMisses() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Future<Optional<String>>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> cache.getOrLoad(1, id -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Optional.of(testEntity);
+            })));
+        }
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Optional<String>> result : results) {
+            assertEquals(Optional.of(testEntity), result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(Optional.of(testEntity), cache.get(1));
+        assertEquals(1, cache.getStats().getLoadSuccessCount());
+    }
+
+    @Test
+    void testGetOrLoadDoesNotCacheMissingOrInvalidatedValues() {
+        assertTrue(cache.getOrLoad(1, id -> Optional.empty()).isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getStats().getLoadFailureCount());
+
+        Optional<String> loaded = cache.getOrLoad(2, id -> {
+            cache.evict(id);
+            return Optional.of("stale");
+        });
+        assertEquals(Optional.of("stale"), loaded);
+        assertFalse(cache.get(2).isPresent());
+    }
+
+    @Test
+    void testGetOrLoadPropagatesLoaderFailure() {
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoad(1, id -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals(Optional.of(testEntity), cache.getOrLoad(1, id -> Optional.of(testEntity)));
+    }
+
+    @Test
+    void testWritesInsideTransactionApplyAfterCommit() throws Exception {
+        cache.put(1, "committed");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(1, "pending");
+            cache.put(2, "new");
+
+            assertEquals(Optional.of("pending"), cache.get(1));
+            assertEquals(Optional.of("new"), cache.get(2));
+            ExecutorService other = Executors.newSingleThreadExecutor();
+            assertEquals(Optional.of("committed"), other.submit(() -> cache.get(1)).get());
+            assertEquals(Optional.empty(), other.submit(() -> cache.get(2)).get());
+            other.shutdown();
+
+            completeTransaction(true);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Optional.of("pending"), cache.get(1));
+        assertEquals(Optional.of("new"), cache.get(2));
+    }
+
+    @Test
+    void testRollbackDiscardsPendingWritesButKeepsEvictions() {
+        cache.put(1, "one");
+        cache.put(2, "two");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(1, "phantom");
+            cache.put(3, "phantom");
+            cache.evict(2);
+
+            completeTransaction(false);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Optional.of("one"), cache.get(1));
+        assertFalse(cache.get(2).isPresent());
+        assertFalse(cache.get(3).isPresent());
+    }
+
+    @Test
+    void testLoadedValueIsDroppedWhenWriterCommitsBeforeReader() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(Optional.of("old"), cache.getOrLoad(1, id -> Optional.of("old")));
+
+            // a writer commits and evicts after the reader loaded, but before the reader commits
+            ExecutorService writer = Executors.newSingleThreadExecutor();
+            writer.submit(() -> cache.evict(1)).get();
+            writer.shutdown();
+
+            completeTransaction(true);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(cache.get(1).isPresent());
+        assertEquals(Optional.of("new"), cache.getOrLoad(1, id -> Optional.of("new")));
+        assertEquals(Optional.of("new"), cache.get(1));
+    }
+
+    private static void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @Test
+    void testEvictedEntriesAreDemotedToSecondTierAndPromotedOnRead() {
+        EntityCache<String> tiered = new EntityCache<>("Tiered", 2);
+        tiered.setSecondTier(new OffHeapStore<>("Tiered", 4096, OffHeapStoreTest.CODEC));
+        List<Integer> removed = new ArrayList<>();
+        tiered.setListener(new CacheListener<>() {
+            @Override
+            public void onStore(Integer id, String value) {
+            }
+
+            @Override
+            public void onRemove(Integer id) {
+                removed.add(id);
+            }
+        });
+        tiered.put(1, "one");
+        tiered.put(2, "two");
+        tiered.put(3, "three");
+
+        assertEquals(2, tiered.size());
+        assertEquals(1, tiered.getSecondTier().size());
+        assertTrue(removed.isEmpty());
+
+        assertEquals(Optional.of("one"), tiered.get(1));
+        assertEquals(2, tiered.size());
+        assertEquals(1, tiered.getSecondTier().size());
+        assertEquals(3, tiered.getAllCachedItems().size());
+
+        tiered.evict(2);
+        assertFalse(tiered.contains(2));
+        assertEquals(List.of(2), removed);
+    }
+
+    @Test
+    void testUpdateReplacesDemotedEntry() {
+        EntityCache<String> tiered = new EntityCache<>("Tiered", 1);
+        tiered.setSecondTier(new OffHeapStore<>("Tiered", 4096, OffHeapStoreTest.CODEC));
+        tiered.put(1, "one");
+        tiered.put(2, "two");
+
+        tiered.update(1, "uno");
+
+        assertEquals(Optional.of("uno"), tiered.get(1));
+        assertEquals(Optional.of("two"), tiered.get(2));
+    }
+
+    @Test
+    void testContainsIgnoresExpiredDemotedEntry() {
+        AtomicLong now = new AtomicLong();
+        CacheSettings settings = new CacheSettings(1, 0, Duration.ofMinutes(5), null);
+        EntityCache<String> tiered = new EntityCache<>("Tiered", settings, e -> 1, now::get);
+        tiered.setSecondTier(new OffHeapStore<>("Tiered", 4096, OffHeapStoreTest.CODEC));
+        tiered.put(1, "one");
+        tiered.put(2, "two");
+
+        assertTrue(tiered.contains(1));
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+        assertEquals(1, tiered.getSecondTier().size());
+        assertFalse(tiered.contains(1));
+    }
+
+    @Test
+    void testResizeEvictsOldestAndGrowsBack() {
+        EntityCache<String> small = new EntityCache<>("Small", new CacheSettings(10, 0, null, null));
+        for (int id = 1; id <= 10; id++) {
+            small.put(id, "v" + id);
+        }
+        small.get(1);
+
+        small.resize(0.5);
+
+        assertEquals(5, small.getCapacity());
+        assertEquals(5, small.size());
+        assertTrue(small.contains(1));
+        assertFalse(small.contains(2));
+        assertEquals(1, small.getStats().getResizeCount());
+
+        small.resize(1);
+        for (int id = 11; id <= 15; id++) {
+            small.put(id, "v" + id);
+        }
+        assertEquals(10, small.size());
+        assertEquals(10, small.getStats().getCapacity());
+        assertEquals(2, small.getStats().getResizeCount());
+        assertThrows(IllegalArgumentException.class, () -> small.resize(0));
+    }
+
+    @Test
+    void testServesStaleEntryWhileDatabaseIsSlowAndRefreshesInBackground() throws Exception {
+        AtomicLong now = new AtomicLong();
+        EntityCache<String> ttlCache = new EntityCache<>("Ttl", new CacheSettings(10, 0, Duration.ofMinutes(5), null),
+                e -> 1, now::get);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger staleServed = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker("Db", 5, Duration.ofSeconds(30));
+        ttlCache.setStalePolicy(new StalePolicy(Duration.ofMinutes(10), Duration.ofMillis(20), breaker, executor,
+                staleServed::incrementAndGet));
+        try {
+            ttlCache.put(1, "old");
+            now.addAndGet(Duration.ofMinutes(6).toNanos());
+            CountDownLatch release = new CountDownLatch(1);
+
+            Optional<String> result = ttlCache.getOrLoad(1, id -> {
+                awaitQuietly(release);
+                return Optional.of("new");
+            });
+
+            assertEquals(Optional.of("old"), result);
+            assertEquals(1, staleServed.get());
+            assertEquals(1, ttlCache.getStats().getStaleHitCount());
+            release.countDown();
+            executor.submit(() -> { }).get(1, TimeUnit.SECONDS);
+            assertEquals(Optional.of("new"), ttlCache.get(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOpenBreakerServesStaleWithoutCallingDatabase() {
+        AtomicLong now = new AtomicLong();
+        EntityCache<String> ttlCache = new EntityCache<>("Ttl", new CacheSettings(10, 0, Duration.ofMinutes(5), null),
+                e -> 1, now::get);
+        CircuitBreaker breaker = new CircuitBreaker("Db", 1, Duration.ofSeconds(30));
+        breaker.recordFailure();
+        ttlCache.setStalePolicy(new StalePolicy(Duration.ofMinutes(10), Duration.ofMillis(20), breaker, Runnable::run,
+                () -> { }));
+        AtomicInteger loads = new AtomicInteger();
+        ttlCache.put(1, "old");
+        ttlCache.put(2, "older");
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertEquals(Optional.of("old"), ttlCache.getOrLoad(1, id -> {
+            loads.incrementAndGet();
+            return Optional.of("new");
+        }));
+        assertEquals(0, loads.get());
+
+        now.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertEquals(Optional.of("new"), ttlCache.getOrLoad(2, id -> {
+            loads.incrementAndGet();
+            return Optional.of("new");
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFreshLoadReplacesStaleEntryWithinBudget() {
+        AtomicLong now = new AtomicLong();
+        EntityCache<String> ttlCache = new EntityCache<>("Ttl", new CacheSettings(10, 0, Duration.ofMinutes(5), null),
+                e -> 1, now::get);
+        CircuitBreaker breaker = new CircuitBreaker("Db", 5, Duration.ofSeconds(30));
+        ttlCache.setStalePolicy(new StalePolicy(Duration.ofMinutes(10), Duration.ofSeconds(5), breaker, Runnable::run,
+                () -> fail("fresh value was available")));
+        ttlCache.put(1, "old");
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertEquals(Optional.of("new"), ttlCache.getOrLoad(1, id -> Optional.of("new")));
+        assertEquals(Optional.of("new"), ttlCache.get(1));
+    }
+
+    @Test
+    void testSlowLoadsDoNotOpenTheBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("Db", 1, Duration.ofSeconds(30));
+        cache.setStalePolicy(new StalePolicy(Duration.ofMinutes(10), Duration.ofMillis(1), breaker, Runnable::run,
+                () -> { }));
+
+        cache.getOrLoad(1, id -> {
+            awaitQuietly(new CountDownLatch(1), 20);
+            return Optional.of("slow");
+        });
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoad(2, id -> {
+            throw new IllegalStateException("down");
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExistenceFilterTest {
+
+    @Test
+    void testEverythingMightExistUntilBuilt() {
+        ExistenceFilter filter = new ExistenceFilter("Test", 100, 0.01);
+
+        assertFalse(filter.isBuilt());
+        assertTrue(filter.mightContain(ExistenceFilter.hash(42)));
+    }
+
+    @Test
+    void testBuiltFilterHasNoFalseNegativesAndFewFalsePositives() {
+        ExistenceFilter filter = new ExistenceFilter("Test", 1000, 0.01);
+        filter.rebuild(1000, keys -> IntStream.range(0, 1000).forEach(id -> keys.accept(ExistenceFilter.hash(id))));
+
+        IntStream.range(0, 1000).forEach(id -> assertTrue(filter.mightContain(ExistenceFilter.hash(id))));
+        long falsePositives = IntStream.range(1000, 101_000)
+                .filter(id -> filter.mightContain(ExistenceFilter.hash(id)))
+                .count();
+        assertTrue(falsePositives < 1000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testAddsDuringRebuildAreKept() {
+        ExistenceFilter filter = new ExistenceFilter("Test", 100, 0.01);
+        filter.rebuild(0, keys -> {
+        });
+
+        filter.rebuild(1, keys -> {
+            keys.accept(ExistenceFilter.hash("Mona Lisa"));
+            filter.add(ExistenceFilter.hash("The Scream"));
+        });
+
+        assertTrue(filter.mightContain(ExistenceFilter.hash("Mona Lisa")));
+        assertTrue(filter.mightContain(ExistenceFilter.hash("The Scream")));
+    }
+
+    @Test
+    void testFailedRebuildKeepsPreviousFilter() {
+        ExistenceFilter filter = new ExistenceFilter("Test", 100, 0.01);
+        filter.rebuild(1, keys -> keys.accept(ExistenceFilter.hash(1)));
+
+        assertThrows(IllegalStateException.class, () -> filter.rebuild(1, keys -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertTrue(filter.mightContain(ExistenceFilter.hash(1)));
+        filter.add(ExistenceFilter.hash(2));
+        assertTrue(filter.mightContain(ExistenceFilter.hash(2)));
+    }
+
+    @Test
+    void testSaturatesPastExpectedInsertions() {
+        ExistenceFilter filter = new ExistenceFilter("Test", 10, 0.01);
+        filter.rebuild(0, keys -> {
+        });
+
+        IntStream.range(0, 10).forEach(id -> filter.add(ExistenceFilter.hash(id)));
+        assertFalse(filter.isSaturated());
+        filter.add(ExistenceFilter.hash(10));
+        assertTrue(filter.isSaturated());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void testCountsUpToMaximum() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(7);
+        }
+        sketch.increment(8);
+
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(7));
+        assertTrue(sketch.frequency(8) >= 1);
+        assertEquals(0, sketch.frequency(9));
+    }
+
+    @Test
+    void testCountersAreHalvedAfterSample() {
+        FrequencySketch sketch = new FrequencySketch(8);
+        for (int i = 0; i < 12; i++) {
+            sketch.increment(1);
+        }
+
+        boolean halved = false;
+        for (int key = 1000; !halved; key++) {
+            halved = sketch.increment(key);
+        }
+
+        assertTrue(sketch.frequency(1) <= 6);
+        assertTrue(sketch.frequency(1) >= 5);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntLongMapTest {
+
+    @Test
+    void testMissingKeysAndNegativeValues() {
+        IntLongMap map = new IntLongMap();
+
+        assertEquals(IntLongMap.MISSING, map.get(0));
+        assertEquals(IntLongMap.MISSING, map.remove(0));
+        assertEquals(IntLongMap.MISSING, map.put(0, 0));
+        assertEquals(0, map.get(0));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -5));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        Random random = new Random(42);
+        IntLongMap map = new IntLongMap();
+        Map<Integer, Long> reference = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    Long previous = reference.put(key, (long) i);
+                    assertEquals(previous == null ? IntLongMap.MISSING : previous, map.put(key, i));
+                }
+                case 2 -> assertEquals(reference.getOrDefault(key, IntLongMap.MISSING), map.get(key));
+                default -> {
+                    Long removed = reference.remove(key);
+                    assertEquals(removed == null ? IntLongMap.MISSING : removed, map.remove(key));
+                }
+            }
+            assertEquals(reference.size(), map.size());
+        }
+
+        Map<Integer, Long> copy = new HashMap<>();
+        map.forEach(copy::put);
+        assertEquals(reference, copy);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(reference.keySet().iterator().next()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.artshop.service.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Segment map lookups: IntLruMap against the access-ordered LinkedHashMap it replaced.
+// mvn test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.example.artshop.service.cache.IntLruMapBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class IntLruMapBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private IntLruMap<Object> intMap;
+    private LinkedHashMap<Integer, Object> linkedMap;
+    private EntityCache<Object> cache;
+    private int[] hitKeys;
+    private int next;
+    private int insertKey;
+
+    @Setup
+    public void setUp() {
+        intMap = new IntLruMap<>();
+        linkedMap = new LinkedHashMap<>(16, 0.75f, true);
+        cache = new EntityCache<>("Benchmark", size);
+        Object value = new Object();
+        for (int i = 0; i < size; i++) {
+            intMap.put(i * 7, value);
+            linkedMap.put(i * 7, value);
+            cache.put(i * 7, value);
+        }
+        hitKeys = new int[1024];
+        for (int i = 0; i < hitKeys.length; i++) {
+            hitKeys[i] = (int) ((i * 2654435761L) % size) * 7;
+        }
+        insertKey = size * 7;
+    }
+
+    private int nextKey() {
+        return hitKeys[next++ & (hitKeys.length - 1)];
+    }
+
+    @Benchmark
+    public Object intMapGet() {
+        return intMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Object linkedHashMapGet() {
+        return linkedMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Object entityCacheGet() {
+        return cache.get(nextKey());
+    }
+
+    @Benchmark
+    public int intMapPutEvict() {
+        intMap.put(insertKey++, intMap.eldestValue());
+        int eldest = intMap.eldestKey();
+        intMap.removeEldest();
+        return eldest;
+    }
+
+    @Benchmark
+    public Integer linkedHashMapPutEvict() {
+        Iterator<Map.Entry<Integer, Object>> eldest = linkedMap.entrySet().iterator();
+        Map.Entry<Integer, Object> entry = eldest.next();
+        linkedMap.put(insertKey++, entry.getValue());
+        eldest = linkedMap.entrySet().iterator();
+        Integer key = eldest.next().getKey();
+        eldest.remove();
+        return key;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IntLruMapBenchmark.class.getSimpleName()).build()).run();
+    }
+}
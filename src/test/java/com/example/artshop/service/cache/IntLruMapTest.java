@@ -0,0 +1,83 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntLruMapTest {
+
+    @Test
+    void testAccessOrderAndEldest() {
+        IntLruMap<String> map = new IntLruMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "c");
+
+        assertEquals("a", map.get(1));
+
+        assertEquals(2, map.eldestKey());
+        assertEquals("b", map.eldestValue());
+        map.removeEldest();
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(2));
+        assertEquals(3, map.eldestKey());
+    }
+
+    @Test
+    void testCollidingKeysSurviveRemovalAndResize() {
+        IntLruMap<Integer> map = new IntLruMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 16, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, map.remove(i * 16));
+        }
+
+        assertEquals(500, map.size());
+        for (int i = 1; i < 1000; i += 2) {
+            assertEquals(i, map.get(i * 16));
+        }
+        assertNull(map.get(0));
+        assertNull(map.remove(0));
+    }
+
+    @Test
+    void testMatchesAccessOrderedLinkedHashMap() {
+        Random random = new Random(42);
+        IntLruMap<Integer> map = new IntLruMap<>();
+        LinkedHashMap<Integer, Integer> reference = new LinkedHashMap<>(16, 0.75f, true);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            switch (random.nextInt(5)) {
+                case 0, 1 -> assertEquals(reference.put(key, i), map.put(key, i));
+                case 2 -> assertEquals(reference.get(key), map.get(key));
+                case 3 -> assertEquals(reference.remove(key), map.remove(key));
+                default -> {
+                    if (!reference.isEmpty()) {
+                        Map.Entry<Integer, Integer> eldest = reference.entrySet().iterator().next();
+                        assertEquals(eldest.getKey(), map.eldestKey());
+                        assertEquals(eldest.getValue(), map.eldestValue());
+                        reference.remove(eldest.getKey());
+                        map.removeEldest();
+                    }
+                }
+            }
+            assertEquals(reference.size(), map.size());
+        }
+
+        List<Integer> order = new ArrayList<>();
+        map.forEach((key, value) -> order.add(key));
+        assertEquals(new ArrayList<>(reference.keySet()), order);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.eldestValue());
+    }
+}
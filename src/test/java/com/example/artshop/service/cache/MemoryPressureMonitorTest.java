@@ -0,0 +1,61 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryPressureMonitorTest {
+
+    private EntityCache<String> cache;
+    private MemoryPressureMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EntityCache<>("Test", new CacheSettings(100, 1000, null, null));
+        monitor = new MemoryPressureMonitor(List.of(cache), 0.85, 0.6, 0.2);
+    }
+
+    @Test
+    void testShrinksUnderPressureDownToMinimum() {
+        assertEquals(0.5, monitor.onOccupancy(0.9));
+        assertEquals(50, cache.getCapacity());
+        assertEquals(500, cache.getMaxWeightBytes());
+
+        monitor.onOccupancy(0.9);
+        monitor.onOccupancy(0.95);
+
+        assertEquals(0.2, monitor.getScale());
+        assertEquals(20, cache.getCapacity());
+        assertEquals(3, cache.getStats().getResizeCount());
+    }
+
+    @Test
+    void testGrowsBackOnlyBelowLowWatermark() {
+        monitor.onOccupancy(0.9);
+
+        assertEquals(0.5, monitor.onOccupancy(0.7));
+        assertEquals(0.625, monitor.onOccupancy(0.5));
+
+        for (int i = 0; i < 5; i++) {
+            monitor.onOccupancy(0.3);
+        }
+        assertEquals(1.0, monitor.getScale());
+        assertEquals(100, cache.getCapacity());
+    }
+
+    @Test
+    void testStartAndStopRegisterWithTheJvm() {
+        monitor.start();
+        monitor.stop();
+
+        assertEquals(1.0, monitor.getScale());
+    }
+
+    @Test
+    void testRejectsInvertedWatermarks() {
+        assertThrows(IllegalArgumentException.class, () -> new MemoryPressureMonitor(List.of(cache), 0.5, 0.6, 0.2));
+    }
+}
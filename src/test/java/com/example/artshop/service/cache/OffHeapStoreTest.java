@@ -0,0 +1,89 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStoreTest {
+
+    static final CacheCodec<String> CODEC = new CacheCodec<>() {
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    // header (24) + UTF length (2) + 6 chars
+    private static final int RECORD = 32;
+
+    private OffHeapStore<String> store;
+    private final List<Integer> evicted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapStore<>("Test", RECORD * 4 + 10, CODEC);
+        store.setEvictionListener(evicted::add);
+    }
+
+    @Test
+    void testTakeReturnsStoredValueAndRemovesIt() {
+        assertTrue(store.put(1, "value1", 5, 7));
+
+        OffHeapStore.Stored<String> stored = store.take(1);
+
+        assertEquals("value1", stored.value());
+        assertEquals(5, stored.writeTime());
+        assertEquals(7, stored.accessTime());
+        assertNull(store.take(1));
+        assertEquals(0, store.usedBytes());
+    }
+
+    @Test
+    void testOldestRecordsAreEvictedWhenFull() {
+        for (int id = 1; id <= 6; id++) {
+            store.put(id, "value" + id, 0, 0);
+        }
+
+        assertEquals(List.of(1, 2), evicted);
+        assertEquals(4, store.size());
+        assertFalse(store.contains(2));
+        assertEquals("value6", store.take(6).value());
+        assertEquals(2, store.getEvictionCount());
+    }
+
+    @Test
+    void testRewrittenAndRemovedRecordsAreNotReportedAsEvicted() {
+        store.put(1, "value1", 0, 0);
+        store.put(2, "value2", 0, 0);
+        store.put(1, "valueA", 0, 0);
+        assertTrue(store.remove(2));
+        for (int id = 3; id <= 6; id++) {
+            store.put(id, "value" + id, 0, 0);
+        }
+
+        assertEquals(List.of(1), evicted);
+        Map<Integer, String> items = new LinkedHashMap<>();
+        store.copyInto(items);
+        assertEquals(Map.of(3, "value3", 4, "value4", 5, "value5", 6, "value6"), items);
+    }
+
+    @Test
+    void testRecordsLargerThanTheBufferAreRejected() {
+        assertFalse(store.put(1, "x".repeat(RECORD * 5), 0, 0));
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.artshop.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    private QueryCache<String> cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new QueryCache<>("Test", new CacheSettings(3, 0, null, null), value -> Integer.valueOf(value));
+    }
+
+    private List<String> load(String... ids) {
+        loads.incrementAndGet();
+        return List.of(ids);
+    }
+
+    @Test
+    void testQueriesAreCachedByNormalizedKey() {
+        assertEquals(List.of("1", "2"), cache.get(QueryCache.key("Monet"), () -> load("1", "2")));
+        assertEquals(List.of("1", "2"), cache.get(QueryCache.key("MONET"), () -> load("3")));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getHitCount());
+        assertEquals(List.of("", "doe"), QueryCache.key(null, "Doe"));
+    }
+
+    @Test
+    void testInvalidateIdsDropsOnlyEntriesContainingThem() {
+        cache.get(QueryCache.key("a"), () -> load("1", "2"));
+        cache.get(QueryCache.key("b"), () -> load("3"));
+
+        cache.invalidateIds(Set.of(2));
+
+        assertEquals(1, cache.size());
+        cache.get(QueryCache.key("b"), () -> load("3"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateMatchingDropsEntriesForNewlyMatchingRows() {
+        cache.get(QueryCache.key("mon"), () -> load());
+        cache.get(QueryCache.key("pic"), () -> load());
+
+        cache.invalidateMatching(key -> "monet".contains(key.get(0)));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getStats().getInvalidationCount());
+    }
+
+    @Test
+    void testResultLoadedAcrossAnInvalidationIsNotCached() {
+        List<String> results = cache.get(QueryCache.key("a"), () -> {
+            cache.invalidateIds(Set.of(1));
+            return load("1");
+        });
+
+        assertEquals(List.of("1"), results);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCapacityEvictsLeastRecentlyUsedQuery() {
+        cache.get(QueryCache.key("a"), () -> load("1"));
+        cache.get(QueryCache.key("b"), () -> load("2"));
+        cache.get(QueryCache.key("c"), () -> load("3"));
+        cache.get(QueryCache.key("a"), () -> load("1"));
+        cache.get(QueryCache.key("d"), () -> load("4"));
+
+        assertEquals(3, cache.size());
+        cache.get(QueryCache.key("a"), () -> load("1"));
+        assertEquals(4, loads.get());
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    void testResultsLoadedAfterAnInvalidationInTheSameTransactionAreNotShared() {
+        cache.get(QueryCache.key("a"), () -> load("1"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateIds(Set.of(1));
+            cache.get(QueryCache.key("a"), () -> load("1", "2"));
+            assertEquals(0, cache.size());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.get(QueryCache.key("a"), () -> load("1", "2"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testServesStaleResultsWhileBreakerIsOpen() {
+        AtomicLong now = new AtomicLong();
+        QueryCache<String> ttlCache = new QueryCache<>("Ttl", new CacheSettings(3, 0, Duration.ofMinutes(5), null),
+                Integer::valueOf, now::get);
+        CircuitBreaker breaker = new CircuitBreaker("Db", 1, Duration.ofSeconds(30));
+        ttlCache.setStalePolicy(new StalePolicy(Duration.ofMinutes(10), Duration.ofMillis(20), breaker, Runnable::run,
+                () -> { }));
+        ttlCache.get(QueryCache.key("a"), () -> load("1"));
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+        breaker.recordFailure();
+
+        assertEquals(List.of("1"), ttlCache.get(QueryCache.key("a"), () -> load("2")));
+        assertEquals(1, loads.get());
+        assertEquals(1, ttlCache.getStats().getStaleHitCount());
+    }
+
+    @Test
+    void testSlowLoadsDoNotOpenTheBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("Db", 1, Duration.ofSeconds(30));
+        cache.setStalePolicy(new StalePolicy(Duration.ofMinutes(10), Duration.ofNanos(1), breaker, Runnable::run,
+                () -> { }));
+
+        cache.get(QueryCache.key("a"), () -> load("1"));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}